@@ -0,0 +1,45 @@
+package ourreversi.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Represent the runner of the model benchmarks, writes the results as JSON so runs can be
+ * compared over time.
+ * Arguments (all optional):
+ * - Benchmarks to run, a regular expression of class or method names (Default: all)
+ * - JSON result file (Default: jmh-result.json)
+ * - Forks (Default: 1)
+ */
+public final class BenchmarkRunner {
+
+  /**
+   * The runner of the benchmarks.
+   */
+  public static void main(String[] args) throws RunnerException {
+    String include = args.length > 0 ? args[0]
+            : "ourreversi\\.benchmark\\.(Initialization|Move|Playout)Benchmark";
+    String result = args.length > 1 ? args[1] : "jmh-result.json";
+    int forks = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+    Options options = new OptionsBuilder()
+            .include(include)
+            .forks(forks)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(1))
+            .resultFormat(ResultFormatType.JSON)
+            .result(result)
+            .build();
+    new Runner(options).run();
+  }
+
+  private BenchmarkRunner() {
+    // Only the runner.
+  }
+}
@@ -0,0 +1,67 @@
+package ourreversi.benchmark;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.SquareReversi;
+import ourreversi.model.UndoRecord;
+
+/**
+ * Represent the positions the benchmarks measure on, the same on every run.
+ */
+final class BoardStates {
+
+  // Seed of the random moves, fixed so every run measures the same positions.
+  static final long SEED = 2024;
+
+  /**
+   * A new game of the mode, not started.
+   *
+   * @param mode basic or square.
+   * @return the game.
+   * @throws IllegalArgumentException if the mode is neither basic nor square.
+   */
+  static IReversi newGame(String mode) {
+    switch (mode) {
+      case "basic":
+        return new BasicReversi();
+      case "square":
+        return new SquareReversi();
+      default:
+        throw new IllegalArgumentException("Invalid game mode: " + mode);
+    }
+  }
+
+  /**
+   * A started game of the mode and size after random moves, a third of the empty cells
+   * filled, the position the middle of a game is spent in.
+   *
+   * @param mode basic or square.
+   * @param size Size of the game.
+   * @return the game.
+   */
+  static IReversi middleGame(String mode, int size) {
+    IReversi model = newGame(mode);
+    model.initializeReversi(size);
+    List<ICell> cells = model.getAllCells();
+    int[] moves = new int[cells.size()];
+    UndoRecord undo = new UndoRecord();
+    SplittableRandom random = new SplittableRandom(SEED);
+    int plies = cells.size() / 3;
+    for (int ply = 0; ply < plies; ply++) {
+      int count = model.generateMoves(moves);
+      if (count == 0) {
+        break;
+      }
+      model.makeMove(moves[random.nextInt(count)], undo);
+    }
+    return model;
+  }
+
+  private BoardStates() {
+    // Only static methods.
+  }
+}
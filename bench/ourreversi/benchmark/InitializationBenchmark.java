@@ -0,0 +1,40 @@
+package ourreversi.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import ourreversi.model.IReversi;
+
+/**
+ * Represent the benchmark of building and starting a board of every size.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InitializationBenchmark {
+
+  @Param({"basic", "square"})
+  public String mode;
+
+  @Param({"2", "3", "4", "5", "6", "8", "10", "12", "16", "20", "24", "32", "40"})
+  public int size;
+
+  /**
+   * Construct and initialize a game.
+   *
+   * @return the game, so the work is not optimized away.
+   */
+  @Benchmark
+  public IReversi initialize() {
+    IReversi model = BoardStates.newGame(mode);
+    model.initializeReversi(size);
+    return model;
+  }
+}
@@ -0,0 +1,163 @@
+package ourreversi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ourreversi.ReversiCreator;
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.IPlayer;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.UndoRecord;
+
+/**
+ * Represent the benchmark of the work done every move on a position in the middle of a
+ * game: finding the legal moves, counting the flips, finding cells by position, playing a
+ * move and counting the score.
+ * Moves are played with makeMove and taken back with unmakeMove, so every invocation
+ * starts from the same position.
+ * The legal moves are cached and only the cells around the changes since the last
+ * update are validated again, so the move generation benchmarks play a move first and
+ * find the moves after it, the way the search does; makeUnmakeMove is the same work
+ * without the generation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoveBenchmark {
+
+  @Param({"basic", "square"})
+  public String mode;
+
+  @Param({"3", "5", "8", "16"})
+  public int size;
+
+  private IReversi model;
+  private int[] moves;
+  private int moveCount;
+  // Moves found after a move, by the generation benchmarks.
+  private int[] replies;
+  private List<ICell> emptyCells;
+  private List<ICellPosition> positions;
+  private UndoRecord undo;
+  private IPlayer black;
+  private int next;
+
+  /**
+   * Build the position and what the benchmarks go through.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    model = BoardStates.middleGame(mode, size);
+    moves = new int[model.getAllCells().size()];
+    moveCount = model.generateMoves(moves);
+    replies = new int[moves.length];
+    emptyCells = new ArrayList<>();
+    positions = new ArrayList<>();
+    for (ICell c : model.getAllCells()) {
+      positions.add(c.getPosition());
+      if (c.getCellStatus() == CellStatus.EMPTY) {
+        emptyCells.add(c);
+      }
+    }
+    undo = new UndoRecord();
+    black = ReversiCreator.createPlayer(ReversiCreator.GameType.HUMAN,
+            PlayerIdentity.BLACKPLAYER);
+  }
+
+  /**
+   * Play a move, find the legal moves after it as cells, what the strategies and the
+   * views ask for, and take the move back.
+   *
+   * @return the cells, so the work is not optimized away.
+   */
+  @Benchmark
+  public List<ICell> allCellsCanGo() {
+    model.makeMove(nextMove(), undo);
+    List<ICell> canGo = model.getAllCellsCanGo();
+    model.unmakeMove(undo);
+    return canGo;
+  }
+
+  /**
+   * Play a move, find the legal moves after it as indices, what the search asks for,
+   * and take the move back.
+   *
+   * @return number of moves.
+   */
+  @Benchmark
+  public int generateMoves() {
+    model.makeMove(nextMove(), undo);
+    int count = model.generateMoves(replies);
+    model.unmakeMove(undo);
+    return count;
+  }
+
+  /**
+   * Count the flips of the player to move on every empty cell.
+   *
+   * @param hole Sink of the counts.
+   */
+  @Benchmark
+  public void numAbleToFlip(Blackhole hole) {
+    PlayerIdentity player = model.getCurrentPlayer();
+    for (ICell c : emptyCells) {
+      hole.consume(model.numAbleToFlip(c, player));
+    }
+  }
+
+  /**
+   * Find every cell of the board by its position.
+   *
+   * @param hole Sink of the cells.
+   */
+  @Benchmark
+  public void getCellOnPosition(Blackhole hole) {
+    for (ICellPosition position : positions) {
+      hole.consume(model.getCellOnPosition(position));
+    }
+  }
+
+  /**
+   * Play one of the legal moves and take it back, a different move every invocation.
+   *
+   * @return the Zobrist key after the move.
+   */
+  @Benchmark
+  public long makeUnmakeMove() {
+    model.makeMove(nextMove(), undo);
+    long key = model.getZobristKey();
+    model.unmakeMove(undo);
+    return key;
+  }
+
+  // A different legal move of the position every invocation.
+  private int nextMove() {
+    next = next + 1 < moveCount ? next + 1 : 0;
+    return moves[next];
+  }
+
+  /**
+   * Count the chess of the black player.
+   *
+   * @return the score.
+   */
+  @Benchmark
+  public int score() {
+    return model.getScore(black);
+  }
+}
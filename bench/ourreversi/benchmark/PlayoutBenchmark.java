@@ -0,0 +1,73 @@
+package ourreversi.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import ourreversi.model.IReversi;
+import ourreversi.model.UndoRecord;
+
+/**
+ * Represent the benchmark of whole games of random moves from the start, played with
+ * makeMove and makePass like the simulator plays them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PlayoutBenchmark {
+
+  @Param({"basic", "square"})
+  public String mode;
+
+  @Param({"3", "5", "8"})
+  public int size;
+
+  private SplittableRandom random;
+  private UndoRecord undo;
+
+  /**
+   * Seed the random moves, the same games on every run.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    random = new SplittableRandom(BoardStates.SEED);
+    undo = new UndoRecord();
+  }
+
+  /**
+   * Play one game to the end.
+   *
+   * @return number of moves played.
+   */
+  @Benchmark
+  public int playout() {
+    IReversi model = BoardStates.newGame(mode);
+    model.initializeReversi(size);
+    int[] moves = new int[model.getAllCells().size()];
+    int played = 0;
+    boolean passed = false;
+    while (true) {
+      int count = model.generateMoves(moves);
+      if (count == 0) {
+        if (passed) {
+          return played;
+        }
+        model.makePass(undo);
+        passed = true;
+      } else {
+        model.makeMove(moves[random.nextInt(count)], undo);
+        played++;
+        passed = false;
+      }
+    }
+  }
+}
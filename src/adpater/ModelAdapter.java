@@ -8,8 +8,11 @@ import ourreversi.cell.CellPosition;
 import ourreversi.cell.CellStatus;
 import ourreversi.cell.ICell;
 import ourreversi.cell.ICellPosition;
+import ourreversi.cell.PositionIndex;
+import ourreversi.model.BoardSnapshot;
 import ourreversi.model.IPlayer;
 import ourreversi.model.IReadOnlyModel;
+import ourreversi.model.MoveEvaluation;
 import ourreversi.model.Player;
 import ourreversi.model.PlayerIdentity;
 import theirreversi.features.ModelStatusListener;
@@ -25,6 +28,8 @@ public class ModelAdapter implements IReadOnlyModel, ReadonlyReversiModel {
 
   private IReadOnlyModel adaptee;
   private List<AxialCoordinate> list = new ArrayList<>();
+  // The positions of the board of the adaptee, in getAllCells order.
+  private final PositionIndex positions;
 
   /**
    * Constructor for ModelAdapter.
@@ -32,10 +37,13 @@ public class ModelAdapter implements IReadOnlyModel, ReadonlyReversiModel {
    */
   public ModelAdapter(IReadOnlyModel model) {
     this.adaptee = model;
+    List<ICellPosition> cellPositions = new ArrayList<>();
     for (ICell cell : model.getAllCells()) {
       AxialCoordinate newCell = new CellAdapter(cell);
       list.add(newCell);
+      cellPositions.add(cell.getPosition());
     }
+    this.positions = new PositionIndex(cellPositions);
 
   }
 
@@ -48,17 +56,13 @@ public class ModelAdapter implements IReadOnlyModel, ReadonlyReversiModel {
     int z = -coord.getR();
 
     CellStatus cellColor = null;
-    try {
-
-      cellColor = this.adaptee.getCellOnPosition(new CellPosition(x, y, z)).getCellStatus();
-
-    } catch (IllegalStateException e) {
-      List<ICell> allCells = adaptee.getAllCells();
-      for (ICell c : allCells) {
-        if (c.getPosition().equals(new CellPosition(x, y, z))) {
-          cellColor = c.getCellStatus();
-        }
-      }
+    int index = this.positions.indexOf(new CellPosition(x, y, z));
+    if (index >= 0) {
+      /* the model refuses getCellOnPosition once the game is over, the cells are in the
+       same order as when the index was built.*/
+      ICell cell = this.adaptee.isGameOver() ? this.adaptee.getAllCells().get(index)
+              : this.adaptee.getCellOnPosition(this.positions.positionAt(index));
+      cellColor = cell.getCellStatus();
     }
 
     if (cellColor == CellStatus.BLACK) {
@@ -133,11 +137,11 @@ public class ModelAdapter implements IReadOnlyModel, ReadonlyReversiModel {
       return new ArrayList<>();
     }
 
-    int num = this.adaptee.numAbleToFlip(adaptee.getCellOnPosition(cell), identity);
+    MoveEvaluation evaluation = this.adaptee.evaluateMove(cell, identity);
 
     List<AxialCoordinate> list = new ArrayList<>();
-    for (int i = 0; i < num; i++) {
-      list.add(null);
+    for (ICellPosition flipped : evaluation.getFlippedPositions()) {
+      list.add(new CellAdapter(adaptee.getCellOnPosition(flipped)));
     }
     return list;
   }
@@ -198,6 +202,16 @@ public class ModelAdapter implements IReadOnlyModel, ReadonlyReversiModel {
     return this.adaptee.numAbleToFlip(destCell, player);
   }
 
+  @Override
+  public MoveEvaluation evaluateMove(ICellPosition posn, PlayerIdentity player) {
+    return this.adaptee.evaluateMove(posn, player);
+  }
+
+  @Override
+  public BoardSnapshot snapshot() {
+    return this.adaptee.snapshot();
+  }
+
   @Override
   public List<ICell> getAllCellsCanGo() {
     return this.adaptee.getAllCellsCanGo();
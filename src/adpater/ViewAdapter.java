@@ -72,6 +72,11 @@ public class ViewAdapter implements IReversiView, ReversiView {
     theirView.displayErrorMessage("Error cell chosen");
   }
 
+  @Override
+  public void showComputerError(String message) {
+    theirView.displayErrorMessage(message);
+  }
+
   @Override
   public void setPlayer(PlayerIdentity identity) {
 
@@ -1,9 +1,15 @@
 package ourreversi;
 
 import ourreversi.controller.Controller;
+import ourreversi.controller.TurnScheduler;
+import ourreversi.log.GameLog;
+import ourreversi.log.LogLevel;
+import ourreversi.log.RingBufferSink;
 import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
 import ourreversi.model.IPlayer;
 import ourreversi.model.IReversi;
+import ourreversi.model.PackedHexReversi;
 import ourreversi.model.PlayerIdentity;
 import ourreversi.model.SquareReversi;
 import ourreversi.view.IReversiView;
@@ -17,11 +23,13 @@ public final class Reversi {
 
   /**
    * The main runner of the reversi game.
-   * Takes 4 arguments maximum.
+   * Takes 5 arguments maximum.
    * - Game mode: basic , square
    * - Size: (Default: 5 for basic, 4 for square)
    * - Player1: human or AI
    * - Player2: human or AI
+   * - Storage: object, packed (Default: object, a Cell object per cell; packed keeps the
+   *   board in primitive arrays, for big boards)
    */
   public static void main(String[] args) {
     // Default values
@@ -33,8 +41,17 @@ public final class Reversi {
     ReversiCreator.GameType player2Type = args.length > 3 ?
             ReversiCreator.GameType.valueOf(args[3].toUpperCase())
             : ReversiCreator.GameType.HUMAN;
+    boolean packed = args.length > 4 && args[4].equalsIgnoreCase("packed");
 
-    IReversi model = gameMode.equals("square") ? new SquareReversi() : new BasicReversi();
+    // What the players do is printed by the log thread, never by the game.
+    GameLog.install(new RingBufferSink(System.out, 1024), LogLevel.INFO);
+
+    IReversi model;
+    if (gameMode.equals("square")) {
+      model = packed ? new BitboardReversi() : new SquareReversi();
+    } else {
+      model = packed ? new PackedHexReversi() : new BasicReversi();
+    }
     model.initializeReversi(gameSize);
 
     IPlayer player1 = ReversiCreator.createPlayer(player1Type, PlayerIdentity.BLACKPLAYER);
@@ -45,8 +62,10 @@ public final class Reversi {
     IReversiView viewPlayer2 = gameMode.equals("square") ?
             new SquareReversiView(model) : new SimpleReversiView(model);
 
-    Controller controller1 = new Controller(model, player1, viewPlayer1);
-    Controller controller2 = new Controller(model, player2, viewPlayer2);
+    // Computer moves are played one at a time by the scheduler, off the Swing event thread.
+    TurnScheduler scheduler = new TurnScheduler();
+    Controller controller1 = new Controller(model, player1, viewPlayer1, scheduler);
+    Controller controller2 = new Controller(model, player2, viewPlayer2, scheduler);
 
     viewPlayer1.setVisible(true);
     viewPlayer2.setVisible(true);
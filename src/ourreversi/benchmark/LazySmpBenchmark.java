@@ -0,0 +1,94 @@
+package ourreversi.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.SquareReversi;
+import ourreversi.strategy.LazySmpStrategy;
+import ourreversi.strategy.SearchResult;
+import ourreversi.strategy.TranspositionTable;
+
+/**
+ * Represent the benchmark of the parallel search: the time to reach a fixed depth on
+ * the same positions with 1, 2, 4, ... threads, and the speedup over one thread.
+ * Arguments (all optional):
+ * - Depth to search (Default: 8)
+ * - Most threads to try (Default: number of processors)
+ * - Number of positions of each board (Default: 4)
+ * - Megabytes of the transposition table (Default: 64)
+ */
+public final class LazySmpBenchmark {
+
+  // Time budget long enough for any depth, so every search stops at the depth.
+  private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+  /**
+   * The runner of the benchmark, prints one line per thread count.
+   */
+  public static void main(String[] args) {
+    int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+    int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+            : Runtime.getRuntime().availableProcessors();
+    int positionCount = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+    int megabytes = args.length > 3 ? Integer.parseInt(args[3]) : 64;
+
+    List<IReversi> positions = new ArrayList<>();
+    Random random = new Random(2024);
+    for (int i = 0; i < positionCount; i++) {
+      positions.add(randomPosition(new BasicReversi(), 5, random));
+      positions.add(randomPosition(new SquareReversi(), 4, random));
+    }
+
+    /* warm up the JIT before measuring.*/
+    run(positions, Math.max(1, depth - 2), 1, megabytes);
+
+    System.out.println("threads  time(ms)  speedup  nodes/s");
+    long single = 0;
+    for (int threads = 1; threads <= maxThreads; threads *= 2) {
+      long[] result = run(positions, depth, threads, megabytes);
+      if (threads == 1) {
+        single = result[0];
+      }
+      System.out.printf("%7d  %8d  %7.2f  %d%n", threads, result[0] / 1_000_000,
+              (double) single / result[0], result[1] * 1_000_000_000L / result[0]);
+    }
+  }
+
+  // Search every position to the depth, return the total nanoseconds and nodes.
+  private static long[] run(List<IReversi> positions, int depth, int threads, int megabytes) {
+    long nanos = 0;
+    long nodes = 0;
+    for (IReversi position : positions) {
+      TranspositionTable table = new TranspositionTable(megabytes);
+      try (LazySmpStrategy strategy = new LazySmpStrategy(DAY_MILLIS, depth,
+              threads, table)) {
+        SearchResult result = strategy.search(position, position.getCurrentPlayer());
+        nanos += result.getElapsedNanos();
+        nodes += result.getNodes();
+      }
+    }
+    return new long[] {nanos, nodes};
+  }
+
+  // Play random moves from the start of the game.
+  private static IReversi randomPosition(IReversi model, int size, Random random) {
+    model.initializeReversi(size);
+    for (int move = 0; move < 8; move++) {
+      List<ICell> canGo = model.getAllCellsCanGo();
+      if (canGo.isEmpty()) {
+        break;
+      }
+      model.playerChooseCell(canGo.get(random.nextInt(canGo.size())).getPosition());
+      model.playerMove();
+    }
+    return model;
+  }
+
+  private LazySmpBenchmark() {
+    // Only the runner.
+  }
+}
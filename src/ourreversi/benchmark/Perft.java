@@ -0,0 +1,271 @@
+package ourreversi.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PackedHexReversi;
+import ourreversi.model.SquareReversi;
+import ourreversi.model.UndoRecord;
+
+/**
+ * Represent the perft counter: the number of positions reached after exactly depth plies
+ * from a position, counting every line of play. Two models agreeing on the counts
+ * generate the same moves, so a new model is checked against the reference counts.
+ * A pass is a ply, as playerPass: a player with no move passes, and the position where
+ * the second player in a row has no move is over and counted as one leaf whatever the
+ * depth left.
+ * Arguments (all optional):
+ * - Model: basic, square, packed, bitboard (Default: basic)
+ * - Size: (Default: 3 for basic and packed, 2 for square and bitboard)
+ * - Depth: (Default: 8)
+ * - Number of threads (Default: number of processors)
+ */
+public final class Perft {
+
+  // Plies searched in parallel before each task goes on alone.
+  private static final int SPLIT_PLIES = 2;
+
+  // Counts of depth 0, 1, 2, ... from the start of each board, made by reference().
+  private static final Map<String, long[]> REFERENCE = new HashMap<>();
+
+  static {
+    REFERENCE.put("basic 2", new long[] {1L, 6L, 18L, 30L, 42L, 48L, 48L, 48L});
+    REFERENCE.put("basic 3", new long[] {1L, 6L, 24L, 72L, 234L, 738L, 2514L, 8394L, 30462L,
+        103128L});
+    REFERENCE.put("square 2", new long[] {1L, 4L, 12L, 44L, 128L, 424L, 1256L, 3624L, 9116L,
+        20044L, 36540L, 50704L, 57436L, 59564L, 59980L});
+    REFERENCE.put("square 3", new long[] {1L, 4L, 12L, 56L, 244L, 1364L, 7604L, 47740L,
+        308716L, 2114912L});
+    REFERENCE.put("square 4", new long[] {1L, 4L, 12L, 56L, 244L, 1396L, 8200L, 55092L,
+        390216L, 3005288L});
+  }
+
+  /**
+   * Count the positions after depth plies on the calling thread.
+   *
+   * @param model A started game, restored before returning.
+   * @param depth Number of plies.
+   * @return the number of positions.
+   * @throws IllegalArgumentException if depth is negative.
+   */
+  public static long count(IReversi model, int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("Depth cannot be negative.");
+    }
+    return new Counter(model, depth).count(depth, false);
+  }
+
+  /**
+   * Count the positions after depth plies, splitting the first plies over the pool: every
+   * move of the first plies is counted on its own copy of the game, and idle threads steal
+   * the moves not started yet.
+   *
+   * @param model A started game, not changed.
+   * @param depth Number of plies.
+   * @param pool  The threads counting.
+   * @return the number of positions.
+   * @throws IllegalArgumentException if depth is negative.
+   */
+  public static long count(IReversi model, int depth, ForkJoinPool pool) {
+    if (depth < 0) {
+      throw new IllegalArgumentException("Depth cannot be negative.");
+    }
+    return pool.invoke(new Split(model.copyGame(), depth, false, SPLIT_PLIES));
+  }
+
+  /**
+   * Count the positions after depth plies the slow way, with the moves of the players:
+   * getAllCellsCanGo, then playerChooseCell and playerMove or playerPass on a copy of the
+   * game for every move. This is what the counts of every model are checked against.
+   *
+   * @param model A started game, not changed.
+   * @param depth Number of plies.
+   * @return the number of positions.
+   */
+  public static long reference(IReversi model, int depth) {
+    if (depth == 0 || model.isGameOver()) {
+      return 1;
+    }
+    List<ICell> canGo = model.getAllCellsCanGo();
+    if (canGo.isEmpty()) {
+      IReversi copy = model.copyGame();
+      copy.playerPass();
+      return copy.isGameOver() ? 1 : reference(copy, depth - 1);
+    }
+    long total = 0;
+    for (ICell cell : canGo) {
+      IReversi copy = model.copyGame();
+      copy.playerChooseCell(cell.getPosition());
+      copy.playerMove();
+      total += reference(copy, depth - 1);
+    }
+    return total;
+  }
+
+  /**
+   * The reference counts from the start of the board.
+   *
+   * @param shape basic for the hexagon board, square for the square board.
+   * @param size  Size of the game.
+   * @return the count of depth 0, 1, 2, ... or an empty array if there is none.
+   */
+  public static long[] referenceCounts(String shape, int size) {
+    return REFERENCE.getOrDefault(shape + " " + size, new long[0]).clone();
+  }
+
+  /**
+   * Represent the counter of one thread: one move array and undo record per ply.
+   */
+  private static final class Counter {
+    private final IReversi model;
+    private final int[][] moves;
+    private final UndoRecord[] undo;
+
+    private Counter(IReversi model, int depth) {
+      this.model = model;
+      int cells = model.getAllCells().size();
+      this.moves = new int[depth + 1][cells];
+      this.undo = new UndoRecord[depth + 1];
+      for (int ply = 0; ply <= depth; ply++) {
+        undo[ply] = new UndoRecord();
+      }
+    }
+
+    // Count the positions after depth plies, passed if the last ply was a pass.
+    private long count(int depth, boolean passed) {
+      if (depth == 0) {
+        return 1;
+      }
+      int[] plyMoves = moves[depth];
+      int count = model.generateMoves(plyMoves);
+      UndoRecord record = undo[depth];
+      if (count == 0) {
+        if (passed) {
+          return 1;
+        }
+        model.makePass(record);
+        long total = count(depth - 1, true);
+        model.unmakeMove(record);
+        return total;
+      }
+      if (depth == 1) {
+        return count;
+      }
+      long total = 0;
+      for (int i = 0; i < count; i++) {
+        model.makeMove(plyMoves[i], record);
+        total += count(depth - 1, false);
+        model.unmakeMove(record);
+      }
+      return total;
+    }
+  }
+
+  /**
+   * Represent the task counting the positions under one position, forking one task per
+   * move while plies are left to split.
+   */
+  private static final class Split extends RecursiveTask<Long> {
+    private final IReversi model;
+    private final int depth;
+    private final boolean passed;
+    private final int splitPlies;
+
+    private Split(IReversi model, int depth, boolean passed, int splitPlies) {
+      this.model = model;
+      this.depth = depth;
+      this.passed = passed;
+      this.splitPlies = splitPlies;
+    }
+
+    @Override
+    protected Long compute() {
+      if (splitPlies == 0 || depth <= 1) {
+        return new Counter(model, depth).count(depth, passed);
+      }
+      int[] moves = new int[model.getAllCells().size()];
+      int count = model.generateMoves(moves);
+      UndoRecord undo = new UndoRecord();
+      if (count == 0) {
+        if (passed) {
+          return 1L;
+        }
+        model.makePass(undo);
+        return new Split(model, depth - 1, true, splitPlies - 1).compute();
+      }
+      List<Split> children = new ArrayList<>();
+      for (int i = 0; i < count; i++) {
+        IReversi child = model.copyGame();
+        child.makeMove(moves[i], undo);
+        children.add(new Split(child, depth - 1, false, splitPlies - 1));
+      }
+      long total = 0;
+      for (Split child : invokeAll(children)) {
+        total += child.join();
+      }
+      return total;
+    }
+  }
+
+  /**
+   * The runner of perft, prints the count of every depth with the time, the nodes/second
+   * and whether it matches the reference count.
+   */
+  public static void main(String[] args) {
+    String mode = args.length > 0 ? args[0].toLowerCase() : "basic";
+    boolean hexagon = mode.equals("basic") || mode.equals("packed");
+    int size = args.length > 1 ? Integer.parseInt(args[1]) : (hexagon ? 3 : 2);
+    int depth = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+    int threads = args.length > 3 ? Integer.parseInt(args[3])
+            : Runtime.getRuntime().availableProcessors();
+
+    IReversi model;
+    switch (mode) {
+      case "basic":
+        model = new BasicReversi();
+        break;
+      case "square":
+        model = new SquareReversi();
+        break;
+      case "packed":
+        model = new PackedHexReversi();
+        break;
+      case "bitboard":
+        model = new BitboardReversi();
+        break;
+      default:
+        throw new IllegalArgumentException("Invalid game mode: " + mode);
+    }
+    model.initializeReversi(size);
+    long[] expected = referenceCounts(hexagon ? "basic" : "square", size);
+
+    System.out.println(mode + " " + size + " on " + threads + " threads");
+    System.out.println("depth           nodes  time(ms)       nodes/s  reference");
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      for (int d = 1; d <= depth; d++) {
+        long start = System.nanoTime();
+        long nodes = count(model, d, pool);
+        long nanos = Math.max(1, System.nanoTime() - start);
+        String check = d < expected.length ? (expected[d] == nodes ? "ok" : "MISMATCH "
+                + expected[d]) : "-";
+        System.out.printf("%5d  %14d  %8d  %12d  %s%n", d, nodes, nanos / 1_000_000,
+                nodes * 1_000_000_000L / nanos, check);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private Perft() {
+    // Only static methods.
+  }
+}
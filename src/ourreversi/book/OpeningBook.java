@@ -0,0 +1,134 @@
+package ourreversi.book;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.BoardSymmetry;
+import ourreversi.model.CanonicalPosition;
+import ourreversi.model.IReadOnlyModel;
+import ourreversi.model.PlayerIdentity;
+
+/**
+ * Represent a book of opening moves read from a file.
+ * The file is memory-mapped, not read: opening a book costs the same whatever its size,
+ * and a lookup binary searches the entries in place, reading only the pages it touches.
+ * Positions are found by their canonical key, so a position is in the book whenever a
+ * position equal to it by a symmetry of the board is.
+ * File layout (big-endian):
+ * - header: MAGIC, VERSION, number of entries, 0 (4 ints)
+ * - entries of ENTRY_BYTES, sorted by canonical key (unsigned), and for the same key
+ *   best move first: key (long), cell index of the move in the canonical form (int),
+ *   games played (int), points of the player to move (int, 2 a win, 1 a draw).
+ * Files are written by OpeningBookBuilder.
+ */
+public final class OpeningBook {
+
+  static final int MAGIC = 0x52564B42;
+  static final int VERSION = 2;
+  static final int HEADER_BYTES = 16;
+  static final int ENTRY_BYTES = 20;
+
+  private final ByteBuffer entries;
+  private final int size;
+
+  private OpeningBook(ByteBuffer entries, int size) {
+    this.entries = entries;
+    this.size = size;
+  }
+
+  /**
+   * Open the book in the file.
+   *
+   * @param file The book file.
+   * @return the book.
+   * @throws IOException              if the file cannot be read.
+   * @throws IllegalArgumentException if the file is not a book.
+   */
+  public static OpeningBook open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+              || buffer.getInt(4) != VERSION) {
+        throw new IllegalArgumentException("Not an opening book: " + file);
+      }
+      int size = buffer.getInt(8);
+      if ((long) size * ENTRY_BYTES + HEADER_BYTES != buffer.limit()) {
+        throw new IllegalArgumentException("Opening book is cut short: " + file);
+      }
+      return new OpeningBook(buffer, size);
+    }
+  }
+
+  /**
+   * Number of entries (position and move) in the book.
+   *
+   * @return int
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * The book move of the position for the player to move.
+   *
+   * @param model    A started game.
+   * @param player   The player to move.
+   * @param minGames Fewest games the move needs to have been played in.
+   * @return the position of the move, or null if the position is not in the book, or the
+   *         move was played in fewer games, or it is not a valid move.
+   */
+  public ICellPosition lookup(IReadOnlyModel model, PlayerIdentity player, int minGames) {
+    CanonicalPosition position = BoardSymmetry.of(model).canonicalize(model, player);
+    int entry = firstEntryOf(position.getKey());
+    if (entry < 0 || gamesAt(entry) < minGames) {
+      return null;
+    }
+    List<ICell> cells = model.getAllCells();
+    int move = moveAt(entry);
+    if (move < 0 || move >= cells.size()) {
+      return null;
+    }
+    ICell cell = cells.get(position.fromCanonical(move));
+    if (!model.validMove(cell, player)) {
+      return null;
+    }
+    return cell.getPosition();
+  }
+
+  // Index of the first entry with the key, -1 if none.
+  int firstEntryOf(long key) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (Long.compareUnsigned(keyAt(middle), key) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low < size && keyAt(low) == key ? low : -1;
+  }
+
+  long keyAt(int entry) {
+    return entries.getLong(HEADER_BYTES + entry * ENTRY_BYTES);
+  }
+
+  int moveAt(int entry) {
+    return entries.getInt(HEADER_BYTES + entry * ENTRY_BYTES + 8);
+  }
+
+  int gamesAt(int entry) {
+    return entries.getInt(HEADER_BYTES + entry * ENTRY_BYTES + 12);
+  }
+
+  int pointsAt(int entry) {
+    return entries.getInt(HEADER_BYTES + entry * ENTRY_BYTES + 16);
+  }
+}
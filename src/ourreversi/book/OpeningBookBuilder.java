@@ -0,0 +1,198 @@
+package ourreversi.book;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.BoardSymmetry;
+import ourreversi.model.CanonicalPosition;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+
+/**
+ * Represent the builder of an opening book from the results of games.
+ * For the first plies of every game it counts, for each canonical position and move, the
+ * games the move was played in and the points the player got (2 a win, 1 a draw).
+ * A book grows by adding an existing book and playing more games, then writing all of it.
+ * In the written book the move with the best average points comes first for each
+ * position, the one played more often if the same.
+ */
+public final class OpeningBookBuilder {
+
+  private final int maxPlies;
+  // Statistics of each canonical key: canonical move to {games, points}.
+  private final Map<Long, Map<Integer, int[]>> positions = new HashMap<>();
+
+  /**
+   * Construct an empty builder.
+   *
+   * @param maxPlies Number of plies from the start of each game to count in the book.
+   * @throws IllegalArgumentException if maxPlies is not positive.
+   */
+  public OpeningBookBuilder(int maxPlies) {
+    if (maxPlies <= 0) {
+      throw new IllegalArgumentException("The book needs at least one ply.");
+    }
+    this.maxPlies = maxPlies;
+  }
+
+  /**
+   * Add all the entries of an existing book, to grow it.
+   *
+   * @param book The book.
+   */
+  public void addBook(OpeningBook book) {
+    for (int i = 0; i < book.size(); i++) {
+      int[] statistics = statisticsOf(book.keyAt(i), book.moveAt(i));
+      statistics[0] += book.gamesAt(i);
+      statistics[1] += book.pointsAt(i);
+    }
+  }
+
+  /**
+   * Play games of the chooser against itself and count their openings.
+   * To vary the openings, each move of the counted plies is a random valid move with the
+   * given probability.
+   *
+   * @param newGame     Supplier of a new game, not started.
+   * @param size        Size of the games.
+   * @param games       Number of games to play.
+   * @param chooser     Chooses the move of the player to move, null to pass.
+   * @param randomRate  Probability of a random move in the counted plies, 0 to 1.
+   * @param random      The random numbers.
+   */
+  public void selfPlay(Supplier<IReversi> newGame, int size, int games,
+                       BiFunction<IReversi, PlayerIdentity, ICellPosition> chooser,
+                       double randomRate, Random random) {
+    for (int game = 0; game < games; game++) {
+      IReversi model = newGame.get();
+      model.initializeReversi(size);
+      playGame(model, chooser, randomRate, random);
+    }
+  }
+
+  /**
+   * Play the game to the end from its position and count its first plies.
+   *
+   * @param model       A started game, played to the end.
+   * @param chooser     Chooses the move of the player to move, null to pass.
+   * @param randomRate  Probability of a random move in the counted plies, 0 to 1.
+   * @param random      The random numbers.
+   */
+  public void playGame(IReversi model,
+                       BiFunction<IReversi, PlayerIdentity, ICellPosition> chooser,
+                       double randomRate, Random random) {
+    List<int[]> played = new ArrayList<>();
+    List<Long> keys = new ArrayList<>();
+    int ply = 0;
+    while (!model.isGameOver()) {
+      PlayerIdentity player = model.getCurrentPlayer();
+      List<ICell> canGo = model.getAllCellsCanGo();
+      if (canGo.isEmpty()) {
+        model.playerPass();
+        continue;
+      }
+      ICellPosition move;
+      if (ply < maxPlies && random.nextDouble() < randomRate) {
+        move = canGo.get(random.nextInt(canGo.size())).getPosition();
+      } else {
+        move = chooser.apply(model, player);
+      }
+      if (move == null) {
+        model.playerPass();
+        continue;
+      }
+      if (ply < maxPlies) {
+        CanonicalPosition position = BoardSymmetry.of(model).canonicalize(model, player);
+        int index = model.getAllCells().indexOf(model.getCellOnPosition(move));
+        keys.add(position.getKey());
+        played.add(new int[] {position.canonicalMove(index), player.ordinal()});
+      }
+      model.playerChooseCell(move);
+      model.playerMove();
+      ply++;
+    }
+
+    int difference = 0;
+    for (ICell c : model.getAllCells()) {
+      difference += c.getCellStatus() == CellStatus.BLACK ? 1
+              : c.getCellStatus() == CellStatus.WHITE ? -1 : 0;
+    }
+    for (int i = 0; i < played.size(); i++) {
+      int[] statistics = statisticsOf(keys.get(i), played.get(i)[0]);
+      boolean black = played.get(i)[1] == PlayerIdentity.BLACKPLAYER.ordinal();
+      statistics[0]++;
+      statistics[1] += difference == 0 ? 1 : (difference > 0) == black ? 2 : 0;
+    }
+  }
+
+  /**
+   * Number of entries (position and move) counted so far.
+   *
+   * @return int
+   */
+  public int size() {
+    int size = 0;
+    for (Map<Integer, int[]> moves : positions.values()) {
+      size += moves.size();
+    }
+    return size;
+  }
+
+  /**
+   * Write the book to the file, replacing it.
+   *
+   * @param file The book file.
+   * @throws IOException if the file cannot be written.
+   */
+  public void write(Path file) throws IOException {
+    List<long[]> entries = new ArrayList<>();
+    for (Map.Entry<Long, Map<Integer, int[]>> position : positions.entrySet()) {
+      for (Map.Entry<Integer, int[]> move : position.getValue().entrySet()) {
+        int[] statistics = move.getValue();
+        entries.add(new long[] {position.getKey(), move.getKey(), statistics[0],
+            statistics[1]});
+      }
+    }
+    entries.sort((a, b) -> {
+      int byKey = Long.compareUnsigned(a[0], b[0]);
+      if (byKey != 0) {
+        return byKey;
+      }
+      /* better average points first: b.points / b.games against a.points / a.games.*/
+      int byAverage = Long.compare(b[3] * a[2], a[3] * b[2]);
+      return byAverage != 0 ? byAverage : Long.compare(b[2], a[2]);
+    });
+
+    try (DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(OpeningBook.MAGIC);
+      out.writeInt(OpeningBook.VERSION);
+      out.writeInt(entries.size());
+      out.writeInt(0);
+      for (long[] entry : entries) {
+        out.writeLong(entry[0]);
+        out.writeInt((int) entry[1]);
+        out.writeInt((int) entry[2]);
+        out.writeInt((int) entry[3]);
+      }
+    }
+  }
+
+  private int[] statisticsOf(long key, int move) {
+    return positions.computeIfAbsent(key, k -> new HashMap<>())
+            .computeIfAbsent(move, m -> new int[2]);
+  }
+}
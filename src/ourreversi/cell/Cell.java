@@ -94,13 +94,14 @@ public class Cell implements ICell {
   }
 
   /**
-   * Returns a hash code for this cell based on its status and position.
+   * Returns a hash code for this cell based on its position.
+   * The status is left out, so the hash code does not change when the chess is flipped.
    *
    * @return A hash code for this cell.
    */
   @Override
   public int hashCode() {
-    return super.hashCode();
+    return PositionKey.hashOf(this.posn);
   }
 
   
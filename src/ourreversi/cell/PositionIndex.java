@@ -0,0 +1,114 @@
+package ourreversi.cell;
+
+import java.util.List;
+
+/**
+ * Represent the index of the positions of one board: the number of each position in
+ * the order it was given, looked up by its position key in an open addressing table.
+ * The positions given are interned: positionAt and intern return those very objects,
+ * so a position from the index can be compared with == to the positions of the board.
+ * The index never changes once created, so it can be shared between threads.
+ */
+public final class PositionIndex {
+
+  // The positions of the board, in the order given.
+  private final ICellPosition[] positions;
+  // Key of the position in each slot, only valid where slots is not 0.
+  private final long[] keys;
+  // Index of the position in each slot + 1, 0 for an empty slot.
+  // Invariance: the length is a power of two, at least twice the number of positions.
+  private final int[] slots;
+
+  /**
+   * Construct the index of the positions.
+   *
+   * @param positions The positions of a board, all different.
+   * @throws IllegalArgumentException if two positions have the same key, or a
+   *                                  coordinate is out of the range of a key.
+   */
+  public PositionIndex(List<? extends ICellPosition> positions) {
+    this.positions = positions.toArray(new ICellPosition[0]);
+    int capacity = Integer.highestOneBit(Math.max(2, this.positions.length) * 2 - 1) << 1;
+    this.keys = new long[capacity];
+    this.slots = new int[capacity];
+    for (int i = 0; i < this.positions.length; i++) {
+      long key = PositionKey.of(this.positions[i]);
+      int slot = slotOf(key);
+      if (this.slots[slot] != 0) {
+        throw new IllegalArgumentException("Two positions have the same key.");
+      }
+      this.keys[slot] = key;
+      this.slots[slot] = i + 1;
+    }
+  }
+
+  /**
+   * The index of the position, found by its key and confirmed with equals.
+   *
+   * @param posn A position, of any shape.
+   * @return the index, or -1 if no position of the board equals it.
+   */
+  public int indexOf(ICellPosition posn) {
+    int x = posn.xGetter();
+    int y = posn.yGetter();
+    int z = posn.zGetter();
+    if (!PositionKey.inRange(x, y, z)) {
+      return -1;
+    }
+    int index = this.slots[slotOf(PositionKey.of(x, y, z))] - 1;
+    if (index < 0 || !this.positions[index].equals(posn)) {
+      return -1;
+    }
+    return index;
+  }
+
+  /**
+   * The index of the coordinates, without confirming the shape.
+   *
+   * @param key The key of the coordinates.
+   * @return the index, or -1 if no position of the board has the key.
+   */
+  public int indexOf(long key) {
+    return this.slots[slotOf(key)] - 1;
+  }
+
+  /**
+   * The position of the board with the index.
+   *
+   * @param index The index of the position, in the order given.
+   * @return ICellPosition
+   */
+  public ICellPosition positionAt(int index) {
+    return this.positions[index];
+  }
+
+  /**
+   * The position of the board equal to the given one.
+   *
+   * @param posn A position, of any shape.
+   * @return the position of the board, or null if no position of the board equals it.
+   */
+  public ICellPosition intern(ICellPosition posn) {
+    int index = indexOf(posn);
+    return index < 0 ? null : this.positions[index];
+  }
+
+  /**
+   * Number of positions of the board.
+   *
+   * @return int
+   */
+  public int size() {
+    return this.positions.length;
+  }
+
+  // The slot of the key, or the empty slot the key would go to.
+  private int slotOf(long key) {
+    int mask = this.slots.length - 1;
+    int slot = PositionKey.hash(key) & mask;
+    while (this.slots[slot] != 0 && this.keys[slot] != key) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+}
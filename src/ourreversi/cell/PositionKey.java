@@ -0,0 +1,115 @@
+package ourreversi.cell;
+
+/**
+ * Represent the identity of a position packed into one long: x, y and z take 21 bits
+ * each, as two's complement, so any position with coordinates in [MIN, MAX] has
+ * exactly one key and the key gives back the coordinates.
+ * The key only holds the coordinates, not the shape of the board: a square position
+ * (x, y) has the same key as a hexagon position (x, y, 0). Lookups confirm the position
+ * with equals, which tells the shapes apart.
+ */
+public final class PositionKey {
+
+  // Smallest and biggest coordinate a key can hold.
+  public static final int MIN = -(1 << 20);
+  public static final int MAX = (1 << 20) - 1;
+
+  private static final int BITS = 21;
+  private static final long MASK = (1L << BITS) - 1;
+
+  /**
+   * The key of the coordinates.
+   *
+   * @param x The x-coordinate.
+   * @param y The y-coordinate.
+   * @param z The z-coordinate.
+   * @return long
+   * @throws IllegalArgumentException if any coordinate is out of [MIN, MAX].
+   */
+  public static long of(int x, int y, int z) {
+    if (!inRange(x, y, z)) {
+      throw new IllegalArgumentException("Coordinate out of the range of a position key.");
+    }
+    return pack(x, y, z);
+  }
+
+  /**
+   * The key of the position.
+   *
+   * @param posn The position.
+   * @return long
+   * @throws IllegalArgumentException if any coordinate is out of [MIN, MAX].
+   */
+  public static long of(ICellPosition posn) {
+    return of(posn.xGetter(), posn.yGetter(), posn.zGetter());
+  }
+
+  /**
+   * Can the coordinates be packed into a key?
+   *
+   * @param x The x-coordinate.
+   * @param y The y-coordinate.
+   * @param z The z-coordinate.
+   * @return true if every coordinate is in [MIN, MAX].
+   */
+  public static boolean inRange(int x, int y, int z) {
+    return x >= MIN && x <= MAX && y >= MIN && y <= MAX && z >= MIN && z <= MAX;
+  }
+
+  /**
+   * The x-coordinate of the key.
+   *
+   * @return int
+   */
+  public static int x(long key) {
+    return (int) ((key << (64 - 3 * BITS)) >> (64 - BITS));
+  }
+
+  /**
+   * The y-coordinate of the key.
+   *
+   * @return int
+   */
+  public static int y(long key) {
+    return (int) ((key << (64 - 2 * BITS)) >> (64 - BITS));
+  }
+
+  /**
+   * The z-coordinate of the key.
+   *
+   * @return int
+   */
+  public static int z(long key) {
+    return (int) ((key << (64 - BITS)) >> (64 - BITS));
+  }
+
+  /**
+   * The hash code of the key, every bit of the key changes the hash.
+   *
+   * @return int
+   */
+  public static int hash(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  /**
+   * The hash code of a position by its coordinates, for hashCode of positions and
+   * cells. Equal coordinates give equal hash codes; coordinates out of the range still
+   * have a hash code, they may just share it with others.
+   *
+   * @param posn The position.
+   * @return int
+   */
+  public static int hashOf(ICellPosition posn) {
+    return hash(pack(posn.xGetter(), posn.yGetter(), posn.zGetter()));
+  }
+
+  private static long pack(int x, int y, int z) {
+    return ((x & MASK) << (2 * BITS)) | ((y & MASK) << BITS) | (z & MASK);
+  }
+
+  private PositionKey() {
+    // Only static methods.
+  }
+}
@@ -54,13 +54,13 @@ public class SquareCellPosition implements ICellPosition {
   }
 
   /**
-   * Returns a hash code for this CellPosition.
+   * Returns a hash code for this CellPosition, by its coordinates.
    *
    * @return A hash code for this CellPosition.
    */
   @Override
   public int hashCode() {
-    return super.hashCode();
+    return PositionKey.hashOf(this);
   }
 
 }
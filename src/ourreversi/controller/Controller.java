@@ -1,8 +1,13 @@
 package ourreversi.controller;
 
+import java.awt.EventQueue;
 import java.awt.event.KeyEvent;
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
 
 import ourreversi.cell.ICellPosition;
+import ourreversi.log.GameLog;
+import ourreversi.log.LogLevel;
 import ourreversi.model.IPlayer;
 import ourreversi.model.IReversi;
 import ourreversi.view.IReversiView;
@@ -12,22 +17,34 @@ import ourreversi.view.IReversiView;
  * Each controller is an action listener for GUI.
  * Base on the action given from View.
  * Controller modify the model.
+ * The model is only read and changed on the Swing event thread, by the human players'
+ * input and by the moves of the computer players. A computer player chooses its move
+ * on the TurnScheduler of the game, on a copy of the game taken on the event thread,
+ * and the move is played back on the event thread. So a computer turn is never played
+ * inside the move before it, and the search never blocks painting and input.
  */
 public class Controller implements IActionListener {
 
   private IReversi model;
   private IPlayer player;
+  // Plays the turns of the computer player.
+  private final TurnScheduler scheduler;
 
   protected IReversiView view;
 
 
   /**
    * Construct a controller for the player.
+   *
+   * @param scheduler The scheduler of the game, the controllers of one game must share
+   *                  it so their turns run one at a time in order.
    */
-  public Controller(IReversi model, IPlayer player, IReversiView viewPlayer) {
+  public Controller(IReversi model, IPlayer player, IReversiView viewPlayer,
+                    TurnScheduler scheduler) {
     this.model = model;
     this.player = player;
     this.view = viewPlayer;
+    this.scheduler = scheduler;
     viewPlayer.setKeyPressHandler(this);
     viewPlayer.setMousePressHandler(this);
     viewPlayer.setPlayer(player.getPlayerIdentity());
@@ -42,8 +59,10 @@ public class Controller implements IActionListener {
    * Ask this controller update its view.
    */
   public void updateView() {
-    view.setTitle(player, model);
-    view.update();
+    onEventThread(() -> {
+      view.setTitle(player, model);
+      view.update();
+    });
   }
 
   /**
@@ -53,7 +72,7 @@ public class Controller implements IActionListener {
   @Override
   public void handleKeyPressed(KeyEvent e)  {
     if (model.isGameOver()) {
-      System.out.println("Game is Over.");
+      GameLog.log(LogLevel.INFO, "Game is Over.");
       return;
     }
 
@@ -61,12 +80,12 @@ public class Controller implements IActionListener {
     if (this.player.getPlayerIdentity() == model.getCurrentPlayer()
             && this.player.getGameLevel() == null) {
       if (Character.toUpperCase(e.getKeyChar()) == KeyEvent.VK_P) {
-        System.out.println("Pass the turn");
+        GameLog.log(LogLevel.INFO, "Pass the turn");
         model.playerPass();
       }
       if (e.getKeyCode() == KeyEvent.VK_ENTER) {
         if (model.getChosenCell() != null) {
-          System.out.println("Place the piece");
+          GameLog.log(LogLevel.INFO, "Place the piece");
           model.playerMove();
         } else {
           view.showCellError();
@@ -82,7 +101,7 @@ public class Controller implements IActionListener {
   @Override
   public void handleMousePressed(ICellPosition cell) {
     if (model.isGameOver()) {
-      System.out.println("Game is Over.");
+      GameLog.log(LogLevel.INFO, "Game is Over.");
       return;
     }
 
@@ -90,14 +109,14 @@ public class Controller implements IActionListener {
     if (this.player.getPlayerIdentity() == model.getCurrentPlayer()
             && this.player.getGameLevel() == null) {
       if (cell == null) {
-        System.out.println("Deselect cell");
+        GameLog.log(LogLevel.INFO, "Deselect cell");
         model.playerDeselectCell();
       } else {
         try {
           model.playerChooseCell(cell);
-          System.out.println("Select cell");
+          GameLog.log(LogLevel.INFO, "Select cell");
         } catch (IllegalArgumentException exception) {
-          System.out.println("Catch deselect");
+          GameLog.log(LogLevel.INFO, "Catch deselect");
           model.playerDeselectCell();
         }
       }
@@ -106,33 +125,129 @@ public class Controller implements IActionListener {
 
   /**
    * if the player is an AI player.
-   * Base on AI strategy make a move.
+   * Queue its move on the turn scheduler and return, the move is played after the
+   * move in progress is over.
    */
   public void runIfComputer() {
-    if (!model.isGameOver() &&
-            this.player.getPlayerIdentity() == this.model.getCurrentPlayer()) {
-      if (this.player.getGameLevel() != null) {
-        if (!this.model.getAllCellsCanGo().isEmpty()) {
-          ICellPosition choseCell = this.player.getGameLevel().chooseCell(this.model, this.player);
-          this.model.playerChooseCell(choseCell);
-          this.model.playerMove();
-        } else {
-          this.model.playerPass();
-        }
-      } else {
-        if (this.model.getAllCellsCanGo().isEmpty()) {
+    if (this.player.getGameLevel() != null) {
+      this.scheduler.schedule(this::playComputerTurn);
+    } else {
+      onEventThread(() -> {
+        if (isThisPlayerTurn() && this.model.getAllCellsCanGo().isEmpty()) {
           view.showUnableTOMove();
         }
+      });
+    }
+  }
+
+  /**
+   * Base on AI strategy make a move, if it is still the turn of this player.
+   * Runs on the scheduler: the strategy searches a copy of the game, the model itself is
+   * only touched on the event thread, and the turn waits there until the move is played.
+   */
+  private void playComputerTurn() {
+    try {
+      long key;
+      ICellPosition choseCell;
+      try {
+        IReversi position = callOnEventThread(
+                () -> isThisPlayerTurn() ? model.copyGame() : null);
+        if (position == null) {
+          return;
+        }
+        key = position.getZobristKey();
+        choseCell = position.getAllCellsCanGo().isEmpty() ? null
+                : this.player.getGameLevel().chooseCell(position, this.player);
+      } catch (RuntimeException e) {
+        runOnEventThreadAndWait(() -> reportComputerError(e));
+        return;
       }
+      runOnEventThreadAndWait(() -> playComputerMove(choseCell, key));
+    } catch (InterruptedException e) {
+      /* the scheduler is closed, the game is no longer played.*/
+      Thread.currentThread().interrupt();
     }
   }
 
+  /**
+   * Play the chosen move on the model, on the event thread, unless the game has changed
+   * since the copy the move was chosen on.
+   *
+   * @param choseCell The cell chosen, null to pass.
+   * @param key       The Zobrist key of the game the move was chosen on.
+   */
+  private void playComputerMove(ICellPosition choseCell, long key) {
+    if (!isThisPlayerTurn() || this.model.getZobristKey() != key) {
+      return;
+    }
+    try {
+      if (choseCell == null) {
+        this.model.playerPass();
+      } else {
+        this.model.playerChooseCell(choseCell);
+        this.model.playerMove();
+      }
+    } catch (RuntimeException e) {
+      reportComputerError(e);
+    }
+  }
+
+  // Is the game going on, and is it the turn of this controller's player?
+  private boolean isThisPlayerTurn() {
+    return !this.model.isGameOver()
+            && this.player.getPlayerIdentity() == this.model.getCurrentPlayer();
+  }
+
+  // The computer player could not move: log it and tell the player, the game waits.
+  private void reportComputerError(RuntimeException e) {
+    String message = "The computer player " + this.player.getPlayerIdentity()
+            + " failed to move: " + e;
+    GameLog.log(LogLevel.WARN, message);
+    view.showComputerError(message);
+  }
+
   /**
    * Ask this controller's view show game over state.
    * Pop up window.
    */
   public void letPanelShowGameOver() {
-    this.view.showGameOver(player);
+    onEventThread(() -> this.view.showGameOver(player));
+  }
+
+  // Swing is only touched on its event thread; computer turns call from the scheduler.
+  private static void onEventThread(Runnable task) {
+    if (EventQueue.isDispatchThread()) {
+      task.run();
+    } else {
+      EventQueue.invokeLater(task);
+    }
+  }
+
+  // Run the task on the event thread and wait for it to finish.
+  private static void runOnEventThreadAndWait(Runnable task) throws InterruptedException {
+    callOnEventThread(() -> {
+      task.run();
+      return null;
+    });
+  }
+
+  // Run the task on the event thread and wait for its result.
+  private static <T> T callOnEventThread(Supplier<T> task) throws InterruptedException {
+    if (EventQueue.isDispatchThread()) {
+      return task.get();
+    }
+    Object[] result = new Object[1];
+    try {
+      EventQueue.invokeAndWait(() -> result[0] = task.get());
+    } catch (InvocationTargetException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    }
+    @SuppressWarnings("unchecked")
+    T value = (T) result[0];
+    return value;
   }
 
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package ourreversi.controller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Represent the event loop running the turns of the computer players of one game.
+ * A computer turn is queued instead of played inside the move before it, so the move
+ * before it returns first: an AI versus AI game is a sequence of short tasks on one
+ * thread rather than one call chain as deep as the game is long, and the Swing event
+ * thread is free between plies to paint and take input.
+ * The turns run one at a time in the order they were scheduled, so the controllers of
+ * one game should share one scheduler. The thread is a daemon, it does not keep the
+ * program running; call close when the game is no longer needed.
+ */
+public final class TurnScheduler implements AutoCloseable {
+
+  private final ExecutorService loop;
+  // Turns scheduled and not finished yet, guarded by this.
+  private int pending;
+
+  /**
+   * Construct the scheduler with its own thread.
+   */
+  public TurnScheduler() {
+    this.loop = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "reversi-turns");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Queue the turn after the turns already scheduled and return at once.
+   *
+   * @param turn The turn to play on the thread of the scheduler.
+   * @throws IllegalStateException if the scheduler is closed.
+   */
+  public void schedule(Runnable turn) {
+    synchronized (this) {
+      pending++;
+    }
+    try {
+      loop.execute(() -> {
+        try {
+          turn.run();
+        } finally {
+          finished();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      finished();
+      throw new IllegalStateException("The turn scheduler is closed.", e);
+    }
+  }
+
+  private synchronized void finished() {
+    pending--;
+    if (pending == 0) {
+      notifyAll();
+    }
+  }
+
+  /**
+   * Wait until every turn scheduled is played, including the turns they scheduled.
+   *
+   * @param timeoutMillis Longest time to wait, in milliseconds.
+   * @return true if nothing is left to play, false if the time ran out.
+   * @throws InterruptedException if the waiting thread is interrupted.
+   */
+  public synchronized boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (pending > 0) {
+      long left = deadline - System.currentTimeMillis();
+      if (left <= 0) {
+        return false;
+      }
+      wait(left);
+    }
+    return true;
+  }
+
+  /**
+   * Stop the thread, the turns not played yet are dropped.
+   */
+  @Override
+  public void close() {
+    for (Runnable dropped : loop.shutdownNow()) {
+      finished();
+    }
+  }
+}
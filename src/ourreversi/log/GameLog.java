@@ -0,0 +1,69 @@
+package ourreversi.log;
+
+/**
+ * Represent the logger of the game: one sink and the lowest level logged, for the whole
+ * program. Nothing is logged until a sink is installed, and then only events of the level
+ * or above, so a disabled event costs one comparison.
+ * Messages built from values should be built only if isEnabled says they are logged:
+ * <pre>
+ *   if (GameLog.isEnabled(LogLevel.DEBUG)) {
+ *     GameLog.log(LogLevel.DEBUG, "Controllers " + controllers);
+ *   }
+ * </pre>
+ */
+public final class GameLog {
+
+  // Both written together by install, read on every event.
+  private static volatile LogSink sink = LogSink.NONE;
+  private static volatile LogLevel level = LogLevel.OFF;
+
+  /**
+   * Log the events of the level or above to the sink.
+   *
+   * @param newSink  Where the events go.
+   * @param minLevel The lowest level logged, OFF to log nothing.
+   * @throws IllegalArgumentException if an argument is null.
+   */
+  public static synchronized void install(LogSink newSink, LogLevel minLevel) {
+    if (newSink == null || minLevel == null) {
+      throw new IllegalArgumentException("Sink and level cannot be null.");
+    }
+    level = LogLevel.OFF;
+    sink = newSink;
+    level = minLevel;
+  }
+
+  /**
+   * Log nothing anymore, the sink installed is not closed.
+   */
+  public static synchronized void uninstall() {
+    level = LogLevel.OFF;
+    sink = LogSink.NONE;
+  }
+
+  /**
+   * Whether events of the level are logged.
+   *
+   * @param eventLevel Level of the event.
+   * @return true if they are logged.
+   */
+  public static boolean isEnabled(LogLevel eventLevel) {
+    return eventLevel.compareTo(level) >= 0 && eventLevel != LogLevel.OFF;
+  }
+
+  /**
+   * Log the event if its level is logged.
+   *
+   * @param eventLevel Level of the event.
+   * @param message    What happened.
+   */
+  public static void log(LogLevel eventLevel, String message) {
+    if (isEnabled(eventLevel)) {
+      sink.write(eventLevel, message);
+    }
+  }
+
+  private GameLog() {
+    // Only static methods.
+  }
+}
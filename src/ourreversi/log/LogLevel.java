@@ -0,0 +1,16 @@
+package ourreversi.log;
+
+/**
+ * Represent how much an event matters, from the least to the most.
+ * An event is logged if its level is at least the level of GameLog.
+ */
+public enum LogLevel {
+  // Every move and every repaint, only for tracking down a bug.
+  DEBUG,
+  // What the players did.
+  INFO,
+  // Something went wrong but the game goes on.
+  WARN,
+  // Nothing is logged at this level.
+  OFF
+}
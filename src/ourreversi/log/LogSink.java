@@ -0,0 +1,23 @@
+package ourreversi.log;
+
+/**
+ * Represent where the logged events go.
+ * A sink may be called by many threads at once.
+ */
+public interface LogSink {
+
+  /**
+   * The sink dropping every event, the default of GameLog.
+   */
+  LogSink NONE = (level, message) -> {
+    // Nothing is kept.
+  };
+
+  /**
+   * Take the event.
+   *
+   * @param level   Level of the event.
+   * @param message What happened.
+   */
+  void write(LogLevel level, String message);
+}
@@ -0,0 +1,146 @@
+package ourreversi.log;
+
+import java.io.PrintStream;
+
+/**
+ * Represent the sink writing events to a stream on a thread of its own.
+ * The thread logging only puts the event in a ring buffer of fixed capacity and goes on;
+ * the writer thread takes the events out in order and prints them. If events come faster
+ * than they are printed the oldest ones are overwritten, logging never waits for the
+ * stream. Call close to print what is left and stop the writer thread.
+ */
+public final class RingBufferSink implements LogSink, AutoCloseable {
+
+  private final PrintStream out;
+  // Invariance: the events not printed yet are at head, head + 1, ... modulo capacity,
+  // count of them; guarded by this.
+  private final LogLevel[] levels;
+  private final String[] messages;
+  private int head;
+  private int count;
+  // Events overwritten before being printed, guarded by this.
+  private long dropped;
+  private boolean closed;
+  // Events taken out of the buffer and not printed yet, guarded by this.
+  private int printing;
+  private final Thread writer;
+
+  /**
+   * Construct the sink and start its writer thread.
+   *
+   * @param out      Stream the events are printed to.
+   * @param capacity Number of events the buffer holds.
+   * @throws IllegalArgumentException if the capacity is not positive.
+   */
+  public RingBufferSink(PrintStream out, int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("Capacity must be positive.");
+    }
+    this.out = out;
+    this.levels = new LogLevel[capacity];
+    this.messages = new String[capacity];
+    this.writer = new Thread(this::drain, "reversi-log");
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  @Override
+  public synchronized void write(LogLevel level, String message) {
+    if (closed) {
+      return;
+    }
+    int tail = (head + count) % levels.length;
+    if (count == levels.length) {
+      /* full: overwrite the oldest event.*/
+      head = (head + 1) % levels.length;
+      dropped++;
+    } else {
+      count++;
+    }
+    levels[tail] = level;
+    messages[tail] = message;
+    notifyAll();
+  }
+
+  // The writer thread: print the events until closed and empty.
+  private void drain() {
+    LogLevel[] batchLevels = new LogLevel[levels.length];
+    String[] batchMessages = new String[levels.length];
+    while (true) {
+      int batch;
+      long lost;
+      synchronized (this) {
+        while (count == 0 && !closed) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            return;
+          }
+        }
+        if (count == 0) {
+          notifyAll();
+          return;
+        }
+        batch = count;
+        for (int i = 0; i < batch; i++) {
+          int at = (head + i) % levels.length;
+          batchLevels[i] = levels[at];
+          batchMessages[i] = messages[at];
+          messages[at] = null;
+        }
+        head = (head + batch) % levels.length;
+        count = 0;
+        lost = dropped;
+        dropped = 0;
+        printing = batch;
+      }
+      if (lost > 0) {
+        out.println("[" + LogLevel.WARN + "] " + lost + " log events dropped");
+      }
+      for (int i = 0; i < batch; i++) {
+        out.println("[" + batchLevels[i] + "] " + batchMessages[i]);
+        batchMessages[i] = null;
+      }
+      out.flush();
+      synchronized (this) {
+        printing = 0;
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Wait until every event written so far is printed.
+   *
+   * @param timeoutMillis Longest time to wait, in milliseconds.
+   * @return true if everything is printed, false if the time ran out.
+   * @throws InterruptedException if the waiting thread is interrupted.
+   */
+  public synchronized boolean flush(long timeoutMillis) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + timeoutMillis;
+    while (count > 0 || printing > 0) {
+      long left = deadline - System.currentTimeMillis();
+      if (left <= 0) {
+        return false;
+      }
+      wait(left);
+    }
+    return true;
+  }
+
+  /**
+   * Print the events left and stop the writer thread, later events are ignored.
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      closed = true;
+      notifyAll();
+    }
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,714 @@
+package ourreversi.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ourreversi.cell.Cell;
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.cell.PositionKey;
+import ourreversi.controller.IActionListener;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represent the abstract class of the reversi games whose board is stored in packed
+ * primitive arrays instead of Cell objects.
+ * Every cell is identified by an int index, arranged in the same order as the cells of
+ * AbstractReversi (from left to right, and top to bottom).
+ * Holds the game flow, the controllers and the players, the subclass only decides
+ * how the board is stored and how moves are generated.
+ * No object is kept per cell: the board is primitive arrays, and the cells and positions
+ * given to views and adapters are light views made when asked for, which read and write
+ * the packed board. Two views of the same cell are equal.
+ */
+public abstract class AbstractIndexedReversi implements IReversi {
+
+  // Game State related fields.
+  protected boolean gameStarted = false;
+  protected boolean gameOver = false;
+  // Size of the game.
+  protected int size;
+  // Current player
+  protected PlayerIdentity currentPlayerIdentity;
+  // Previous player passed the turn or not
+  protected boolean prevPlayerPassOrNot;
+  // The cell index that player chooses to place the chess, -1 if none.
+  protected int chosenIndex = -1;
+  // Number of chess able to flip on the chosen cell.
+  protected int numChessAbleToFlip;
+
+  // Number of cells on the board, cells are indexed 0 to cellCount - 1.
+  protected int cellCount;
+
+  protected List<IActionListener> controllers;
+  protected final List<IPlayer> players = new ArrayList<>();
+  // Shape of the board, created on the first snapshot and shared by all snapshots.
+  private BoardTopology topology;
+  // Zobrist keys of the cells, and the xor of the keys of all chess on the board.
+  private long[] zobristKeys;
+  private long boardKey;
+  // Flipped chess of the last move made by a player.
+  private int[] lastFlipped;
+  // The cells can go are out of date: the board or the current player changed since
+  // they were generated. Generated again when read, under cellsCanGoLock, so the
+  // queries of many threads do not race on them.
+  private boolean cellsCanGoStale = true;
+  private final Object cellsCanGoLock = new Object();
+
+  @Override
+  public void initializeReversi(int size) {
+    throwGameIsEnd();
+    // Check game started?
+    if (gameStarted) {
+      throw new IllegalStateException("Game already started");
+    }
+
+    this.size = size;
+    if (size <= 1) {
+      throw new IllegalArgumentException("The size need to be at least 2 " +
+              "(with demeter of " + demeterOf(2) + ") being able to play.");
+    }
+
+    this.gameStarted = true;
+    this.currentPlayerIdentity = PlayerIdentity.BLACKPLAYER;
+    this.controllers = new ArrayList<>();
+    this.cellCount = initializeBoard(size);
+    initializeChess();
+    this.zobristKeys = ZobristKeys.keysFor(cellCount);
+    this.lastFlipped = new int[cellCount];
+    for (int index = 0; index < cellCount; index++) {
+      boardKey ^= ZobristKeys.keyOf(zobristKeys, index, statusAt(index));
+    }
+    this.cellsCanGoStale = true;
+  }
+
+  /**
+   * Number of cells on the longest row of the board with the given size.
+   *
+   * @param size size of the game.
+   * @return demeter of the board.
+   */
+  protected abstract int demeterOf(int size);
+
+  /**
+   * Initialize the packed board with all cells empty.
+   *
+   * @param size size of the game.
+   * @return the number of cells on the board.
+   */
+  protected abstract int initializeBoard(int size);
+
+  /**
+   * A new position of the cell at the given index, made from the packed board.
+   *
+   * @param index the cell index.
+   * @return the position.
+   */
+  protected abstract ICellPosition positionOf(int index);
+
+  /**
+   * Place the starting chess on the board.
+   */
+  protected abstract void initializeChess();
+
+  /**
+   * Index of the given position on this board.
+   *
+   * @param posn the position to look up.
+   * @return the cell index, or -1 if no cell exists with the given position.
+   */
+  protected abstract int indexOfPosition(ICellPosition posn);
+
+  /**
+   * Number of directions around a cell.
+   */
+  protected abstract int directionCount();
+
+  /**
+   * Index of the cell next to the given cell in the given direction.
+   * Directions start from the direct left side cell, and go clockwise.
+   *
+   * @return the neighbor index, or -1 if it is out of the board.
+   */
+  protected abstract int neighborAt(int index, int direction);
+
+  /**
+   * Status of the cell at the given index.
+   */
+  protected abstract CellStatus statusAt(int index);
+
+  /**
+   * Change the status of the cell at the given index.
+   */
+  protected abstract void changeStatusAt(int index, CellStatus status);
+
+  /**
+   * Number of cells that is able to flip by placing player's chess at the given index.
+   * Must only read the board, so it can be called from many threads.
+   */
+  protected abstract int numAbleToFlip(int index, PlayerIdentity player);
+
+  /**
+   * Index of all the cells flipped by placing player's chess at the given index.
+   * Must only read the board, so it can be called from many threads.
+   */
+  protected abstract int[] flippedIndices(int index, PlayerIdentity player);
+
+  /**
+   * Place player's chess at the given index and flip all the flippable chess.
+   *
+   * @param flipped Array to record the index of the flipped chess into,
+   *                big enough for all the cells, or null to record nothing.
+   * @return Number of chess flipped.
+   */
+  protected abstract int moveAt(int index, PlayerIdentity player, int[] flipped);
+
+  /**
+   * Generate all the cells current player can go in this turn.
+   * Only called when the cells can go are read and stale, with the lock held.
+   */
+  protected abstract void allCellsCanGoInThisTurn();
+
+  /**
+   * Current player can go on the given index in this turn?.
+   * Only read after the stale cells can go are generated again.
+   */
+  protected abstract boolean canGoAt(int index);
+
+  /**
+   * Number of chess the given player holds on the board.
+   */
+  protected abstract int countChess(PlayerIdentity player);
+
+  @Override
+  public boolean validMove(ICell destCell, PlayerIdentity player) {
+    throwGameIsEnd();
+    throwGameNotStartedException();
+    requireNonNull(destCell);
+    requireNonNull(player);
+    clearMoveHelperFields();
+    int index = indexOfCell(destCell);
+    /* if the destination Cell is already filled with chess, return false.*/
+    if (index < 0 || statusAt(index) != CellStatus.EMPTY) {
+      return false;
+    }
+    this.numChessAbleToFlip = numAbleToFlip(index, player);
+    return this.numChessAbleToFlip > 0;
+  }
+
+  @Override
+  public int numAbleToFlip(ICell destCell, PlayerIdentity player) {
+    throwGameIsEnd();
+    throwGameNotStartedException();
+    requireNonNull(destCell);
+    int index = indexOfCell(destCell);
+    if (index < 0) {
+      return 0;
+    }
+    return numAbleToFlip(index, player);
+  }
+
+  @Override
+  public MoveEvaluation evaluateMove(ICellPosition posn, PlayerIdentity player) {
+    throwGameNotStartedException();
+    requireNonNull(posn);
+    requireNonNull(player);
+    List<ICellPosition> flipped = new ArrayList<>();
+    int index = indexOfPosition(posn);
+    /* nothing is flipped on a cell out of the board or already taken.*/
+    if (index < 0 || statusAt(index) != CellStatus.EMPTY) {
+      return new MoveEvaluation(posn, player, false, flipped);
+    }
+    for (int flippedIndex : flippedIndices(index, player)) {
+      flipped.add(positionOf(flippedIndex));
+    }
+    return new MoveEvaluation(posn, player, !flipped.isEmpty(), flipped);
+  }
+
+  /**
+   * Take an immutable snapshot of the game as it is now.
+   * The packed board is copied into bits, so a snapshot costs O(number of cells).
+   *
+   * @return the snapshot of the game.
+   */
+  @Override
+  public BoardSnapshot snapshot() {
+    throwGameNotStartedException();
+    if (this.topology == null) {
+      int directions = directionCount();
+      int[] neighbors = new int[cellCount * directions];
+      ICellPosition[] positions = new ICellPosition[cellCount];
+      for (int index = 0; index < cellCount; index++) {
+        positions[index] = positionOf(index);
+        for (int d = 0; d < directions; d++) {
+          neighbors[index * directions + d] = neighborAt(index, d);
+        }
+      }
+      this.topology = new BoardTopology(size, positions, directions, neighbors,
+              this::indexOfPosition);
+    }
+    long[] black = new long[topology.words()];
+    long[] white = new long[topology.words()];
+    long[] canGo = new long[topology.words()];
+    updateCellsCanGo();
+    for (int index = 0; index < cellCount; index++) {
+      long bit = 1L << index;
+      CellStatus status = statusAt(index);
+      if (status == CellStatus.BLACK) {
+        black[index >>> 6] |= bit;
+      } else if (status == CellStatus.WHITE) {
+        white[index >>> 6] |= bit;
+      }
+      if (canGoAt(index)) {
+        canGo[index >>> 6] |= bit;
+      }
+    }
+    return new BoardSnapshot(topology, black, white, canGo, currentPlayerIdentity, gameOver,
+            chosenIndex, numChessAbleToFlip, players);
+  }
+
+  @Override
+  public int generateMoves(int[] moves) {
+    return movesOf(currentPlayerIdentity, moves);
+  }
+
+  /**
+   * Generate the cells the given player can go into moves, without changing
+   * the cells can go of this turn.
+   *
+   * @return Number of cells filled into moves.
+   */
+  protected int movesOf(PlayerIdentity player, int[] moves) {
+    int count = 0;
+    for (int index = 0; index < cellCount; index++) {
+      if (statusAt(index) == CellStatus.EMPTY && numAbleToFlip(index, player) > 0) {
+        moves[count++] = index;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  public void makeMove(int index, UndoRecord undo) {
+    undo.begin(index, currentPlayerIdentity, prevPlayerPassOrNot);
+    undo.flipCount = applyMove(index, currentPlayerIdentity,
+            undo.flippedCapacity(cellCount));
+    this.prevPlayerPassOrNot = false;
+    this.currentPlayerIdentity = opponentOf(currentPlayerIdentity);
+    this.cellsCanGoStale = true;
+  }
+
+  @Override
+  public void makePass(UndoRecord undo) {
+    undo.begin(-1, currentPlayerIdentity, prevPlayerPassOrNot);
+    this.prevPlayerPassOrNot = true;
+    this.currentPlayerIdentity = opponentOf(currentPlayerIdentity);
+    this.cellsCanGoStale = true;
+  }
+
+  @Override
+  public void unmakeMove(UndoRecord undo) {
+    if (undo.move >= 0) {
+      CellStatus opponentColor = undo.player == PlayerIdentity.BLACKPLAYER
+              ? CellStatus.WHITE : CellStatus.BLACK;
+      for (int i = 0; i < undo.flipCount; i++) {
+        setStatus(undo.flipped[i], opponentColor);
+      }
+      setStatus(undo.move, CellStatus.EMPTY);
+    }
+    this.prevPlayerPassOrNot = undo.prevPlayerPassOrNot;
+    this.currentPlayerIdentity = undo.player;
+    this.cellsCanGoStale = true;
+  }
+
+  @Override
+  public IReversi copyGame() {
+    throwGameNotStartedException();
+    AbstractIndexedReversi copy = newGame();
+    copy.initializeReversi(size);
+    for (int index = 0; index < cellCount; index++) {
+      copy.setStatus(index, statusAt(index));
+    }
+    copy.currentPlayerIdentity = currentPlayerIdentity;
+    copy.prevPlayerPassOrNot = prevPlayerPassOrNot;
+    copy.gameOver = gameOver;
+    return copy;
+  }
+
+  /**
+   * Create a new game of the same kind as this one, not initialized yet.
+   */
+  protected abstract AbstractIndexedReversi newGame();
+
+  @Override
+  public long getZobristKey() {
+    return boardKey ^ ZobristKeys.keyOf(currentPlayerIdentity);
+  }
+
+  // Make the move with moveAt, and update the key with the placed and flipped chess.
+  private int applyMove(int index, PlayerIdentity player, int[] flipped) {
+    int count = moveAt(index, player, flipped);
+    CellStatus own = statusAt(index);
+    CellStatus opp = own == CellStatus.BLACK ? CellStatus.WHITE : CellStatus.BLACK;
+    boardKey ^= ZobristKeys.keyOf(zobristKeys, index, own);
+    for (int i = 0; i < count; i++) {
+      boardKey ^= ZobristKeys.keyOf(zobristKeys, flipped[i], own)
+              ^ ZobristKeys.keyOf(zobristKeys, flipped[i], opp);
+    }
+    return count;
+  }
+
+  // Change the status with changeStatusAt, and update the key.
+  private void setStatus(int index, CellStatus status) {
+    boardKey ^= ZobristKeys.keyOf(zobristKeys, index, statusAt(index))
+            ^ ZobristKeys.keyOf(zobristKeys, index, status);
+    changeStatusAt(index, status);
+    this.cellsCanGoStale = true;
+  }
+
+  // Generate the cells can go again if they are stale, before canGoAt is read.
+  // Under the lock, so two queries never generate them at the same time.
+  private void updateCellsCanGo() {
+    synchronized (cellsCanGoLock) {
+      if (cellsCanGoStale) {
+        allCellsCanGoInThisTurn();
+        cellsCanGoStale = false;
+      }
+    }
+  }
+
+  // Return the other player of the given player.
+  private static PlayerIdentity opponentOf(PlayerIdentity player) {
+    return player == PlayerIdentity.BLACKPLAYER
+            ? PlayerIdentity.WHITEPLAYER : PlayerIdentity.BLACKPLAYER;
+  }
+
+  @Override
+  public void playerPass() {
+    throwGameIsEnd();
+    throwGameNotStartedException();
+    // If both player passed the turn, the game end
+    if (prevPlayerPassOrNot) {
+      setGameOver();
+    } else {
+      this.prevPlayerPassOrNot = true;
+    }
+    nextTurn();
+  }
+
+  /**
+   * Passes the turn to the next player and updates the game state.
+   */
+  protected void nextTurn() {
+    if (this.gameOver) {
+      notifyAllController();
+      return;
+    }
+    this.currentPlayerIdentity = opponentOf(currentPlayerIdentity);
+    this.cellsCanGoStale = true;
+    clearMoveHelperFields();
+    notifyAllController();
+  }
+
+  @Override
+  public void playerChooseCell(ICellPosition cellPosition) {
+    throwGameNotStartedException();
+    throwGameIsEnd();
+    throwNullInput(cellPosition);
+
+    clearMoveHelperFields();
+    ICell expectedChosenCell = getCellOnPosition(cellPosition);
+    if (validMove(expectedChosenCell, this.currentPlayerIdentity)) {
+      this.chosenIndex = indexOfCell(expectedChosenCell);
+    } else {
+      throw new IllegalArgumentException("The chosen cell is invalid to place any chess.");
+    }
+  }
+
+  @Override
+  public void playerDeselectCell() {
+    throwGameNotStartedException();
+    throwGameIsEnd();
+    this.chosenIndex = -1;
+  }
+
+  @Override
+  public void playerMove() {
+    throwGameNotStartedException();
+    throwGameIsEnd();
+    // Chosen cell should not be null
+    if (chosenIndex < 0) {
+      throw new IllegalStateException("No cell chosen yet.");
+    }
+    this.prevPlayerPassOrNot = false;
+    applyMove(chosenIndex, currentPlayerIdentity, lastFlipped);
+    nextTurn();
+  }
+
+  @Override
+  public boolean isGameOver() {
+    throwGameNotStartedException();
+    return this.gameOver;
+  }
+
+  @Override
+  public void setCurrentPlayerIdentity(PlayerIdentity identity) {
+    this.currentPlayerIdentity = identity;
+    this.cellsCanGoStale = true;
+  }
+
+  @Override
+  public int getGameSize() {
+    throwGameNotStartedException();
+    return this.size;
+  }
+
+  @Override
+  public List<ICell> getAllCells() {
+    throwGameNotStartedException();
+    List<ICell> cells = new ArrayList<>(cellCount);
+    for (int index = 0; index < cellCount; index++) {
+      cells.add(new IndexedCell(index));
+    }
+    return cells;
+  }
+
+  @Override
+  public ICell getCellOnPosition(ICellPosition posn) {
+    throwGameIsEnd();
+    throwGameNotStartedException();
+    throwNullInput(posn);
+    int index = indexOfPosition(posn);
+    return index < 0 ? null : new IndexedCell(index);
+  }
+
+  @Override
+  public int getNumChessAbleToFlip() {
+    throwGameIsEnd();
+    throwGameNotStartedException();
+    return this.numChessAbleToFlip;
+  }
+
+  @Override
+  public ICell getChosenCell() {
+    throwGameIsEnd();
+    throwGameNotStartedException();
+    if (this.chosenIndex < 0) {
+      return null;
+    }
+    return new Cell(positionOf(chosenIndex), statusAt(chosenIndex));
+  }
+
+  @Override
+  public PlayerIdentity getCurrentPlayer() {
+    throwGameIsEnd();
+    throwGameNotStartedException();
+    return this.currentPlayerIdentity;
+  }
+
+  @Override
+  public int getScore(IPlayer player) {
+    throwGameNotStartedException();
+    throwNullInput(player);
+    return countChess(player.getPlayerIdentity());
+  }
+
+  @Override
+  public IPlayer getWinner() {
+    throwGameNotStartedException();
+    int winnerScore = 0;
+    IPlayer winner = null;
+
+    for (IPlayer p : this.players) {
+      int score = getScore(p);
+      if (score > winnerScore) {
+        winnerScore = score;
+        winner = p;
+      }
+    }
+
+    for (IPlayer p : this.players) {
+      int score = getScore(p);
+      if (winnerScore != score) {
+        return winner;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public List<ICell> getAllCellsCanGo() {
+    throwGameIsEnd();
+    throwGameNotStartedException();
+    List<ICell> canGo = new ArrayList<>();
+    updateCellsCanGo();
+    for (int index = 0; index < cellCount; index++) {
+      if (canGoAt(index)) {
+        canGo.add(new IndexedCell(index));
+      }
+    }
+    return canGo;
+  }
+
+  @Override
+  public List<ICell> getSurroundingCells(ICell c) {
+    throwGameIsEnd();
+    throwGameNotStartedException();
+    requireNonNull(c);
+    int index = indexOfCell(c);
+    List<ICell> surrounding = new ArrayList<>(directionCount());
+    for (int d = 0; d < directionCount(); d++) {
+      int neighbor = neighborAt(index, d);
+      surrounding.add(neighbor < 0 ? null : new IndexedCell(neighbor));
+    }
+    return surrounding;
+  }
+
+  @Override
+  public void startGame() {
+    for (IActionListener observer : controllers) {
+      observer.runIfComputer();
+    }
+  }
+
+  @Override
+  public void addPlayer(IPlayer player) {
+    this.players.add(player);
+  }
+
+  @Override
+  public void addController(IActionListener controller) {
+    this.controllers.add(controller);
+  }
+
+  @Override
+  public void notifyAllControllerGameOver() {
+    for (IActionListener observer : controllers) {
+      observer.letPanelShowGameOver();
+    }
+  }
+
+  @Override
+  public void notifyAllController() {
+    for (IActionListener observer : controllers) {
+      observer.updateView();
+    }
+    for (IActionListener observer : controllers) {
+      observer.runIfComputer();
+    }
+  }
+
+  /**
+   * When game over, set the game into game over state.
+   */
+  protected void setGameOver() {
+    this.gameOver = true;
+    notifyAllControllerGameOver();
+  }
+
+  /**
+   * Clean out the move helper fields before everytime a new cell is selected.
+   */
+  protected void clearMoveHelperFields() {
+    this.chosenIndex = -1;
+    this.numChessAbleToFlip = 0;
+  }
+
+  /**
+   * Index of the given cell on this board, -1 if it is not on the board.
+   */
+  protected int indexOfCell(ICell cell) {
+    if (cell instanceof IndexedCell && ((IndexedCell) cell).owner() == this) {
+      return ((IndexedCell) cell).index;
+    }
+    return indexOfPosition(cell.getPosition());
+  }
+
+  /**
+   * Throw exception to using methods when game it not started.
+   */
+  protected void throwGameNotStartedException() {
+    if (!this.gameStarted) {
+      throw new IllegalStateException("Game not started yet!");
+    }
+  }
+
+  /**
+   * Throw exception to using methods when game it over.
+   */
+  protected void throwGameIsEnd() {
+    if (this.gameOver) {
+      throw new IllegalStateException("Game is over!");
+    }
+  }
+
+  /**
+   * Throw exception if the null object been input.
+   */
+  protected void throwNullInput(Object input) {
+    if (input == null) {
+      throw new IllegalStateException("Null input is not allowed.");
+    }
+  }
+
+  /**
+   * Represent a view of a cell of the packed board, only its index.
+   * It reads and writes its status directly on the board of the model.
+   */
+  private final class IndexedCell implements ICell {
+    private final int index;
+
+    private IndexedCell(int index) {
+      this.index = index;
+    }
+
+    private AbstractIndexedReversi owner() {
+      return AbstractIndexedReversi.this;
+    }
+
+    @Override
+    public ICellPosition getPosition() {
+      return positionOf(index);
+    }
+
+    @Override
+    public CellStatus getCellStatus() {
+      return statusAt(index);
+    }
+
+    @Override
+    public void changeStatus(CellStatus cellStatus) {
+      requireNonNull(cellStatus);
+      setStatus(index, cellStatus);
+    }
+
+    @Override
+    public boolean sameColorChess(ICell that) {
+      requireNonNull(that);
+      CellStatus status = getCellStatus();
+      return status != CellStatus.EMPTY && status == that.getCellStatus();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (this == that) {
+        return true;
+      }
+      /* only other views, as Cell only equals Cell, so equals stays symmetric.*/
+      if (!(that instanceof IndexedCell)) {
+        return false;
+      }
+      IndexedCell thatCell = (IndexedCell) that;
+      return getCellStatus() == thatCell.getCellStatus()
+              && getPosition().equals(thatCell.getPosition());
+    }
+
+    /* by the position, the same as Cell, so it does not change when flipped.*/
+    @Override
+    public int hashCode() {
+      return PositionKey.hashOf(getPosition());
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package ourreversi.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 
@@ -8,7 +10,10 @@ import ourreversi.cell.Cell;
 import ourreversi.cell.CellStatus;
 import ourreversi.cell.ICell;
 import ourreversi.cell.ICellPosition;
+import ourreversi.cell.PositionIndex;
 import ourreversi.controller.IActionListener;
+import ourreversi.log.GameLog;
+import ourreversi.log.LogLevel;
 
 import static java.util.Objects.requireNonNull;
 
@@ -18,6 +23,10 @@ import static java.util.Objects.requireNonNull;
  */
 public abstract class AbstractReversi implements IReversi {
 
+  // values() copies the array on every call, keep one copy for the hot path.
+  private static final CellStatus[] CELL_STATUSES = CellStatus.values();
+  private static final PlayerIdentity[] PLAYER_IDENTITIES = PlayerIdentity.values();
+
   // Game State related fields.
   // Game Started?
   protected boolean gameStarted = false;
@@ -35,6 +44,9 @@ public abstract class AbstractReversi implements IReversi {
    * Add cell for existing cells, add null for no cell.
    */
   protected final HashMap<ICell, List<ICell>> cellRelation = new HashMap<>();
+  // The positions of all cells in the game, interned from the cells.
+  // Invariance: the cell with position p is at allCells.get(positionIndex.indexOf(p)).
+  protected PositionIndex positionIndex;
   // Size of the game.
   // Invaniance: Size is number of row on the board - 1 / 2;
   // Row number = size * 2 + 1
@@ -45,7 +57,36 @@ public abstract class AbstractReversi implements IReversi {
   // Previous player passed the turn or not
   protected boolean prevPlayerPassOrNot;
   // Place chess related fields.
-  protected List<ICell> allCellsCanGo;
+  // Cells each player can go, indexed by player ordinal, bit i is allCells.get(i).
+  // Kept up to date incrementally: only the cells whose rows pass through a changed
+  // cell are validated again when the turn is updated.
+  protected BitSet[] allCellsCanGo;
+  // Cells changed since the last update of allCellsCanGo, by index in allCells.
+  private int[] changedCells;
+  private int numChangedCells;
+  private boolean[] cellChanged;
+  // Cells already validated again in the current update.
+  private int[] revalidatedCells;
+  private int numRevalidatedCells;
+  private boolean[] cellRevalidated;
+  // Guards the update of allCellsCanGo and the marks above, and the sharing of the bits
+  // by snapshot: the queries write them, and may be called from many threads at once.
+  // Moves are never made at the same time as queries, so they do not take it.
+  private final Object cellsCanGoLock = new Object();
+  // Chess of each color, bit i is allCells.get(i).
+  // Copy on write: shared with the snapshots taken since the last change of a cell,
+  // copied before the next change.
+  private long[] blackBits;
+  private long[] whiteBits;
+  private boolean bitsShared;
+  // Shape of the board, created on the first snapshot and shared by all snapshots.
+  private BoardTopology topology;
+  // Rays of every cell in every direction, shared by the games of the same board.
+  private RayTables rays;
+  // Zobrist keys of the cells, and the xor of the keys of all chess on the board.
+  // Updated on every chess placed or flipped.
+  private long[] zobristKeys;
+  private long boardKey;
   // The cell that player chooses to place the chess.
   protected ICell chosenCell;
   // After having a chosenCell to place the chess
@@ -97,7 +138,7 @@ public abstract class AbstractReversi implements IReversi {
       return false;
     }
 
-    this.numChessAbleToFlip = numAbleToFlip(destCell, player);
+    this.numChessAbleToFlip = countFlips(destCell, player, true);
 
     return this.numChessAbleToFlip > 0;
   }
@@ -110,53 +151,87 @@ public abstract class AbstractReversi implements IReversi {
    * @return int Amount of cell that is able to flip.
    */
   public int numAbleToFlip(ICell destCell, PlayerIdentity player) {
-    List<ICell> surroundingCells = getSurroundingCells(destCell);
+    throwGameIsEnd();
+    throwGameNotStartedException();
+    requireNonNull(destCell);
+    return countFlips(destCell, player, false);
+  }
+
+  /**
+   * Count the cells able to flip by walking each ray from the destination cell.
+   * Walks the ray tables and the chess bits directly, no list is copied or created.
+   *
+   * @param destCell         The destination cell to validate.
+   * @param player           The player who is making the move.
+   * @param recordDirections Record the flippable directions in indexOfDirectionAbleToFlip?
+   * @return int Amount of cell that is able to flip.
+   */
+  protected int countFlips(ICell destCell, PlayerIdentity player, boolean recordDirections) {
+    int ray = indexOfCell(destCell) * this.rays.directions;
+    long[] own = player == PlayerIdentity.BLACKPLAYER ? this.blackBits : this.whiteBits;
+    long[] opponent = player == PlayerIdentity.BLACKPLAYER ? this.whiteBits : this.blackBits;
     int countNumFlip = 0;
 
-    for (ICell c : surroundingCells) {
-      /* Break if the surrounding cell is border.*/
-      if (c == null) {
-        continue;
+    for (int index = 0; index < this.rays.directions; index++) {
+      int start = this.rays.starts[ray + index];
+      int end = this.rays.starts[ray + index + 1];
+      /* skip the opponent's chess in this row.*/
+      int at = start;
+      while (at < end && isSet(opponent, this.rays.cells[at])) {
+        at++;
       }
-      /* Break if the surrounding cell is empty.*/
-      if (c.getCellStatus().equals(CellStatus.EMPTY)) {
+      /* the row flips only if it has opponent's chess and then player's chess.*/
+      if (at == start || at == end || !isSet(own, this.rays.cells[at])) {
         continue;
       }
-      /* Break if the surrounding cell is same color as player's chess.*/
-      if (sameColorPlayerChess(player, c)) {
+      countNumFlip += at - start;
+      if (recordDirections) {
+        this.indexOfDirectionAbleToFlip.add(index);
+      }
+    }
+    return countNumFlip;
+  }
+
+  /**
+   * Evaluate placing the player's chess on the given position, without making the move.
+   * Only reads the board, never touches the move helper fields.
+   *
+   * @param posn   The position to place the chess on.
+   * @param player The player who is making the move.
+   * @return the evaluation of the move.
+   */
+  public MoveEvaluation evaluateMove(ICellPosition posn, PlayerIdentity player) {
+    throwGameNotStartedException();
+    requireNonNull(posn);
+    requireNonNull(player);
+    List<ICellPosition> flipped = new ArrayList<>();
+    int destIndex = this.positionIndex.indexOf(posn);
+    /* nothing is flipped on a cell out of the board or already taken.*/
+    if (destIndex < 0
+            || this.allCells.get(destIndex).getCellStatus() != CellStatus.EMPTY) {
+      return new MoveEvaluation(posn, player, false, flipped);
+    }
+
+    long[] own = player == PlayerIdentity.BLACKPLAYER ? this.blackBits : this.whiteBits;
+    long[] opponent = player == PlayerIdentity.BLACKPLAYER ? this.whiteBits : this.blackBits;
+    int ray = destIndex * this.rays.directions;
+    for (int index = 0; index < this.rays.directions; index++) {
+      int start = this.rays.starts[ray + index];
+      int end = this.rays.starts[ray + index + 1];
+      int at = start;
+      while (at < end && isSet(opponent, this.rays.cells[at])) {
+        at++;
+      }
+      /* keep the opponent's chess in this row only if the row ends with a chess of
+       * player's color.*/
+      if (at == end || !isSet(own, this.rays.cells[at])) {
         continue;
       }
-      /* Continue only if player's chess is having different color as this surrounding chess.*/
-      if (!sameColorPlayerChess(player, c)) {
-        /* get position index of c.*/
-        int index = surroundingCells.indexOf(c);
-        ICell checkAt = c;
-        int ableFlipNum = 1;
-        ICell nextAt = getSurroundingAt(checkAt, index);
-        /* While the next cell is not null (out of bond) ,
-         * and it is still different color chess as the starter chess, go to the next.
-         * If the next is null,
-         * or it goes to a same color chess as the beginning one, exit the <while loop>.*/
-        while (nextAt != null && nextAt.sameColorChess((Cell) checkAt)) {
-          checkAt = nextAt;
-          nextAt = getSurroundingAt(checkAt, index);
-          ableFlipNum++;
-        }
-        /*Break the <for loop> for this c doesn't have player's chess color till the border.*/
-        if (nextAt == null) {
-          continue;
-        }
-        /* if the next cell contains chess with same color of player's chess,
-         * update the number of chess able to flip,
-         * and update the direction that can be flipped.
-         */
-        if (sameColorPlayerChess(player, nextAt)) {
-          countNumFlip += ableFlipNum;
-          this.indexOfDirectionAbleToFlip.add(index);
-        }
+      for (int f = start; f < at; f++) {
+        flipped.add(this.allCells.get(this.rays.cells[f]).getPosition());
       }
     }
-    return countNumFlip;
+    return new MoveEvaluation(posn, player, !flipped.isEmpty(), flipped);
   }
 
   /**
@@ -166,11 +241,13 @@ public abstract class AbstractReversi implements IReversi {
    * @param startingCell The cell from where the flipping starts.
    */
   protected void flipARow(int rowIndex, ICell startingCell) {
-    ICell nextCellInRow = getSurroundingAt(startingCell, rowIndex);
-    while (!nextCellInRow.sameColorChess((Cell) startingCell)) {
+    int ray = indexOfCell(startingCell) * this.rays.directions + rowIndex;
+    for (int at = this.rays.starts[ray]; at < this.rays.starts[ray + 1]; at++) {
+      ICell nextCellInRow = this.allCells.get(this.rays.cells[at]);
+      if (nextCellInRow.sameColorChess(startingCell)) {
+        return;
+      }
       nextCellInRow.changeStatus(startingCell.getCellStatus());
-      ICell currentCell = nextCellInRow;
-      nextCellInRow = getSurroundingAt(currentCell, rowIndex);
     }
   }
 
@@ -181,8 +258,8 @@ public abstract class AbstractReversi implements IReversi {
    */
   protected void flipCells(ICell startingCell) {
     throwGameNotStartedException();
-    for (int rowIndex : indexOfDirectionAbleToFlip) {
-      flipARow(rowIndex, startingCell);
+    for (int i = 0; i < indexOfDirectionAbleToFlip.size(); i++) {
+      flipARow(indexOfDirectionAbleToFlip.get(i), startingCell);
     }
   }
 
@@ -215,11 +292,11 @@ public abstract class AbstractReversi implements IReversi {
     } else {
       currentPlayerOrdinal = 0;
     }
-    this.currentPlayerIdentity = PlayerIdentity.values()[currentPlayerOrdinal];
+    this.currentPlayerIdentity = PLAYER_IDENTITIES[currentPlayerOrdinal];
 
     updateGameState();
     notifyAllController();
-    System.out.println("Notify");
+    GameLog.log(LogLevel.DEBUG, "Notify");
   }
 
   /**
@@ -279,15 +356,301 @@ public abstract class AbstractReversi implements IReversi {
   }
 
   /**
-   * Adds all possible cells that can go in this turn to the list.
+   * Generate the cells the current player can go, updating the cells can go
+   * incrementally from the cells changed since the last call.
+   *
+   * @param moves Array to fill with the cell indices.
+   * @return Number of cells filled into moves.
+   */
+  public int generateMoves(int[] moves) {
+    allCellsCanGoInThisTurn();
+    BitSet canGo = this.allCellsCanGo[this.currentPlayerIdentity.ordinal()];
+    int count = 0;
+    for (int i = canGo.nextSetBit(0); i >= 0; i = canGo.nextSetBit(i + 1)) {
+      moves[count++] = i;
+    }
+    return count;
+  }
+
+  /**
+   * Place the current player's chess on the cell with the given index and flip the
+   * chess, recording the flipped cells into undo. No controller is notified.
+   *
+   * @param index Index of the cell in allCells.
+   * @param undo  Record to fill with what is needed to take back the move.
+   */
+  public void makeMove(int index, UndoRecord undo) {
+    PlayerIdentity player = this.currentPlayerIdentity;
+    CellStatus color = playerChessColor(player);
+    undo.begin(index, player, this.prevPlayerPassOrNot);
+    long[] own = player == PlayerIdentity.BLACKPLAYER ? this.blackBits : this.whiteBits;
+    long[] opponent = player == PlayerIdentity.BLACKPLAYER ? this.whiteBits : this.blackBits;
+    int ray = index * this.rays.directions;
+    for (int direction = 0; direction < this.rays.directions; direction++) {
+      int start = this.rays.starts[ray + direction];
+      int end = this.rays.starts[ray + direction + 1];
+      int at = start;
+      while (at < end && isSet(opponent, this.rays.cells[at])) {
+        at++;
+      }
+      /* flip the row only if it ends with player's chess.*/
+      if (at == end || !isSet(own, this.rays.cells[at])) {
+        continue;
+      }
+      /* flipping may copy the bits if a snapshot shares them, read them again after.*/
+      for (int f = start; f < at; f++) {
+        this.allCells.get(this.rays.cells[f]).changeStatus(color);
+        undo.addFlip(this.rays.cells[f]);
+      }
+      own = player == PlayerIdentity.BLACKPLAYER ? this.blackBits : this.whiteBits;
+      opponent = player == PlayerIdentity.BLACKPLAYER ? this.whiteBits : this.blackBits;
+    }
+    this.allCells.get(index).changeStatus(color);
+    this.prevPlayerPassOrNot = false;
+    this.currentPlayerIdentity = opponentOf(player);
+  }
+
+  /**
+   * Give the turn to the other player without ending the game or notifying controllers.
+   *
+   * @param undo Record to fill with what is needed to take back the pass.
+   */
+  public void makePass(UndoRecord undo) {
+    undo.begin(-1, this.currentPlayerIdentity, this.prevPlayerPassOrNot);
+    this.prevPlayerPassOrNot = true;
+    this.currentPlayerIdentity = opponentOf(this.currentPlayerIdentity);
+  }
+
+  /**
+   * Take back the move recorded in undo: flip the chess back and empty the cell played.
+   *
+   * @param undo The record filled when the move was made.
+   */
+  public void unmakeMove(UndoRecord undo) {
+    if (undo.move >= 0) {
+      CellStatus opponentColor = playerChessColor(opponentOf(undo.player));
+      for (int i = 0; i < undo.flipCount; i++) {
+        this.allCells.get(undo.flipped[i]).changeStatus(opponentColor);
+      }
+      this.allCells.get(undo.move).changeStatus(CellStatus.EMPTY);
+    }
+    this.prevPlayerPassOrNot = undo.prevPlayerPassOrNot;
+    this.currentPlayerIdentity = undo.player;
+  }
+
+  /**
+   * Create an independent copy of the game, without controllers and players.
+   *
+   * @return the copy of the game.
+   */
+  public IReversi copyGame() {
+    throwGameNotStartedException();
+    AbstractReversi copy = newGame();
+    copy.initializeReversi(this.size);
+    for (int i = 0; i < this.allCells.size(); i++) {
+      copy.allCells.get(i).changeStatus(this.allCells.get(i).getCellStatus());
+    }
+    copy.currentPlayerIdentity = this.currentPlayerIdentity;
+    copy.prevPlayerPassOrNot = this.prevPlayerPassOrNot;
+    copy.gameOver = this.gameOver;
+    copy.allCellsCanGoInThisTurn();
+    return copy;
+  }
+
+  /**
+   * Create a new game of the same kind as this one, not initialized yet.
+   *
+   * @return the new game.
+   */
+  protected abstract AbstractReversi newGame();
+
+  /**
+   * Return the Zobrist key of the position: the chess on the board and the player to move.
+   *
+   * @return the key.
+   */
+  public long getZobristKey() {
+    return this.boardKey ^ ZobristKeys.keyOf(this.currentPlayerIdentity);
+  }
+
+  // Return the other player of the given player.
+  private static PlayerIdentity opponentOf(PlayerIdentity player) {
+    return PLAYER_IDENTITIES[1 - player.ordinal()];
+  }
+
+  /**
+   * Update all possible cells that can go for both players.
+   * The first call validates every cell, later calls only validate again the cells
+   * affected by the cells changed since the previous call.
+   * Under the lock, as the queries call it before reading allCellsCanGo.
    */
   protected void allCellsCanGoInThisTurn() {
-    this.allCellsCanGo = new ArrayList<>();
-    for (ICell c : this.allCells) {
-      if (validMove(c, this.currentPlayerIdentity)) {
-        this.allCellsCanGo.add(c);
+    synchronized (this.cellsCanGoLock) {
+      updateCellsCanGo();
+    }
+  }
+
+  // Validate again the cells affected by the changed cells, with the lock held.
+  private void updateCellsCanGo() {
+    if (this.allCellsCanGo == null) {
+      this.allCellsCanGo = new BitSet[] {new BitSet(allCells.size()), new BitSet(allCells.size())};
+      this.changedCells = new int[allCells.size()];
+      this.cellChanged = new boolean[allCells.size()];
+      this.revalidatedCells = new int[allCells.size()];
+      this.cellRevalidated = new boolean[allCells.size()];
+      for (int i = 0; i < this.allCells.size(); i++) {
+        revalidateCell(i);
+      }
+    } else {
+      for (int i = 0; i < this.numChangedCells; i++) {
+        revalidateAround(this.changedCells[i]);
+      }
+    }
+    /* reset the marks for the next update, only on the cells touched.*/
+    for (int i = 0; i < this.numChangedCells; i++) {
+      this.cellChanged[this.changedCells[i]] = false;
+    }
+    this.numChangedCells = 0;
+    for (int i = 0; i < this.numRevalidatedCells; i++) {
+      this.cellRevalidated[this.revalidatedCells[i]] = false;
+    }
+    this.numRevalidatedCells = 0;
+  }
+
+  /**
+   * Validate again the changed cell, and the cells whose rows pass through it.
+   * A row from an empty cell can only reach the changed cell through occupied cells,
+   * so in each direction only the first empty cell needs to be validated again.
+   */
+  private void revalidateAround(int changed) {
+    revalidateCell(changed);
+    int ray = changed * this.rays.directions;
+    for (int direction = 0; direction < this.rays.directions; direction++) {
+      int end = this.rays.starts[ray + direction + 1];
+      int at = this.rays.starts[ray + direction];
+      while (at < end && (isSet(this.blackBits, this.rays.cells[at])
+              || isSet(this.whiteBits, this.rays.cells[at]))) {
+        at++;
+      }
+      if (at < end) {
+        revalidateCell(this.rays.cells[at]);
+      }
+    }
+  }
+
+  // Validate the cell at the given index for both players, once per update.
+  private void revalidateCell(int index) {
+    if (this.cellRevalidated[index]) {
+      return;
+    }
+    this.cellRevalidated[index] = true;
+    this.revalidatedCells[this.numRevalidatedCells++] = index;
+    ICell c = this.allCells.get(index);
+    boolean empty = c.getCellStatus() == CellStatus.EMPTY;
+    for (int p = 0; p < PLAYER_IDENTITIES.length; p++) {
+      this.allCellsCanGo[p].set(index,
+              empty && countFlips(c, PLAYER_IDENTITIES[p], false) > 0);
+    }
+  }
+
+  /**
+   * Create a cell of this board with the given position, starting EMPTY.
+   * Every change of its status is recorded, so the cells can go are updated
+   * incrementally, even if the status is changed from outside of the model.
+   *
+   * @param posn The position of the cell.
+   * @return the new cell.
+   */
+  protected ICell newCell(ICellPosition posn) {
+    return new BoardCell(posn);
+  }
+
+  // Record a cell whose status has changed since the last update.
+  private void recordChange(BoardCell c) {
+    if (c.index < 0 || this.cellChanged == null || this.cellChanged[c.index]) {
+      return;
+    }
+    this.cellChanged[c.index] = true;
+    this.changedCells[this.numChangedCells++] = c.index;
+  }
+
+  // Move a cell from the bits and the key of its old color to those of its new color.
+  private void updateBits(int index, CellStatus before, CellStatus after) {
+    if (index < 0 || this.blackBits == null) {
+      return;
+    }
+    this.boardKey ^= ZobristKeys.keyOf(this.zobristKeys, index, before)
+            ^ ZobristKeys.keyOf(this.zobristKeys, index, after);
+    if (this.bitsShared) {
+      this.blackBits = this.blackBits.clone();
+      this.whiteBits = this.whiteBits.clone();
+      this.bitsShared = false;
+    }
+    long bit = 1L << index;
+    if (before == CellStatus.BLACK) {
+      this.blackBits[index >>> 6] &= ~bit;
+    } else if (before == CellStatus.WHITE) {
+      this.whiteBits[index >>> 6] &= ~bit;
+    }
+    if (after == CellStatus.BLACK) {
+      this.blackBits[index >>> 6] |= bit;
+    } else if (after == CellStatus.WHITE) {
+      this.whiteBits[index >>> 6] |= bit;
+    }
+  }
+
+  /**
+   * Take an immutable snapshot of the game as it is now.
+   * The chess bits are shared with the snapshot, and only copied when a cell
+   * is changed again, so a snapshot costs O(number of cells / 64).
+   *
+   * @return the snapshot of the game.
+   */
+  public BoardSnapshot snapshot() {
+    throwGameNotStartedException();
+    if (this.topology == null) {
+      this.topology = createTopology();
+    }
+    long[] canGo;
+    synchronized (this.cellsCanGoLock) {
+      this.bitsShared = true;
+      updateCellsCanGo();
+      canGo = Arrays.copyOf(
+              this.allCellsCanGo[this.currentPlayerIdentity.ordinal()].toLongArray(),
+              this.blackBits.length);
+    }
+    int chosenIndex = this.chosenCell == null ? -1 : ((BoardCell) this.chosenCell).index;
+    return new BoardSnapshot(this.topology, this.blackBits, this.whiteBits, canGo,
+            this.currentPlayerIdentity, this.gameOver, chosenIndex,
+            this.numChessAbleToFlip, this.players);
+  }
+
+  // Copy the positions and the neighbor lists of the cells into a topology.
+  // The position index never changes, so the topology can look up positions from any
+  // thread.
+  private BoardTopology createTopology() {
+    int cellCount = this.allCells.size();
+    ICellPosition[] positions = new ICellPosition[cellCount];
+    for (int i = 0; i < cellCount; i++) {
+      positions[i] = this.allCells.get(i).getPosition();
+    }
+    return new BoardTopology(this.size, positions, this.rays.directions, neighborTable(),
+            this.positionIndex::indexOf);
+  }
+
+  // The neighbor of cell i in direction d at i * directions + d, -1 for no cell.
+  private int[] neighborTable() {
+    int cellCount = this.allCells.size();
+    int directions = surroundingCellsOf(this.allCells.get(0)).size();
+    int[] neighbors = new int[cellCount * directions];
+    for (int i = 0; i < cellCount; i++) {
+      List<ICell> surroundingCells = surroundingCellsOf(this.allCells.get(i));
+      for (int d = 0; d < directions; d++) {
+        ICell neighbor = surroundingCells.get(d);
+        neighbors[i * directions + d] = neighbor == null ? -1 : ((BoardCell) neighbor).index;
       }
     }
+    return neighbors;
   }
 
   /**
@@ -296,14 +659,14 @@ public abstract class AbstractReversi implements IReversi {
    * @return true if the player can move, false otherwise.
    */
   protected boolean isThisPlayerMovable() {
-    return !this.allCellsCanGo.isEmpty();
+    return !this.allCellsCanGo[this.currentPlayerIdentity.ordinal()].isEmpty();
   }
 
 
   // Return the color of chess the given player is holding.
   protected CellStatus playerChessColor(PlayerIdentity player) {
     int p = player.ordinal();
-    return CellStatus.values()[p];
+    return CELL_STATUSES[p];
   }
 
   // Return true if the player's chess color is different from the given cell's chess color.
@@ -353,7 +716,7 @@ public abstract class AbstractReversi implements IReversi {
     throwGameIsEnd();
     throwGameNotStartedException();
     requireNonNull(c);
-    List<ICell> copy = new ArrayList<>(this.cellRelation.get(c));
+    List<ICell> copy = new ArrayList<>(surroundingCellsOf(c));
     return copy;
   }
 
@@ -370,13 +733,30 @@ public abstract class AbstractReversi implements IReversi {
 
   /**
    * Given a surrounding index, return the surrounding cell at that position.
+   * Reads the neighbor list of the model directly, without copying it.
    *
    * @return Cell
    */
   protected ICell getSurroundingAt(ICell centerCell, int index) {
-    throwGameNotStartedException();
-    throwNullInput(centerCell);
-    return getSurroundingCells(centerCell).get(index);
+    return surroundingCellsOf(centerCell).get(index);
+  }
+
+  /**
+   * Return the neighbor list of the model for the given cell, not a copy.
+   * Callers must not modify the returned list.
+   * A cell that is not one of the model's own cells is looked up by its position.
+   *
+   * @param c The cell for which to retrieve the surrounding cells.
+   * @return A List of cells surrounding the given cell.
+   */
+  protected List<ICell> surroundingCellsOf(ICell c) {
+    List<ICell> surroundingCells = this.cellRelation.get(c);
+    if (surroundingCells == null) {
+      ICell ownCell = getCellOnPosition(c.getPosition());
+      requireNonNull(ownCell);
+      surroundingCells = this.cellRelation.get(ownCell);
+    }
+    return surroundingCells;
   }
 
   /**
@@ -390,12 +770,57 @@ public abstract class AbstractReversi implements IReversi {
     throwGameNotStartedException();
     throwNullInput(posn);
 
-    for (ICell c : allCells) {
-      if (c.getPosition().equals(posn)) {
-        return c;
-      }
+    int index = this.positionIndex.indexOf(posn);
+    return index < 0 ? null : this.allCells.get(index);
+  }
+
+  /**
+   * Index all the cells by the key of their position, and number the cells
+   * by their order in allCells.
+   * Should be called once all the cells are created.
+   */
+  protected void initializePositionIndex() {
+    List<ICellPosition> positions = new ArrayList<>(this.allCells.size());
+    for (ICell c : this.allCells) {
+      positions.add(c.getPosition());
     }
-    return null;
+    this.positionIndex = new PositionIndex(positions);
+    this.blackBits = new long[(this.allCells.size() + 63) >>> 6];
+    this.whiteBits = new long[this.blackBits.length];
+    this.zobristKeys = ZobristKeys.keysFor(this.allCells.size());
+    this.boardKey = 0;
+    for (int i = 0; i < this.allCells.size(); i++) {
+      ICell c = this.allCells.get(i);
+      ((BoardCell) c).index = i;
+    }
+  }
+
+  /**
+   * Get the rays of every cell in every direction from the table of this board shape
+   * and size, built from the neighbor lists by the first game of the board.
+   * Should be called once the relationship between cells is initialized, before any
+   * move is validated.
+   */
+  protected void initializeRays() {
+    int directions = surroundingCellsOf(this.allCells.get(0)).size();
+    this.rays = RayTables.of(getClass(), this.size, directions, this::neighborTable);
+  }
+
+  // The index of the cell in allCells, a cell not owned by the model is looked up by
+  // its position.
+  private int indexOfCell(ICell c) {
+    if (c instanceof BoardCell && ((BoardCell) c).owner() == this) {
+      return ((BoardCell) c).index;
+    }
+    int index = this.positionIndex.indexOf(c.getPosition());
+    if (index < 0) {
+      throw new NullPointerException("The cell is not on the board.");
+    }
+    return index;
+  }
+
+  private static boolean isSet(long[] bits, int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
   }
 
   /**
@@ -479,8 +904,16 @@ public abstract class AbstractReversi implements IReversi {
   public List<ICell> getAllCellsCanGo() {
     throwGameIsEnd();
     throwGameNotStartedException();
-    List<ICell> copy = new ArrayList<>(this.allCellsCanGo);
-    return copy;
+    /* cells changed by a search since the last turn are validated again first.*/
+    synchronized (this.cellsCanGoLock) {
+      updateCellsCanGo();
+      BitSet canGo = this.allCellsCanGo[this.currentPlayerIdentity.ordinal()];
+      List<ICell> copy = new ArrayList<>(canGo.cardinality());
+      for (int i = canGo.nextSetBit(0); i >= 0; i = canGo.nextSetBit(i + 1)) {
+        copy.add(this.allCells.get(i));
+      }
+      return copy;
+    }
   }
 
   /**
@@ -541,9 +974,9 @@ public abstract class AbstractReversi implements IReversi {
       observer.updateView();
     }
     for (IActionListener observer : controllers) {
-      System.out.println("Print controller");
-      System.out.println(this.controllers);
-      System.out.println(observer);
+      if (GameLog.isEnabled(LogLevel.DEBUG)) {
+        GameLog.log(LogLevel.DEBUG, "Controllers " + this.controllers + ", notify " + observer);
+      }
       observer.runIfComputer();
     }
   }
@@ -588,4 +1021,31 @@ public abstract class AbstractReversi implements IReversi {
     this.gameOver = true;
     notifyAllControllerGameOver();
   }
+
+  /**
+   * Represent a cell owned by this model.
+   * Records every change of its status to the model.
+   */
+  private final class BoardCell extends Cell {
+    // Index of this cell in allCells, -1 before the board is indexed.
+    private int index = -1;
+
+    private BoardCell(ICellPosition posn) {
+      super(posn, CellStatus.EMPTY);
+    }
+
+    private AbstractReversi owner() {
+      return AbstractReversi.this;
+    }
+
+    @Override
+    public void changeStatus(CellStatus cellStatus) {
+      CellStatus before = getCellStatus();
+      super.changeStatus(cellStatus);
+      if (before != cellStatus) {
+        recordChange(this);
+        updateBits(this.index, before, cellStatus);
+      }
+    }
+  }
 }
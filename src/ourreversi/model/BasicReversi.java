@@ -5,7 +5,6 @@ import java.util.List;
 
 import ourreversi.cell.ICell;
 import ourreversi.cell.ICellPosition;
-import ourreversi.cell.Cell;
 import ourreversi.cell.CellPosition;
 import ourreversi.cell.CellStatus;
 
@@ -48,7 +47,9 @@ public class BasicReversi extends AbstractReversi implements IReversi {
     this.currentPlayerIdentity = PlayerIdentity.BLACKPLAYER;
     this.controllers = new ArrayList<>();
     initializeBoard(size);
+    initializePositionIndex();
     initializeCellRelation();
+    initializeRays();
     initializeChess();
     allCellsCanGoInThisTurn();
   }
@@ -88,12 +89,12 @@ public class BasicReversi extends AbstractReversi implements IReversi {
         int xCurrent = yPosnInOrder.get(reverseIndex);
         int zCurrent = size - rowIndex;
         ICellPosition posn = new CellPosition(xCurrent, yCurrent, zCurrent);
-        currentRow.add(new Cell(posn, CellStatus.EMPTY));
+        currentRow.add(newCell(posn));
 
         /* if it is not the middle row*/
         if (rowIndex != oppositeRowIndex) {
           CellPosition oppositePosn = new CellPosition(-xCurrent, -yCurrent, -zCurrent);
-          oppositeRow.add(0, new Cell(oppositePosn, CellStatus.EMPTY));
+          oppositeRow.add(0, newCell(oppositePosn));
         }
       }
     }
@@ -104,6 +105,11 @@ public class BasicReversi extends AbstractReversi implements IReversi {
   }
 
 
+  @Override
+  protected AbstractReversi newGame() {
+    return new BasicReversi();
+  }
+
   /**
    * Initialize the hashMap of relationship between cells.
    * The hashMap include key -a cell, value -a list of cells
@@ -0,0 +1,445 @@
+package ourreversi.model;
+
+import java.util.Arrays;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICellPosition;
+import ourreversi.cell.SquareCellPosition;
+
+/**
+ * Represent the square reversi game backed by bitboards.
+ * Each color is stored as a bit set over the board, one bit per cell, indexed
+ * row by row from the top left corner (index = y * side + x).
+ * A board with side 8 (size 4) fits into a single long per color, bigger boards
+ * use an array of long words.
+ * Move generation is done with shift-and-mask over the whole board instead of
+ * walking the neighbor lists of each cell.
+ * The game rules and the order of cells are the same as SquareReversi.
+ */
+public class BitboardReversi extends AbstractIndexedReversi implements IReversi {
+
+  /* Directions in the same order as SquareReversi surrounding cells.
+     starting from the direct left side cell, go clockwise.
+     e.g  1 2 3
+          0 c 4
+          7 6 5
+   */
+  private static final int[] DIRECTION_DX = {-1, -1, 0, 1, 1, 1, 0, -1};
+  private static final int[] DIRECTION_DY = {0, -1, -1, -1, 0, 1, 1, 1};
+
+  // Number of rows and columns on the board.
+  private int side;
+  // Number of long words used by one bitboard.
+  private int words;
+  // Bit offset of each direction, e.g. left is -1, up is -side.
+  private final int[] directionShift = new int[8];
+  // Mask of the cells that a shift in each direction is allowed to land on.
+  private final long[][] directionMask = new long[8][];
+  // Mask of all the cells on the board.
+  private long[] boardMask;
+  // Cells occupied by black and white chess.
+  private long[] black;
+  private long[] white;
+  // Cells the current player can go in this turn.
+  private long[] movable;
+
+  // Cells a player can go, generated for a search.
+  private long[] searchMovable;
+
+  // Scratch boards, reused by move generation and moves.
+  private long[] flips;
+  private long[] scratchA;
+  private long[] scratchB;
+  private long[] empty;
+
+  /**
+   * Construct the bitboard model of the square reversi game.
+   */
+  public BitboardReversi() {
+    // Bitboard Reversi construct without argument.
+  }
+
+  @Override
+  protected int demeterOf(int size) {
+    return size * 2;
+  }
+
+  @Override
+  protected AbstractIndexedReversi newGame() {
+    return new BitboardReversi();
+  }
+
+  /**
+   * A helper to initialize the bitboards and direction masks.
+   */
+  @Override
+  protected int initializeBoard(int size) {
+    this.side = size * 2;
+    int cellCount = side * side;
+    this.words = (cellCount + 63) >>> 6;
+    this.black = new long[words];
+    this.white = new long[words];
+    this.movable = new long[words];
+    this.searchMovable = new long[words];
+    this.flips = new long[words];
+    this.scratchA = new long[words];
+    this.scratchB = new long[words];
+    this.empty = new long[words];
+
+    long[] notLeftColumn = new long[words];
+    long[] notRightColumn = new long[words];
+    this.boardMask = new long[words];
+    for (int index = 0; index < cellCount; index++) {
+      int x = index % side;
+      setBit(boardMask, index);
+      if (x != 0) {
+        setBit(notLeftColumn, index);
+      }
+      if (x != side - 1) {
+        setBit(notRightColumn, index);
+      }
+    }
+    /* a shift to the left must not land on the right column of the row above, and
+       a shift to the right must not land on the left column of the row below.*/
+    for (int d = 0; d < 8; d++) {
+      directionShift[d] = DIRECTION_DY[d] * side + DIRECTION_DX[d];
+      if (DIRECTION_DX[d] < 0) {
+        directionMask[d] = notRightColumn;
+      } else if (DIRECTION_DX[d] > 0) {
+        directionMask[d] = notLeftColumn;
+      } else {
+        directionMask[d] = boardMask;
+      }
+    }
+
+    return cellCount;
+  }
+
+  @Override
+  protected ICellPosition positionOf(int index) {
+    return new SquareCellPosition(index % side, index / side);
+  }
+
+  // Initialize the 4 chess in the middle of the board, same as SquareReversi.
+  // The left-down and right-up cells are White
+  // The left-up and right-down cells are black
+  @Override
+  protected void initializeChess() {
+    setBit(black, indexOf(size - 1, size - 1));
+    setBit(black, indexOf(size, size));
+    setBit(white, indexOf(size - 1, size));
+    setBit(white, indexOf(size, size - 1));
+  }
+
+  // Number of chess able to flip by placing player's chess on the given index.
+  // Only reads the board, the flipped cells are computed into a local board.
+  @Override
+  protected int numAbleToFlip(int index, PlayerIdentity player) {
+    if (words == 1) {
+      return Long.bitCount(singleWordFlips(1L << index, own(player)[0], opponent(player)[0]));
+    }
+    long[] flipped = new long[words];
+    computeFlips(index, own(player), opponent(player), flipped);
+    int count = 0;
+    for (long word : flipped) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  @Override
+  protected int[] flippedIndices(int index, PlayerIdentity player) {
+    long[] flipped = new long[words];
+    computeFlips(index, own(player), opponent(player), flipped);
+    int count = 0;
+    for (long word : flipped) {
+      count += Long.bitCount(word);
+    }
+    int[] indices = new int[count];
+    int i = 0;
+    for (int w = 0; w < words; w++) {
+      long word = flipped[w];
+      while (word != 0) {
+        indices[i++] = (w << 6) + Long.numberOfTrailingZeros(word);
+        word &= word - 1;
+      }
+    }
+    return indices;
+  }
+
+  /**
+   * Compute all the cells flipped by placing a chess on the given index into result.
+   * A single word board walks each direction with shifts, bigger boards step through
+   * the bits of the ray.
+   */
+  private void computeFlips(int index, long[] own, long[] opp, long[] result) {
+    if (words == 1) {
+      result[0] = singleWordFlips(1L << index, own[0], opp[0]);
+      return;
+    }
+    clear(result);
+    int startX = index % side;
+    int startY = index / side;
+    for (int d = 0; d < 8; d++) {
+      int x = startX + DIRECTION_DX[d];
+      int y = startY + DIRECTION_DY[d];
+      int run = 0;
+      while (onBoard(x, y) && testBit(opp, y * side + x)) {
+        x += DIRECTION_DX[d];
+        y += DIRECTION_DY[d];
+        run++;
+      }
+      if (run > 0 && onBoard(x, y) && testBit(own, y * side + x)) {
+        for (int step = 1; step <= run; step++) {
+          setBit(result, (startY + DIRECTION_DY[d] * step) * side
+                  + startX + DIRECTION_DX[d] * step);
+        }
+      }
+    }
+  }
+
+  // Flips of a single word board, walking each direction with shift-and-mask.
+  private long singleWordFlips(long move, long own, long opp) {
+    long result = 0;
+    for (int d = 0; d < 8; d++) {
+      long flipped = 0;
+      long walk = shift(move, d) & opp;
+      while (walk != 0) {
+        flipped |= walk;
+        walk = shift(walk, d);
+        if ((walk & own) != 0) {
+          result |= flipped;
+          break;
+        }
+        walk &= opp;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Generate all the cells current player can go into movable.
+   */
+  @Override
+  protected void allCellsCanGoInThisTurn() {
+    generateMovable(currentPlayerIdentity, movable);
+  }
+
+  /**
+   * Generate the cells the given player can go into moves, from the whole board
+   * at once, without changing the cells can go of this turn.
+   */
+  @Override
+  protected int movesOf(PlayerIdentity player, int[] moves) {
+    generateMovable(player, searchMovable);
+    int count = 0;
+    for (int w = 0; w < words; w++) {
+      for (long word = searchMovable[w]; word != 0; word &= word - 1) {
+        moves[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Generate all the cells the given player can go into target,
+   * with shift-and-mask over the whole board for each direction.
+   */
+  private void generateMovable(PlayerIdentity player, long[] target) {
+    long[] own = own(player);
+    long[] opp = opponent(player);
+    if (words == 1) {
+      long emptyWord = ~(own[0] | opp[0]) & boardMask[0];
+      long moves = 0;
+      for (int d = 0; d < 8; d++) {
+        long run = shift(own[0], d) & opp[0];
+        for (int step = 0; step < side - 3; step++) {
+          run |= shift(run, d) & opp[0];
+        }
+        moves |= shift(run, d) & emptyWord;
+      }
+      target[0] = moves;
+      return;
+    }
+    for (int w = 0; w < words; w++) {
+      empty[w] = ~(own[w] | opp[w]) & boardMask[w];
+    }
+    clear(target);
+    for (int d = 0; d < 8; d++) {
+      shift(own, d, scratchA);
+      and(scratchA, opp);
+      for (int step = 0; step < side - 3; step++) {
+        shift(scratchA, d, scratchB);
+        and(scratchB, opp);
+        or(scratchA, scratchB);
+      }
+      shift(scratchA, d, scratchB);
+      and(scratchB, empty);
+      or(target, scratchB);
+    }
+  }
+
+  // Shift a single word board one step toward the given direction.
+  private long shift(long board, int direction) {
+    int offset = directionShift[direction];
+    long moved = offset > 0 ? board << offset : board >>> -offset;
+    return moved & directionMask[direction][0];
+  }
+
+  // Shift a multi word board one step toward the given direction into dest.
+  private void shift(long[] src, int direction, long[] dest) {
+    int offset = directionShift[direction];
+    int wordShift = Math.abs(offset) >>> 6;
+    int bitShift = Math.abs(offset) & 63;
+    long[] mask = directionMask[direction];
+    if (offset > 0) {
+      for (int w = words - 1; w >= 0; w--) {
+        int from = w - wordShift;
+        long value = 0;
+        if (from >= 0) {
+          value = src[from] << bitShift;
+          if (bitShift != 0 && from > 0) {
+            value |= src[from - 1] >>> (64 - bitShift);
+          }
+        }
+        dest[w] = value & mask[w];
+      }
+    } else {
+      for (int w = 0; w < words; w++) {
+        int from = w + wordShift;
+        long value = 0;
+        if (from < words) {
+          value = src[from] >>> bitShift;
+          if (bitShift != 0 && from + 1 < words) {
+            value |= src[from + 1] << (64 - bitShift);
+          }
+        }
+        dest[w] = value & mask[w];
+      }
+    }
+  }
+
+  @Override
+  protected int moveAt(int index, PlayerIdentity player, int[] flipped) {
+    long[] own = own(player);
+    long[] opp = opponent(player);
+    computeFlips(index, own, opp, flips);
+    setBit(own, index);
+    int count = 0;
+    for (int w = 0; w < words; w++) {
+      own[w] |= flips[w];
+      opp[w] &= ~flips[w];
+      for (long word = flips[w]; word != 0; word &= word - 1) {
+        if (flipped != null) {
+          flipped[count] = (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+        count++;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  protected boolean canGoAt(int index) {
+    return testBit(movable, index);
+  }
+
+  @Override
+  protected int countChess(PlayerIdentity player) {
+    int count = 0;
+    for (long word : own(player)) {
+      count += Long.bitCount(word);
+    }
+    return count;
+  }
+
+  @Override
+  protected int directionCount() {
+    return 8;
+  }
+
+  @Override
+  protected int neighborAt(int index, int direction) {
+    int x = index % side + DIRECTION_DX[direction];
+    int y = index / side + DIRECTION_DY[direction];
+    return onBoard(x, y) ? indexOf(x, y) : -1;
+  }
+
+  @Override
+  protected CellStatus statusAt(int index) {
+    if (testBit(black, index)) {
+      return CellStatus.BLACK;
+    }
+    if (testBit(white, index)) {
+      return CellStatus.WHITE;
+    }
+    return CellStatus.EMPTY;
+  }
+
+  @Override
+  protected void changeStatusAt(int index, CellStatus status) {
+    clearBit(black, index);
+    clearBit(white, index);
+    if (status == CellStatus.BLACK) {
+      setBit(black, index);
+    } else if (status == CellStatus.WHITE) {
+      setBit(white, index);
+    }
+  }
+
+  @Override
+  protected int indexOfPosition(ICellPosition posn) {
+    int x = posn.xGetter();
+    int y = posn.yGetter();
+    if (!(posn instanceof SquareCellPosition) || !onBoard(x, y)) {
+      return -1;
+    }
+    return indexOf(x, y);
+  }
+
+  // The board of the chess color the given player is holding.
+  private long[] own(PlayerIdentity player) {
+    return player == PlayerIdentity.BLACKPLAYER ? black : white;
+  }
+
+  // The board of the chess color the opponent of given player is holding.
+  private long[] opponent(PlayerIdentity player) {
+    return player == PlayerIdentity.BLACKPLAYER ? white : black;
+  }
+
+  private int indexOf(int x, int y) {
+    return y * side + x;
+  }
+
+  private boolean onBoard(int x, int y) {
+    return x >= 0 && x < side && y >= 0 && y < side;
+  }
+
+  private static boolean testBit(long[] board, int index) {
+    return (board[index >>> 6] & (1L << index)) != 0;
+  }
+
+  private static void setBit(long[] board, int index) {
+    board[index >>> 6] |= 1L << index;
+  }
+
+  private static void clearBit(long[] board, int index) {
+    board[index >>> 6] &= ~(1L << index);
+  }
+
+  private static void clear(long[] board) {
+    Arrays.fill(board, 0L);
+  }
+
+  private static void and(long[] board, long[] mask) {
+    for (int w = 0; w < board.length; w++) {
+      board[w] &= mask[w];
+    }
+  }
+
+  private static void or(long[] board, long[] other) {
+    for (int w = 0; w < board.length; w++) {
+      board[w] |= other[w];
+    }
+  }
+}
@@ -0,0 +1,304 @@
+package ourreversi.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ourreversi.cell.Cell;
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represent an immutable copy of a game at one moment.
+ * The chess of each color are held as bit arrays, bit i is the cell with index i in
+ * getAllCells order. The arrays are shared with the model until the model changes
+ * a cell again (copy on write), so taking a snapshot is cheap enough to do every turn.
+ * A snapshot never changes, so it can be passed to other threads, e.g. an AI player
+ * or a spectator, while the game goes on.
+ * The cells given by a snapshot can not be changed.
+ */
+public final class BoardSnapshot implements IReadOnlyModel {
+
+  private final BoardTopology topology;
+  // Chess of each color, never written once the snapshot is created.
+  private final long[] black;
+  private final long[] white;
+  // Cells the current player can go.
+  private final long[] canGo;
+  private final PlayerIdentity currentPlayer;
+  private final boolean gameOver;
+  // The chosen cell index, -1 if none.
+  private final int chosenIndex;
+  private final int numChessAbleToFlip;
+  private final List<IPlayer> players;
+
+  BoardSnapshot(BoardTopology topology, long[] black, long[] white, long[] canGo,
+                PlayerIdentity currentPlayer, boolean gameOver,
+                int chosenIndex, int numChessAbleToFlip, List<IPlayer> players) {
+    this.topology = topology;
+    this.black = black;
+    this.white = white;
+    this.canGo = canGo;
+    this.currentPlayer = currentPlayer;
+    this.gameOver = gameOver;
+    this.chosenIndex = chosenIndex;
+    this.numChessAbleToFlip = numChessAbleToFlip;
+    this.players = Collections.unmodifiableList(new ArrayList<>(players));
+  }
+
+  @Override
+  public boolean isGameOver() {
+    return this.gameOver;
+  }
+
+  @Override
+  public int getGameSize() {
+    return this.topology.size();
+  }
+
+  @Override
+  public List<ICell> getAllCells() {
+    List<ICell> cells = new ArrayList<>(this.topology.cellCount());
+    for (int index = 0; index < this.topology.cellCount(); index++) {
+      cells.add(cellAt(index));
+    }
+    return cells;
+  }
+
+  @Override
+  public ICell getCellOnPosition(ICellPosition posn) {
+    throwGameIsEnd();
+    if (posn == null) {
+      throw new IllegalStateException("Null input is not allowed.");
+    }
+    int index = this.topology.indexOf(posn);
+    return index < 0 ? null : cellAt(index);
+  }
+
+  @Override
+  public int getNumChessAbleToFlip() {
+    throwGameIsEnd();
+    return this.numChessAbleToFlip;
+  }
+
+  @Override
+  public ICell getChosenCell() {
+    throwGameIsEnd();
+    if (this.chosenIndex < 0) {
+      return null;
+    }
+    return new Cell(this.topology.positionAt(this.chosenIndex), statusAt(this.chosenIndex));
+  }
+
+  @Override
+  public PlayerIdentity getCurrentPlayer() {
+    throwGameIsEnd();
+    return this.currentPlayer;
+  }
+
+  @Override
+  public int getScore(IPlayer player) {
+    if (player == null) {
+      throw new IllegalStateException("Null input is not allowed.");
+    }
+    long[] own = bitsOf(player.getPlayerIdentity());
+    int score = 0;
+    for (long word : own) {
+      score += Long.bitCount(word);
+    }
+    return score;
+  }
+
+  @Override
+  public IPlayer getWinner() {
+    int winnerScore = 0;
+    IPlayer winner = null;
+
+    for (IPlayer p : this.players) {
+      int score = getScore(p);
+      if (score > winnerScore) {
+        winnerScore = score;
+        winner = p;
+      }
+    }
+
+    for (IPlayer p : this.players) {
+      int score = getScore(p);
+      if (winnerScore != score) {
+        return winner;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public int numAbleToFlip(ICell destCell, PlayerIdentity player) {
+    throwGameIsEnd();
+    requireNonNull(destCell);
+    int index = this.topology.indexOf(destCell.getPosition());
+    if (index < 0) {
+      return 0;
+    }
+    return countFlips(index, player, null);
+  }
+
+  @Override
+  public MoveEvaluation evaluateMove(ICellPosition posn, PlayerIdentity player) {
+    requireNonNull(posn);
+    requireNonNull(player);
+    List<ICellPosition> flipped = new ArrayList<>();
+    int index = this.topology.indexOf(posn);
+    /* nothing is flipped on a cell out of the board or already taken.*/
+    if (index < 0 || statusAt(index) != CellStatus.EMPTY) {
+      return new MoveEvaluation(posn, player, false, flipped);
+    }
+    countFlips(index, player, flipped);
+    return new MoveEvaluation(posn, player, !flipped.isEmpty(), flipped);
+  }
+
+  @Override
+  public List<ICell> getAllCellsCanGo() {
+    throwGameIsEnd();
+    List<ICell> cells = new ArrayList<>();
+    for (int w = 0; w < this.canGo.length; w++) {
+      for (long word = this.canGo[w]; word != 0; word &= word - 1) {
+        cells.add(cellAt((w << 6) + Long.numberOfTrailingZeros(word)));
+      }
+    }
+    return cells;
+  }
+
+  @Override
+  public List<ICell> getSurroundingCells(ICell c) {
+    throwGameIsEnd();
+    requireNonNull(c);
+    int index = this.topology.indexOf(c.getPosition());
+    if (index < 0) {
+      throw new IllegalArgumentException("The cell is not on the board.");
+    }
+    List<ICell> surrounding = new ArrayList<>(this.topology.directions());
+    for (int d = 0; d < this.topology.directions(); d++) {
+      int neighbor = this.topology.neighborAt(index, d);
+      surrounding.add(neighbor < 0 ? null : cellAt(neighbor));
+    }
+    return surrounding;
+  }
+
+  /**
+   * Check whether the destination Cell is a valid Cell for the player to put a chess.
+   * Nothing is recorded, a snapshot never changes.
+   *
+   * @param destCell The destination cell to validate.
+   * @param player   The player who is making the move.
+   * @return true if the move is valid, false otherwise.
+   */
+  @Override
+  public boolean validMove(ICell destCell, PlayerIdentity player) {
+    throwGameIsEnd();
+    requireNonNull(destCell);
+    requireNonNull(player);
+    int index = this.topology.indexOf(destCell.getPosition());
+    return index >= 0 && statusAt(index) == CellStatus.EMPTY
+            && countFlips(index, player, null) > 0;
+  }
+
+  /**
+   * Unsupported operation in a snapshot, it is not connected to any controller.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public void startGame() {
+    throw new UnsupportedOperationException("A snapshot can not start the game.");
+  }
+
+  /**
+   * A snapshot never changes, so it is its own snapshot.
+   *
+   * @return this snapshot.
+   */
+  @Override
+  public BoardSnapshot snapshot() {
+    return this;
+  }
+
+  /**
+   * Count the chess flipped by placing player's chess at the given index,
+   * walking each row on the bit arrays.
+   *
+   * @param flipped Collect the positions of the flipped chess into it, if not null.
+   */
+  private int countFlips(int index, PlayerIdentity player, List<ICellPosition> flipped) {
+    long[] own = bitsOf(player);
+    long[] opp = player == PlayerIdentity.BLACKPLAYER ? this.white : this.black;
+    int count = 0;
+    for (int d = 0; d < this.topology.directions(); d++) {
+      int run = 0;
+      int next = this.topology.neighborAt(index, d);
+      while (next >= 0 && isSet(opp, next)) {
+        next = this.topology.neighborAt(next, d);
+        run++;
+      }
+      if (run == 0 || next < 0 || !isSet(own, next)) {
+        continue;
+      }
+      count += run;
+      if (flipped != null) {
+        for (int flip = this.topology.neighborAt(index, d); flip != next;
+             flip = this.topology.neighborAt(flip, d)) {
+          flipped.add(this.topology.positionAt(flip));
+        }
+      }
+    }
+    return count;
+  }
+
+  private ICell cellAt(int index) {
+    return new SnapshotCell(this.topology.positionAt(index), statusAt(index));
+  }
+
+  private CellStatus statusAt(int index) {
+    if (isSet(this.black, index)) {
+      return CellStatus.BLACK;
+    }
+    if (isSet(this.white, index)) {
+      return CellStatus.WHITE;
+    }
+    return CellStatus.EMPTY;
+  }
+
+  private long[] bitsOf(PlayerIdentity player) {
+    return player == PlayerIdentity.BLACKPLAYER ? this.black : this.white;
+  }
+
+  private static boolean isSet(long[] bits, int index) {
+    return (bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Throw exception to using methods when game it over, the same as the model.
+   */
+  private void throwGameIsEnd() {
+    if (this.gameOver) {
+      throw new IllegalStateException("Game is over!");
+    }
+  }
+
+  /**
+   * Represent a cell of a snapshot, its status can not be changed.
+   */
+  private static final class SnapshotCell extends Cell {
+
+    private SnapshotCell(ICellPosition posn, CellStatus cellStatus) {
+      super(posn, cellStatus);
+    }
+
+    @Override
+    public void changeStatus(CellStatus cellStatus) {
+      throw new UnsupportedOperationException("The cell of a snapshot can not be changed.");
+    }
+  }
+}
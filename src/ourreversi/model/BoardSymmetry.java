@@ -0,0 +1,224 @@
+package ourreversi.model;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.cell.SquareCellPosition;
+
+/**
+ * Represent the symmetries of a board: the 8 rotations and mirrors of a square board, or
+ * the 12 of a hexagon board in cube coordinates (rotations by 60 degrees, with and
+ * without swapping y and z).
+ * Each symmetry is a precomputed permutation of the cell indices (getAllCells order), so
+ * finding the canonical form of a position, the smallest of its images, costs a few
+ * passes over arrays. The canonical form is the same for every position equal to it by a
+ * symmetry, which lets caches, books and transposition tables share their entries.
+ * The permutations only depend on the shape and size of the board, so they are built
+ * once and shared by every model of the same board.
+ */
+public final class BoardSymmetry {
+
+  private static final Map<String, BoardSymmetry> SYMMETRIES = new ConcurrentHashMap<>();
+  private static final CellStatus[] STATUSES = CellStatus.values();
+
+  // Invariance: permutations[t][i] is the index cell i is moved to by symmetry t,
+  // symmetry 0 is the identity.
+  private final int[][] permutations;
+  // Symmetry taking back each symmetry.
+  private final int[] inverses;
+  private final long[] keys;
+
+  private BoardSymmetry(List<ICell> cells, boolean square) {
+    int size = cells.size();
+    int count = square ? 8 : 12;
+    int side = (int) Math.round(Math.sqrt(size));
+    Map<Long, Integer> indexOf = new HashMap<>();
+    for (int i = 0; i < size; i++) {
+      indexOf.put(pack(cells.get(i).getPosition()), i);
+    }
+    this.permutations = new int[count][size];
+    for (int t = 0; t < count; t++) {
+      for (int i = 0; i < size; i++) {
+        ICellPosition position = cells.get(i).getPosition();
+        int[] xyz = {position.xGetter(), position.yGetter(), position.zGetter()};
+        if (square) {
+          moveSquare(t, xyz, side);
+        } else {
+          moveHexagon(t, xyz);
+        }
+        Integer image = indexOf.get(pack(xyz[0], xyz[1], xyz[2]));
+        if (image == null) {
+          throw new IllegalArgumentException("The board is not symmetric.");
+        }
+        permutations[t][i] = image;
+      }
+    }
+    this.inverses = new int[count];
+    for (int t = 0; t < count; t++) {
+      for (int u = 0; u < count; u++) {
+        if (permutations[u][permutations[t][0]] == 0 && isInverse(t, u)) {
+          inverses[t] = u;
+          break;
+        }
+      }
+    }
+    this.keys = ZobristKeys.keysFor(size);
+  }
+
+  /**
+   * The symmetries of the board of the model.
+   *
+   * @param model A started game.
+   * @return the symmetries, shared by every model of the same board.
+   * @throws IllegalArgumentException if the board is neither a square nor a hexagon.
+   */
+  public static BoardSymmetry of(IReadOnlyModel model) {
+    List<ICell> cells = model.getAllCells();
+    boolean square = cells.get(0).getPosition() instanceof SquareCellPosition;
+    return SYMMETRIES.computeIfAbsent((square ? "square " : "hexagon ") + cells.size(),
+        shape -> new BoardSymmetry(cells, square));
+  }
+
+  /**
+   * Number of symmetries, 8 or 12, the identity included.
+   *
+   * @return int
+   */
+  public int count() {
+    return this.permutations.length;
+  }
+
+  /**
+   * The index the cell is moved to by the symmetry.
+   *
+   * @param symmetry The symmetry, 0 is the identity.
+   * @param index    Index of the cell in getAllCells order.
+   * @return the index of the image.
+   */
+  public int map(int symmetry, int index) {
+    return this.permutations[symmetry][index];
+  }
+
+  /**
+   * The symmetry taking back the given one.
+   *
+   * @param symmetry The symmetry.
+   * @return the inverse symmetry.
+   */
+  public int inverse(int symmetry) {
+    return this.inverses[symmetry];
+  }
+
+  /**
+   * Find the canonical form of the position of the model: of all the images of the board
+   * by a symmetry, the one with the smallest list of cell statuses (getAllCells order).
+   *
+   * @param model  A started game of this board.
+   * @param player The player to move, part of the key.
+   * @return the canonical form and the symmetry to it.
+   */
+  public CanonicalPosition canonicalize(IReadOnlyModel model, PlayerIdentity player) {
+    List<ICell> cells = model.getAllCells();
+    byte[] statuses = new byte[cells.size()];
+    for (int i = 0; i < statuses.length; i++) {
+      statuses[i] = (byte) cells.get(i).getCellStatus().ordinal();
+    }
+    return canonicalize(statuses, player);
+  }
+
+  /**
+   * Find the canonical form of a position given as the ordinal of the CellStatus of each
+   * cell in getAllCells order.
+   *
+   * @param statuses The statuses, not changed.
+   * @param player   The player to move, part of the key.
+   * @return the canonical form and the symmetry to it.
+   */
+  public CanonicalPosition canonicalize(byte[] statuses, PlayerIdentity player) {
+    /* the image of t has at index j the status of cell permutations[inverse(t)][j].*/
+    int best = 0;
+    int same = 1;
+    for (int t = 1; t < permutations.length; t++) {
+      int compared = compareImages(statuses, t, best);
+      if (compared < 0) {
+        best = t;
+        same = 1 << t;
+      } else if (compared == 0) {
+        same |= 1 << t;
+      }
+    }
+    int[] source = permutations[inverses[best]];
+    byte[] form = new byte[statuses.length];
+    long key = ZobristKeys.keyOf(player);
+    for (int j = 0; j < form.length; j++) {
+      form[j] = statuses[source[j]];
+      key ^= ZobristKeys.keyOf(keys, j, STATUSES[form[j]]);
+    }
+    return new CanonicalPosition(this, best, same, form, key);
+  }
+
+  // Compare the images of the board by symmetries t and u, cell by cell.
+  private int compareImages(byte[] statuses, int t, int u) {
+    int[] sourceT = permutations[inverses[t]];
+    int[] sourceU = permutations[inverses[u]];
+    for (int j = 0; j < statuses.length; j++) {
+      int difference = statuses[sourceT[j]] - statuses[sourceU[j]];
+      if (difference != 0) {
+        return difference;
+      }
+    }
+    return 0;
+  }
+
+  private boolean isInverse(int t, int u) {
+    for (int i = 0; i < permutations[t].length; i++) {
+      if (permutations[u][permutations[t][i]] != i) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // Mirror x if bit 1, mirror y if bit 2, then swap x and y if bit 4.
+  private static void moveSquare(int t, int[] xyz, int side) {
+    if ((t & 1) != 0) {
+      xyz[0] = side - 1 - xyz[0];
+    }
+    if ((t & 2) != 0) {
+      xyz[1] = side - 1 - xyz[1];
+    }
+    if ((t & 4) != 0) {
+      int x = xyz[0];
+      xyz[0] = xyz[1];
+      xyz[1] = x;
+    }
+  }
+
+  // Swap y and z if t >= 6, then rotate by 60 degrees t % 6 times.
+  private static void moveHexagon(int t, int[] xyz) {
+    if (t >= 6) {
+      int y = xyz[1];
+      xyz[1] = xyz[2];
+      xyz[2] = y;
+    }
+    for (int r = 0; r < t % 6; r++) {
+      int x = xyz[0];
+      xyz[0] = -xyz[2];
+      xyz[2] = -xyz[1];
+      xyz[1] = -x;
+    }
+  }
+
+  private static long pack(ICellPosition position) {
+    return pack(position.xGetter(), position.yGetter(), position.zGetter());
+  }
+
+  private static long pack(int x, int y, int z) {
+    return ((long) x & 0x1FFFFF) | ((long) y & 0x1FFFFF) << 21 | ((long) z & 0x1FFFFF) << 42;
+  }
+}
@@ -0,0 +1,65 @@
+package ourreversi.model;
+
+import java.util.function.ToIntFunction;
+
+import ourreversi.cell.ICellPosition;
+
+/**
+ * Represent the shape of a board: the position of each cell index and the
+ * neighbors of each cell in each direction.
+ * It never changes once the board is created, so one topology is shared by the
+ * model and all the snapshots taken from it.
+ */
+final class BoardTopology {
+
+  // Size of the game.
+  private final int size;
+  // Position of each cell index.
+  private final ICellPosition[] positions;
+  // Number of directions around a cell.
+  private final int directions;
+  // Neighbor of each cell index in each direction, -1 for no cell.
+  // Invariance: neighbor of cell i in direction d is at neighbors[i * directions + d].
+  private final int[] neighbors;
+  // Cell index of a position, -1 if no cell exists with the position.
+  // Must only depend on the shape of the board.
+  private final ToIntFunction<ICellPosition> indexOf;
+
+  BoardTopology(int size, ICellPosition[] positions, int directions, int[] neighbors,
+                ToIntFunction<ICellPosition> indexOf) {
+    this.size = size;
+    this.positions = positions;
+    this.directions = directions;
+    this.neighbors = neighbors;
+    this.indexOf = indexOf;
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  int cellCount() {
+    return this.positions.length;
+  }
+
+  ICellPosition positionAt(int index) {
+    return this.positions[index];
+  }
+
+  int directions() {
+    return this.directions;
+  }
+
+  int neighborAt(int index, int direction) {
+    return this.neighbors[index * this.directions + direction];
+  }
+
+  int indexOf(ICellPosition posn) {
+    return this.indexOf.applyAsInt(posn);
+  }
+
+  // Number of long words to hold one bit for each cell.
+  int words() {
+    return (this.positions.length + 63) >>> 6;
+  }
+}
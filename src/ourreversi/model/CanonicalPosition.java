@@ -0,0 +1,106 @@
+package ourreversi.model;
+
+import ourreversi.cell.CellStatus;
+
+/**
+ * Represent the canonical form of a position, found by BoardSymmetry.canonicalize: the
+ * statuses of its cells, its key, and the symmetry from the position to it.
+ * The key is the Zobrist key of the canonical form, the same as getZobristKey of a model
+ * in that form, so positions equal by a symmetry have the same key.
+ * A position with symmetries of its own (like the start of the game) reaches the canonical
+ * form by many symmetries; moves equal by one of them have the same canonical move.
+ */
+public final class CanonicalPosition {
+
+  private final BoardSymmetry symmetry;
+  private final int transform;
+  // One bit for each symmetry giving the canonical form.
+  private final int transforms;
+  private final byte[] form;
+  private final long key;
+
+  CanonicalPosition(BoardSymmetry symmetry, int transform, int transforms, byte[] form,
+                    long key) {
+    this.symmetry = symmetry;
+    this.transform = transform;
+    this.transforms = transforms;
+    this.form = form;
+    this.key = key;
+  }
+
+  /**
+   * The Zobrist key of the canonical form and the player to move.
+   *
+   * @return long
+   */
+  public long getKey() {
+    return this.key;
+  }
+
+  /**
+   * The symmetry moving the position to the canonical form, the first one if many.
+   *
+   * @return the symmetry, 0 if the position is already canonical.
+   */
+  public int getTransform() {
+    return this.transform;
+  }
+
+  /**
+   * Does the position have symmetries of its own, so many symmetries give the canonical
+   * form?
+   *
+   * @return true if so.
+   */
+  public boolean isSymmetric() {
+    return Integer.bitCount(this.transforms) > 1;
+  }
+
+  /**
+   * Status of a cell of the canonical form.
+   *
+   * @param index Index of the cell in getAllCells order.
+   * @return the status.
+   */
+  public CellStatus getStatus(int index) {
+    return CellStatus.values()[this.form[index]];
+  }
+
+  /**
+   * The index in the canonical form of a cell of the position.
+   *
+   * @param index Index of the cell in the position.
+   * @return the index in the canonical form.
+   */
+  public int toCanonical(int index) {
+    return this.symmetry.map(this.transform, index);
+  }
+
+  /**
+   * The index in the position of a cell of the canonical form.
+   *
+   * @param index Index of the cell in the canonical form.
+   * @return the index in the position.
+   */
+  public int fromCanonical(int index) {
+    return this.symmetry.map(this.symmetry.inverse(this.transform), index);
+  }
+
+  /**
+   * The canonical move of a move of the position: the smallest index it is moved to by a
+   * symmetry giving the canonical form, so moves equal by a symmetry of the position
+   * have the same canonical move. fromCanonical gives back a move equal to it.
+   *
+   * @param index Index of the cell of the move in the position.
+   * @return the index of the canonical move.
+   */
+  public int canonicalMove(int index) {
+    int smallest = Integer.MAX_VALUE;
+    for (int t = 0; t < this.symmetry.count(); t++) {
+      if ((this.transforms & 1 << t) != 0) {
+        smallest = Math.min(smallest, this.symmetry.map(t, index));
+      }
+    }
+    return smallest;
+  }
+}
@@ -105,6 +105,31 @@ public interface IReadOnlyModel {
    */
   int numAbleToFlip(ICell destCell, PlayerIdentity player);
 
+  /**
+   * Evaluate placing the player's chess on the given position, without making the move.
+   * Unlike validMove, it never changes the model, not even the chosen cell or the
+   * number of chess able to flip. Many threads can evaluate moves on the same model
+   * at the same time, as long as no move is made meanwhile.
+   *
+   * @param posn   The position to place the chess on.
+   * @param player The player who is making the move.
+   * @return the evaluation of the move, invalid with nothing flipped if the position is
+   *         not on the board or already taken.
+   * @throws IllegalStateException if the game has not been started.
+   * @throws NullPointerException  if any argument is null.
+   */
+  MoveEvaluation evaluateMove(ICellPosition posn, PlayerIdentity player);
+
+  /**
+   * Take an immutable snapshot of the game as it is now.
+   * The snapshot answers all the queries of this interface, and never changes when
+   * the game goes on, so it can be passed to other threads.
+   *
+   * @return the snapshot of the game.
+   * @throws IllegalStateException if the game has not been started.
+   */
+  BoardSnapshot snapshot();
+
   /**
    * Return a reference type of all cells can go in this turn.
    *
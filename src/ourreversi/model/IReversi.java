@@ -92,5 +92,62 @@ public interface IReversi extends IReadOnlyModel, ModelStatusListener {
    */
   void setCurrentPlayerIdentity(PlayerIdentity identity);
 
+  /**
+   * Create an independent copy of the game: the same board, player to move and game
+   * state, but no controllers and no players. Changing one never changes the other,
+   * so each search thread can work on its own copy.
+   *
+   * @return the copy of the game.
+   * @throws IllegalStateException if the game has not been started.
+   */
+  IReversi copyGame();
+
+  /**
+   * Return the Zobrist key of the position, for a search over the game.
+   * It hashes the chess on the board and the player to move, and is kept up to date
+   * incrementally on every chess placed or flipped. Models of the same board give the
+   * same key to the same position.
+   *
+   * @return the key.
+   */
+  long getZobristKey();
+
+  /**
+   * Generate the cells the current player can go, for a search over the game.
+   * Cells are identified by their index in getAllCells order.
+   * No exception check is done, the game must have been started.
+   *
+   * @param moves Array to fill with the cell indices, big enough for all the cells.
+   * @return Number of cells filled into moves.
+   */
+  int generateMoves(int[] moves);
+
+  /**
+   * Place the current player's chess on the cell with the given index, flip the chess,
+   * and give the turn to the other player, for a search over the game.
+   * Unlike playerMove, no controller is notified and nothing is checked:
+   * the index must be a valid move of the current player.
+   *
+   * @param index Index of the cell in getAllCells order.
+   * @param undo  Record to fill with what is needed to take back the move.
+   */
+  void makeMove(int index, UndoRecord undo);
+
+  /**
+   * Give the turn to the other player, for a search over the game.
+   * Unlike playerPass, the game is never set over and no controller is notified.
+   *
+   * @param undo Record to fill with what is needed to take back the pass.
+   */
+  void makePass(UndoRecord undo);
+
+  /**
+   * Take back the last move made with makeMove or makePass.
+   * Moves must be taken back in the reverse order they were made.
+   *
+   * @param undo The record filled when the move was made.
+   */
+  void unmakeMove(UndoRecord undo);
+
 }
 
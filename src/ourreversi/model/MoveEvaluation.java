@@ -0,0 +1,86 @@
+package ourreversi.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import ourreversi.cell.ICellPosition;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represent the result of evaluating a move on a model, without making the move.
+ * Holds the cells that would be flipped by placing a player's chess on a position.
+ * It is immutable, so it can be shared between threads.
+ */
+public final class MoveEvaluation {
+
+  private final ICellPosition position;
+  private final PlayerIdentity player;
+  private final boolean valid;
+  private final List<ICellPosition> flippedPositions;
+
+  /**
+   * Construct the evaluation of a move.
+   *
+   * @param position         The position the chess would be placed on.
+   * @param player           The player who would make the move.
+   * @param valid            true if the player is allowed to place the chess on the position.
+   * @param flippedPositions The positions of all the chess would be flipped.
+   * @throws NullPointerException if any argument is null.
+   */
+  public MoveEvaluation(ICellPosition position, PlayerIdentity player, boolean valid,
+                        List<ICellPosition> flippedPositions) {
+    this.position = requireNonNull(position);
+    this.player = requireNonNull(player);
+    this.valid = valid;
+    this.flippedPositions = Collections.unmodifiableList(
+            new ArrayList<>(requireNonNull(flippedPositions)));
+  }
+
+  /**
+   * The position the chess would be placed on.
+   *
+   * @return the position.
+   */
+  public ICellPosition getPosition() {
+    return this.position;
+  }
+
+  /**
+   * The player who would make the move.
+   *
+   * @return the player identity.
+   */
+  public PlayerIdentity getPlayer() {
+    return this.player;
+  }
+
+  /**
+   * Is the player allowed to place the chess on the position?
+   * A move is valid when the cell is empty and at least one chess would be flipped.
+   *
+   * @return true if the move is valid.
+   */
+  public boolean isValid() {
+    return this.valid;
+  }
+
+  /**
+   * Number of chess would be flipped by the move.
+   *
+   * @return int
+   */
+  public int getFlipCount() {
+    return this.flippedPositions.size();
+  }
+
+  /**
+   * The positions of all the chess would be flipped by the move.
+   *
+   * @return an unmodifiable list of positions.
+   */
+  public List<ICellPosition> getFlippedPositions() {
+    return this.flippedPositions;
+  }
+}
@@ -0,0 +1,313 @@
+package ourreversi.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ourreversi.cell.CellPosition;
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICellPosition;
+
+/**
+ * Represent the hexagon reversi game backed by a packed board.
+ * The rules, positions and the order of cells are the same as BasicReversi,
+ * but the cell states are stored in a flat byte array, one byte per cell.
+ * Every cell has a precomputed neighbor index for each of the six directions,
+ * so walking a row never creates any list or looks up any position.
+ * The axial coordinate (x, z) of a position is mapped to its cell index with
+ * a dense lookup table.
+ * The neighbor and lookup tables only depend on the size, so all the games of one
+ * size share them; a game only holds its own board.
+ */
+public class PackedHexReversi extends AbstractIndexedReversi implements IReversi {
+
+  private static final byte EMPTY = 0;
+  private static final byte BLACK = 1;
+  private static final byte WHITE = 2;
+
+  /* on left :          x+1 y-1 z=
+     on left up :       x=  y-1 z+1
+     on right up :      x-1 y=  z+1
+     on right :         x-1 y+1 z=
+     on right down :    x=  y+1 z-1
+     on left down :     x+1 y=  z-1
+   */
+  private static final int[] DIRECTION_DX = {1, 0, -1, -1, 0, 1};
+  private static final int[] DIRECTION_DZ = {0, 1, 1, 0, -1, -1};
+  private static final int DIRECTIONS = 6;
+  // Tables of each size, built by the first game of the size.
+  private static final Map<Integer, Geometry> GEOMETRIES = new ConcurrentHashMap<>();
+
+  // Status of each cell index.
+  private byte[] board;
+  // Neighbor of each cell index in each direction, -1 for no cell.
+  // Invariance: neighbor of cell i in direction d is at neighbors[i * 6 + d].
+  private int[] neighbors;
+  // Cell index of each axial coordinate, -1 for no cell.
+  // Invariance: the coordinate (x, z) is at axialIndex[(x + size) * demeter + z + size].
+  private int[] axialIndex;
+  // Axial coordinate of each cell index.
+  private int[] cellX;
+  private int[] cellZ;
+  // Cells the current player can go in this turn.
+  private boolean[] movable;
+  // Number of chess of each color on the board.
+  private int blackCount;
+  private int whiteCount;
+
+  /**
+   * Construct the packed model of the hexagon reversi game.
+   */
+  public PackedHexReversi() {
+    // Packed Hex Reversi construct without argument.
+  }
+
+  @Override
+  protected int demeterOf(int size) {
+    return size * 2 + 1;
+  }
+
+  @Override
+  protected AbstractIndexedReversi newGame() {
+    return new PackedHexReversi();
+  }
+
+  /**
+   * A helper to initialize the packed board, and take the tables of the size.
+   */
+  @Override
+  protected int initializeBoard(int size) {
+    Geometry geometry = GEOMETRIES.computeIfAbsent(size, Geometry::new);
+    this.neighbors = geometry.neighbors;
+    this.axialIndex = geometry.axialIndex;
+    this.cellX = geometry.cellX;
+    this.cellZ = geometry.cellZ;
+    int cellCount = cellX.length;
+    this.board = new byte[cellCount];
+    this.movable = new boolean[cellCount];
+    return cellCount;
+  }
+
+  @Override
+  protected ICellPosition positionOf(int index) {
+    return new CellPosition(cellX[index], -cellX[index] - cellZ[index], cellZ[index]);
+  }
+
+  // Initialize the chess surrounding the middle cell with position (0,0,0).
+  // The left cell is White, and  each cell is having two different color chess around it.
+  @Override
+  protected void initializeChess() {
+    int center = indexOfAxial(0, 0);
+    for (int d = 0; d < DIRECTIONS; d++) {
+      changeStatusAt(neighbors[center * DIRECTIONS + d],
+              d % 2 == 0 ? CellStatus.WHITE : CellStatus.BLACK);
+    }
+  }
+
+  @Override
+  protected int numAbleToFlip(int index, PlayerIdentity player) {
+    byte own = colorOf(player);
+    byte opp = own == BLACK ? WHITE : BLACK;
+    int count = 0;
+    for (int d = 0; d < DIRECTIONS; d++) {
+      int run = 0;
+      int next = neighbors[index * DIRECTIONS + d];
+      while (next >= 0 && board[next] == opp) {
+        next = neighbors[next * DIRECTIONS + d];
+        run++;
+      }
+      if (run > 0 && next >= 0 && board[next] == own) {
+        count += run;
+      }
+    }
+    return count;
+  }
+
+  @Override
+  protected int[] flippedIndices(int index, PlayerIdentity player) {
+    byte own = colorOf(player);
+    byte opp = own == BLACK ? WHITE : BLACK;
+    int[] indices = new int[numAbleToFlip(index, player)];
+    int count = 0;
+    for (int d = 0; d < DIRECTIONS; d++) {
+      int next = neighbors[index * DIRECTIONS + d];
+      while (next >= 0 && board[next] == opp) {
+        next = neighbors[next * DIRECTIONS + d];
+      }
+      if (next >= 0 && board[next] == own) {
+        for (int flip = neighbors[index * DIRECTIONS + d]; flip != next;
+             flip = neighbors[flip * DIRECTIONS + d]) {
+          indices[count++] = flip;
+        }
+      }
+    }
+    return indices;
+  }
+
+  @Override
+  protected int moveAt(int index, PlayerIdentity player, int[] flipped) {
+    byte own = colorOf(player);
+    byte opp = own == BLACK ? WHITE : BLACK;
+    int count = 0;
+    for (int d = 0; d < DIRECTIONS; d++) {
+      int next = neighbors[index * DIRECTIONS + d];
+      while (next >= 0 && board[next] == opp) {
+        next = neighbors[next * DIRECTIONS + d];
+      }
+      /* flip the row back to the starting cell only if it ends with player's chess.*/
+      if (next >= 0 && board[next] == own) {
+        int flip = neighbors[index * DIRECTIONS + d];
+        while (flip != next) {
+          board[flip] = own;
+          if (flipped != null) {
+            flipped[count] = flip;
+          }
+          count++;
+          flip = neighbors[flip * DIRECTIONS + d];
+          addCount(own, 1);
+          addCount(opp, -1);
+        }
+      }
+    }
+    board[index] = own;
+    addCount(own, 1);
+    return count;
+  }
+
+  @Override
+  protected void allCellsCanGoInThisTurn() {
+    for (int i = 0; i < board.length; i++) {
+      movable[i] = board[i] == EMPTY && numAbleToFlip(i, currentPlayerIdentity) > 0;
+    }
+  }
+
+  @Override
+  protected boolean canGoAt(int index) {
+    return movable[index];
+  }
+
+  @Override
+  protected int countChess(PlayerIdentity player) {
+    return colorOf(player) == BLACK ? blackCount : whiteCount;
+  }
+
+  @Override
+  protected int directionCount() {
+    return DIRECTIONS;
+  }
+
+  @Override
+  protected int neighborAt(int index, int direction) {
+    return neighbors[index * DIRECTIONS + direction];
+  }
+
+  @Override
+  protected CellStatus statusAt(int index) {
+    switch (board[index]) {
+      case BLACK:
+        return CellStatus.BLACK;
+      case WHITE:
+        return CellStatus.WHITE;
+      default:
+        return CellStatus.EMPTY;
+    }
+  }
+
+  @Override
+  protected void changeStatusAt(int index, CellStatus status) {
+    addCount(board[index], -1);
+    if (status == CellStatus.BLACK) {
+      board[index] = BLACK;
+    } else if (status == CellStatus.WHITE) {
+      board[index] = WHITE;
+    } else {
+      board[index] = EMPTY;
+    }
+    addCount(board[index], 1);
+  }
+
+  @Override
+  protected int indexOfPosition(ICellPosition posn) {
+    int x = posn.xGetter();
+    int y = posn.yGetter();
+    int z = posn.zGetter();
+    if (x + y + z != 0) {
+      return -1;
+    }
+    /* only the positions of a hexagon board are on this board.*/
+    if (!(posn instanceof CellPosition)) {
+      return -1;
+    }
+    return indexOfAxial(x, z);
+  }
+
+  // Cell index of the axial coordinate, -1 if it is out of the board.
+  private int indexOfAxial(int x, int z) {
+    if (Math.abs(x) > size || Math.abs(z) > size || Math.abs(x + z) > size) {
+      return -1;
+    }
+    return axialIndex[axialKey(x, z)];
+  }
+
+  private int axialKey(int x, int z) {
+    return (x + size) * demeterOf(size) + z + size;
+  }
+
+  private void addCount(byte color, int amount) {
+    if (color == BLACK) {
+      blackCount += amount;
+    } else if (color == WHITE) {
+      whiteCount += amount;
+    }
+  }
+
+  // The chess color the given player is holding.
+  private static byte colorOf(PlayerIdentity player) {
+    return player == PlayerIdentity.BLACKPLAYER ? BLACK : WHITE;
+  }
+
+  /**
+   * Represent the tables of a board size, never changed once built.
+   * Cells are arranged row by row from z = size to z = -size,
+   * and from the biggest x to the smallest x in each row.
+   */
+  private static final class Geometry {
+    private final int[] neighbors;
+    private final int[] axialIndex;
+    private final int[] cellX;
+    private final int[] cellZ;
+
+    private Geometry(int size) {
+      int demeter = size * 2 + 1;
+      int cellCount = 3 * size * (size + 1) + 1;
+      this.cellX = new int[cellCount];
+      this.cellZ = new int[cellCount];
+      this.axialIndex = new int[demeter * demeter];
+      Arrays.fill(axialIndex, -1);
+
+      int index = 0;
+      for (int z = size; z >= -size; z--) {
+        int maxX = Math.min(size, size - z);
+        int minX = Math.max(-size, -size - z);
+        for (int x = maxX; x >= minX; x--) {
+          cellX[index] = x;
+          cellZ[index] = z;
+          axialIndex[(x + size) * demeter + z + size] = index;
+          index++;
+        }
+      }
+
+      this.neighbors = new int[cellCount * DIRECTIONS];
+      for (int i = 0; i < cellCount; i++) {
+        for (int d = 0; d < DIRECTIONS; d++) {
+          int x = cellX[i] + DIRECTION_DX[d];
+          int z = cellZ[i] + DIRECTION_DZ[d];
+          boolean onBoard = Math.abs(x) <= size && Math.abs(z) <= size
+                  && Math.abs(x + z) <= size;
+          neighbors[i * DIRECTIONS + d] = onBoard
+                  ? axialIndex[(x + size) * demeter + z + size] : -1;
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package ourreversi.model;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Represent the rays of a board: for every cell and every direction, the indices of the
+ * cells from its neighbor in that direction to the edge of the board, nearest first.
+ * Finding the chess a move flips is then a walk along an int array, instead of a lookup
+ * of the neighbor list of every cell on the way.
+ * The rays only depend on the shape and the size of the board, so one table is built
+ * for each and shared by every game of that board, from any thread. Never modified.
+ */
+final class RayTables {
+
+  // Tables by shape (the class of the model) and size.
+  private static final Map<List<Object>, RayTables> TABLES = new ConcurrentHashMap<>();
+
+  // Number of directions around a cell.
+  final int directions;
+  // Where each ray starts in cells, one more entry for the end of the last ray.
+  // Invariance: the ray of cell i in direction d is
+  // cells[starts[i * directions + d]] .. cells[starts[i * directions + d + 1] - 1].
+  final int[] starts;
+  final int[] cells;
+
+  private RayTables(int directions, int[] neighbors) {
+    this.directions = directions;
+    this.starts = new int[neighbors.length + 1];
+    int total = 0;
+    for (int ray = 0; ray < neighbors.length; ray++) {
+      this.starts[ray] = total;
+      total += lengthOf(ray % directions, neighbors[ray], neighbors);
+    }
+    this.starts[neighbors.length] = total;
+    this.cells = new int[total];
+    for (int ray = 0; ray < neighbors.length; ray++) {
+      int d = ray % directions;
+      int at = this.starts[ray];
+      for (int c = neighbors[ray]; c >= 0; c = neighbors[c * directions + d]) {
+        this.cells[at++] = c;
+      }
+    }
+  }
+
+  /**
+   * The table of the board with the given shape and size, built from the neighbors
+   * the first time it is asked for.
+   *
+   * @param shape      The class of the model, each class has its own shape.
+   * @param size       Size of the board.
+   * @param directions Number of directions around a cell.
+   * @param neighbors  The neighbor of cell i in direction d at i * directions + d, -1 for
+   *                   no cell. Only called if the table is not built yet.
+   * @return the table.
+   */
+  static RayTables of(Class<?> shape, int size, int directions, Supplier<int[]> neighbors) {
+    return TABLES.computeIfAbsent(List.of(shape, size),
+            key -> new RayTables(directions, neighbors.get()));
+  }
+
+  // Number of cells from the first one to the edge in direction d.
+  private int lengthOf(int d, int first, int[] neighbors) {
+    int length = 0;
+    for (int c = first; c >= 0; c = neighbors[c * this.directions + d]) {
+      length++;
+    }
+    return length;
+  }
+}
@@ -3,7 +3,6 @@ package ourreversi.model;
 import java.util.ArrayList;
 import java.util.List;
 
-import ourreversi.cell.Cell;
 import ourreversi.cell.CellStatus;
 import ourreversi.cell.ICell;
 import ourreversi.cell.ICellPosition;
@@ -39,7 +38,9 @@ public class SquareReversi extends AbstractReversi implements IReversi {
     this.currentPlayerIdentity = PlayerIdentity.BLACKPLAYER;
     this.controllers = new ArrayList<>();
     initializeBoard(size);
+    initializePositionIndex();
     initializeCellRelation();
+    initializeRays();
     initializeChess();
     allCellsCanGoInThisTurn();
   }
@@ -62,7 +63,7 @@ public class SquareReversi extends AbstractReversi implements IReversi {
         int x = colNum;
         int y = rowNum;
         ICellPosition position = new SquareCellPosition(x, y);
-        ICell thisCell = new Cell(position, CellStatus.EMPTY);
+        ICell thisCell = newCell(position);
         board.get(rowNum).add(thisCell);
       }
     }
@@ -73,6 +74,11 @@ public class SquareReversi extends AbstractReversi implements IReversi {
   }
 
 
+  @Override
+  protected AbstractReversi newGame() {
+    return new SquareReversi();
+  }
+
   /**
    * Initialize the hashMap of relationship between cells.
    * The hashMap include key -a cell, value -a list of cells
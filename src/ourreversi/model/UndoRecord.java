@@ -0,0 +1,81 @@
+package ourreversi.model;
+
+import java.util.Arrays;
+
+/**
+ * Represent what is needed to take back a move made with IReversi.makeMove or makePass:
+ * the cell index played, the player who made it and the indices of the flipped chess.
+ * A search keeps one record for each ply and reuses it for every move on that ply,
+ * so making and taking back moves does not create any object once the records are big
+ * enough.
+ */
+public final class UndoRecord {
+
+  // Cell index the chess was placed on, -1 for a pass.
+  int move = -1;
+  // The player who made the move.
+  PlayerIdentity player;
+  // Previous player passed the turn or not, before the move.
+  boolean prevPlayerPassOrNot;
+  // Index of the flipped chess, the first flipCount entries are used.
+  int[] flipped = new int[16];
+  int flipCount;
+
+  /**
+   * Construct an empty undo record.
+   */
+  public UndoRecord() {
+    // Filled by the model when a move is made.
+  }
+
+  /**
+   * The cell index the chess was placed on.
+   *
+   * @return the index in getAllCells order, or -1 if the player passed.
+   */
+  public int getMove() {
+    return this.move;
+  }
+
+  /**
+   * The player who made the move.
+   *
+   * @return the player identity.
+   */
+  public PlayerIdentity getPlayer() {
+    return this.player;
+  }
+
+  /**
+   * Number of chess flipped by the move.
+   *
+   * @return int
+   */
+  public int getFlipCount() {
+    return this.flipCount;
+  }
+
+  // Start recording a new move.
+  void begin(int move, PlayerIdentity player, boolean prevPlayerPassOrNot) {
+    this.move = move;
+    this.player = player;
+    this.prevPlayerPassOrNot = prevPlayerPassOrNot;
+    this.flipCount = 0;
+  }
+
+  // Record a flipped chess.
+  void addFlip(int index) {
+    if (this.flipCount == this.flipped.length) {
+      this.flipped = Arrays.copyOf(this.flipped, this.flipped.length * 2);
+    }
+    this.flipped[this.flipCount++] = index;
+  }
+
+  // Make sure the record can hold the given number of flips.
+  int[] flippedCapacity(int capacity) {
+    if (this.flipped.length < capacity) {
+      this.flipped = Arrays.copyOf(this.flipped, capacity);
+    }
+    return this.flipped;
+  }
+}
@@ -0,0 +1,65 @@
+package ourreversi.model;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ourreversi.cell.CellStatus;
+
+/**
+ * Represent the random keys used to hash a board (Zobrist hashing).
+ * Every cell index has one key for a black chess and one for a white chess; the key of
+ * a board is the xor of the keys of all its chess, and the key of the player to move.
+ * A chess placed or flipped changes the key with one or two xor, so the models keep
+ * the key up to date on every change.
+ * The keys only depend on the number of cells, so every model of the same board gets
+ * the same keys, and search threads working on copies of a game share hashes.
+ */
+final class ZobristKeys {
+
+  // Key xor-ed in when the white player is to move.
+  static final long WHITE_TO_MOVE = 0x9E3779B97F4A7C15L;
+
+  private static final long SEED = 0x5DEECE66DL;
+  private static final Map<Integer, long[]> KEYS = new ConcurrentHashMap<>();
+
+  private ZobristKeys() {
+    // Only static keys.
+  }
+
+  /**
+   * The keys of a board with the given number of cells.
+   * Invariance: the key of cell i with color c is at keys[i * 2 + c.ordinal()],
+   * for c BLACK or WHITE. The array is shared, callers must not modify it.
+   *
+   * @param cellCount Number of cells on the board.
+   * @return the keys.
+   */
+  static long[] keysFor(int cellCount) {
+    return KEYS.computeIfAbsent(cellCount, count -> {
+      SplittableRandom random = new SplittableRandom(SEED);
+      long[] keys = new long[count * 2];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = random.nextLong();
+      }
+      return keys;
+    });
+  }
+
+  /**
+   * The key of a chess of the given color on cell index, 0 for an empty cell.
+   */
+  static long keyOf(long[] keys, int index, CellStatus status) {
+    if (status == CellStatus.EMPTY) {
+      return 0;
+    }
+    return keys[index * 2 + status.ordinal()];
+  }
+
+  /**
+   * The key of the player to move.
+   */
+  static long keyOf(PlayerIdentity player) {
+    return player == PlayerIdentity.WHITEPLAYER ? WHITE_TO_MOVE : 0;
+  }
+}
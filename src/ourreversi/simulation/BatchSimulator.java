@@ -0,0 +1,228 @@
+package ourreversi.simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import ourreversi.ReversiCreator;
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IPlayer;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+import ourreversi.model.UndoRecord;
+
+/**
+ * Represent the headless runner of games between two computer players, for mass matches.
+ * No view, no controller and nothing printed: each game is played on its own model with
+ * makeMove and makePass, which notify no controller, and the players choose their cells
+ * like the controller asks them to.
+ * The players swap colors every game, the first player is black in even games. The first
+ * plies of every game are random moves, so games between deterministic players differ;
+ * game i always uses the same random numbers, whatever the number of threads.
+ */
+public final class BatchSimulator {
+
+  private final Supplier<IReversi> newGame;
+  private final int size;
+  private final IPlayer[] firstPlayers;
+  private final IPlayer[] secondPlayers;
+  private final int randomPlies;
+  private final long seed;
+
+  /**
+   * Construct the runner.
+   *
+   * @param newGame     Supplier of a new game, not started.
+   * @param size        Size of the games.
+   * @param first       Type of the first player.
+   * @param second      Type of the second player.
+   * @param randomPlies Number of random moves at the start of every game.
+   * @param seed        Seed of the random moves.
+   * @throws IllegalArgumentException if a player is human, or randomPlies is negative.
+   */
+  public BatchSimulator(Supplier<IReversi> newGame, int size, ReversiCreator.GameType first,
+                        ReversiCreator.GameType second, int randomPlies, long seed) {
+    if (first == ReversiCreator.GameType.HUMAN || second == ReversiCreator.GameType.HUMAN) {
+      throw new IllegalArgumentException("Human players cannot play headless.");
+    }
+    if (randomPlies < 0) {
+      throw new IllegalArgumentException("Random plies cannot be negative.");
+    }
+    this.newGame = newGame;
+    this.size = size;
+    /* players of each color: index 0 black, 1 white.*/
+    this.firstPlayers = new IPlayer[] {
+        ReversiCreator.createPlayer(first, PlayerIdentity.BLACKPLAYER),
+        ReversiCreator.createPlayer(first, PlayerIdentity.WHITEPLAYER)};
+    this.secondPlayers = new IPlayer[] {
+        ReversiCreator.createPlayer(second, PlayerIdentity.BLACKPLAYER),
+        ReversiCreator.createPlayer(second, PlayerIdentity.WHITEPLAYER)};
+    this.randomPlies = randomPlies;
+    this.seed = seed;
+  }
+
+  /**
+   * Play the games on the given number of threads.
+   *
+   * @param games   Number of games.
+   * @param threads Number of threads playing.
+   * @return the result of all the games.
+   * @throws IllegalArgumentException if games is negative or threads is not positive.
+   */
+  public SimulationResult run(long games, int threads) {
+    if (games < 0 || threads <= 0) {
+      throw new IllegalArgumentException("Need games to play and threads to play them.");
+    }
+    long start = System.nanoTime();
+    AtomicLong nextGame = new AtomicLong();
+    ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "reversi-simulator");
+      thread.setDaemon(true);
+      return thread;
+    });
+    List<Future<long[]>> counts = new ArrayList<>();
+    for (int thread = 0; thread < threads; thread++) {
+      counts.add(pool.submit(() -> {
+        /* wins of the first player, of the second player, draws.*/
+        long[] count = new long[3];
+        UndoRecord undo = new UndoRecord();
+        for (long game = nextGame.getAndIncrement(); game < games;
+             game = nextGame.getAndIncrement()) {
+          count[playGame(game, undo)]++;
+        }
+        return count;
+      }));
+    }
+    long[] total = new long[3];
+    try {
+      for (Future<long[]> count : counts) {
+        long[] threadCount = count.get();
+        for (int i = 0; i < total.length; i++) {
+          total[i] += threadCount[i];
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while playing the games.", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A game failed.", e.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+    return new SimulationResult(total[0], total[1], total[2], System.nanoTime() - start);
+  }
+
+  /**
+   * Play game number game to the end.
+   *
+   * @return 0 if the first player won, 1 if the second player won, 2 for a draw.
+   */
+  private int playGame(long game, UndoRecord undo) {
+    boolean firstIsBlack = game % 2 == 0;
+    IReversi model = newGame.get();
+    model.initializeReversi(size);
+    int difference = playGame(model, firstIsBlack ? firstPlayers[0] : secondPlayers[0],
+            firstIsBlack ? secondPlayers[1] : firstPlayers[1], randomPlies,
+            new SplittableRandom(seed + game), undo);
+    if (difference == 0) {
+      return 2;
+    }
+    return (difference > 0) == firstIsBlack ? 0 : 1;
+  }
+
+  /**
+   * Play the game to the end with makeMove and makePass, nothing is notified or printed.
+   *
+   * @param model       A started game.
+   * @param black       The black player, a computer player.
+   * @param white       The white player, a computer player.
+   * @param randomPlies Number of random moves first.
+   * @param random      The random numbers of the random moves.
+   * @param undo        Record reused for every move.
+   * @return number of black chess minus number of white chess at the end.
+   */
+  static int playGame(IReversi model, IPlayer black, IPlayer white, int randomPlies,
+                      SplittableRandom random, UndoRecord undo) {
+    List<ICell> cells = model.getAllCells();
+    int[] moves = new int[cells.size()];
+    boolean passed = false;
+    for (int ply = 0; ; ply++) {
+      int count = model.generateMoves(moves);
+      if (count == 0) {
+        if (passed) {
+          break;
+        }
+        model.makePass(undo);
+        passed = true;
+        continue;
+      }
+      passed = false;
+      int move;
+      if (ply < randomPlies) {
+        move = moves[random.nextInt(count)];
+      } else {
+        IPlayer player = model.getCurrentPlayer() == PlayerIdentity.BLACKPLAYER
+                ? black : white;
+        ICellPosition position = player.getGameLevel().chooseCell(model, player);
+        if (position == null) {
+          model.makePass(undo);
+          passed = true;
+          continue;
+        }
+        move = cells.indexOf(model.getCellOnPosition(position));
+      }
+      model.makeMove(move, undo);
+    }
+
+    int difference = 0;
+    for (ICell c : cells) {
+      difference += c.getCellStatus() == CellStatus.BLACK ? 1
+              : c.getCellStatus() == CellStatus.WHITE ? -1 : 0;
+    }
+    return difference;
+  }
+
+  /**
+   * The runner of a batch of games, prints the result when all the games are played.
+   * Takes 7 arguments maximum.
+   * - Game mode: basic, square
+   * - Size: (Default: 5 for basic, 4 for square)
+   * - First player: easy, medium, hard, otherany, othermax (Default: easy)
+   * - Second player: same as the first player (Default: hard)
+   * - Number of games (Default: 1000)
+   * - Number of threads (Default: number of processors)
+   * - Random plies at the start of every game (Default: 4)
+   */
+  public static void main(String[] args) {
+    String gameMode = args.length > 0 ? args[0].toLowerCase() : "basic";
+    int gameSize = args.length > 1 ? Integer.parseInt(args[1])
+            : (gameMode.equals("basic") ? 5 : 4);
+    ReversiCreator.GameType first = args.length > 2
+            ? ReversiCreator.GameType.valueOf(args[2].toUpperCase())
+            : ReversiCreator.GameType.EASY;
+    ReversiCreator.GameType second = args.length > 3
+            ? ReversiCreator.GameType.valueOf(args[3].toUpperCase())
+            : ReversiCreator.GameType.HARD;
+    long games = args.length > 4 ? Long.parseLong(args[4]) : 1000;
+    int threads = args.length > 5 ? Integer.parseInt(args[5])
+            : Runtime.getRuntime().availableProcessors();
+    int randomPlies = args.length > 6 ? Integer.parseInt(args[6]) : 4;
+
+    Supplier<IReversi> newGame = gameMode.equals("square")
+            ? SquareReversi::new : BasicReversi::new;
+    SimulationResult result = new BatchSimulator(newGame, gameSize, first, second,
+            randomPlies, 0).run(games, threads);
+    System.out.println(first + " vs " + second + " on " + gameMode + " " + gameSize);
+    System.out.println(result);
+  }
+}
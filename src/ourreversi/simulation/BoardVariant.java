@@ -0,0 +1,89 @@
+package ourreversi.simulation;
+
+import java.util.function.Supplier;
+
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Represent a kind of board games are played on: the hexagon board of BasicReversi or the
+ * square board of SquareReversi, and its size.
+ */
+public final class BoardVariant {
+
+  private final String mode;
+  private final int size;
+  private final Supplier<IReversi> newGame;
+
+  private BoardVariant(String mode, int size, Supplier<IReversi> newGame) {
+    this.mode = mode;
+    this.size = size;
+    this.newGame = newGame;
+  }
+
+  /**
+   * The hexagon board of the given size.
+   *
+   * @param size Size of the game.
+   * @return the variant.
+   */
+  public static BoardVariant basic(int size) {
+    return new BoardVariant("basic", size, BasicReversi::new);
+  }
+
+  /**
+   * The square board of the given size.
+   *
+   * @param size Size of the game.
+   * @return the variant.
+   */
+  public static BoardVariant square(int size) {
+    return new BoardVariant("square", size, SquareReversi::new);
+  }
+
+  /**
+   * The variant written as mode:size, like the arguments of Reversi.main.
+   *
+   * @param variant "basic:5" or "square:4".
+   * @return the variant.
+   * @throws IllegalArgumentException if the mode is neither basic nor square.
+   */
+  public static BoardVariant parse(String variant) {
+    String[] parts = variant.toLowerCase().split(":");
+    int size = Integer.parseInt(parts[1]);
+    switch (parts[0]) {
+      case "basic":
+        return basic(size);
+      case "square":
+        return square(size);
+      default:
+        throw new IllegalArgumentException("Invalid game mode: " + parts[0]);
+    }
+  }
+
+  /**
+   * A new started game on this board.
+   *
+   * @return the game.
+   */
+  public IReversi newGame() {
+    IReversi model = newGame.get();
+    model.initializeReversi(size);
+    return model;
+  }
+
+  /**
+   * Name of the variant, like "basic 5".
+   *
+   * @return the name.
+   */
+  public String getName() {
+    return mode + " " + size;
+  }
+
+  @Override
+  public String toString() {
+    return getName();
+  }
+}
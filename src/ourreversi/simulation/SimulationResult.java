@@ -0,0 +1,164 @@
+package ourreversi.simulation;
+
+/**
+ * Represent the result of a batch of games between two players, first and second:
+ * how many games each won, the draws, and how fast the games were played.
+ * Rates come with a 95% confidence interval (Wilson score interval).
+ */
+public final class SimulationResult {
+
+  // z of a 95% confidence interval.
+  private static final double Z = 1.959963984540054;
+
+  private final long games;
+  private final long firstWins;
+  private final long secondWins;
+  private final long draws;
+  private final long elapsedNanos;
+
+  /**
+   * Construct the result.
+   *
+   * @param firstWins    Games won by the first player.
+   * @param secondWins   Games won by the second player.
+   * @param draws        Games drawn.
+   * @param elapsedNanos Wall clock time of all the games, in nanoseconds.
+   */
+  public SimulationResult(long firstWins, long secondWins, long draws, long elapsedNanos) {
+    this.games = firstWins + secondWins + draws;
+    this.firstWins = firstWins;
+    this.secondWins = secondWins;
+    this.draws = draws;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Number of games played.
+   *
+   * @return long
+   */
+  public long getGames() {
+    return this.games;
+  }
+
+  /**
+   * Number of games won by the first player.
+   *
+   * @return long
+   */
+  public long getFirstWins() {
+    return this.firstWins;
+  }
+
+  /**
+   * Number of games won by the second player.
+   *
+   * @return long
+   */
+  public long getSecondWins() {
+    return this.secondWins;
+  }
+
+  /**
+   * Number of games drawn.
+   *
+   * @return long
+   */
+  public long getDraws() {
+    return this.draws;
+  }
+
+  /**
+   * Wall clock time of all the games, in nanoseconds.
+   *
+   * @return long
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Games played per second.
+   *
+   * @return double, 0 if no time passed.
+   */
+  public double getGamesPerSecond() {
+    return this.elapsedNanos == 0 ? 0 : this.games * 1e9 / this.elapsedNanos;
+  }
+
+  /**
+   * Rate of games won by the first player.
+   *
+   * @return the rate from 0 to 1, 0 if no game was played.
+   */
+  public double getFirstWinRate() {
+    return rate(this.firstWins);
+  }
+
+  /**
+   * Rate of games won by the second player.
+   *
+   * @return the rate from 0 to 1, 0 if no game was played.
+   */
+  public double getSecondWinRate() {
+    return rate(this.secondWins);
+  }
+
+  /**
+   * Rate of games drawn.
+   *
+   * @return the rate from 0 to 1, 0 if no game was played.
+   */
+  public double getDrawRate() {
+    return rate(this.draws);
+  }
+
+  /**
+   * 95% confidence interval of the win rate of the first player.
+   *
+   * @return {low, high}
+   */
+  public double[] getFirstWinInterval() {
+    return interval(this.firstWins);
+  }
+
+  /**
+   * 95% confidence interval of the win rate of the second player.
+   *
+   * @return {low, high}
+   */
+  public double[] getSecondWinInterval() {
+    return interval(this.secondWins);
+  }
+
+  private double rate(long count) {
+    return this.games == 0 ? 0 : (double) count / this.games;
+  }
+
+  // Wilson score interval of count successes out of games.
+  private double[] interval(long count) {
+    if (this.games == 0) {
+      return new double[] {0, 1};
+    }
+    double n = this.games;
+    double p = count / n;
+    double denominator = 1 + Z * Z / n;
+    double center = (p + Z * Z / (2 * n)) / denominator;
+    double margin = Z * Math.sqrt(p * (1 - p) / n + Z * Z / (4 * n * n)) / denominator;
+    return new double[] {Math.max(0, center - margin), Math.min(1, center + margin)};
+  }
+
+  @Override
+  public String toString() {
+    double[] first = getFirstWinInterval();
+    double[] second = getSecondWinInterval();
+    return String.format("%d games, %.1f games/s%n"
+                    + "first  wins %d (%.2f%%, 95%% CI %.2f%% - %.2f%%)%n"
+                    + "second wins %d (%.2f%%, 95%% CI %.2f%% - %.2f%%)%n"
+                    + "draws       %d (%.2f%%)",
+            this.games, getGamesPerSecond(),
+            this.firstWins, 100 * getFirstWinRate(), 100 * first[0], 100 * first[1],
+            this.secondWins, 100 * getSecondWinRate(), 100 * second[0], 100 * second[1],
+            this.draws, 100 * getDrawRate());
+  }
+}
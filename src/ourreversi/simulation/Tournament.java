@@ -0,0 +1,283 @@
+package ourreversi.simulation;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import ourreversi.ReversiCreator;
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.model.IPlayer;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.UndoRecord;
+
+/**
+ * Represent a round-robin tournament of computer players on several boards.
+ * Every pair of players plays the same number of games on every board, swapping colors
+ * every game: the player first in the roster is black in even games. Games are played
+ * headless like in BatchSimulator, on a fork/join pool of a bounded number of threads
+ * which steal games from each other, so a long board does not leave threads idle.
+ * Every game is written to the output as soon as it is over, so a tournament stopped
+ * half way still has the games it played; the Elo ratings come at the end.
+ * Game i of the tournament always uses the same random numbers, whatever the number of
+ * threads, but the games are written in the order they finish.
+ */
+public final class Tournament {
+
+  /**
+   * Represent the format of the output: one line per game in CSV, or a JSON array of one
+   * object per game.
+   */
+  public enum Format {
+    CSV, JSON
+  }
+
+  // Games per task before a task stops splitting.
+  private static final int GAMES_PER_TASK = 1;
+
+  private final List<ReversiCreator.GameType> roster;
+  private final List<BoardVariant> variants;
+  private final int gamesPerPairing;
+  private final int randomPlies;
+  private final long seed;
+  // Players of each roster entry: index 0 black, 1 white.
+  private final IPlayer[][] players;
+  // Every pair of roster indices, the first one smaller.
+  private final int[][] pairings;
+
+  /**
+   * Construct the tournament.
+   *
+   * @param roster          The players, computer players only, each once.
+   * @param variants        The boards every pair of players plays on.
+   * @param gamesPerPairing Number of games of every pair of players on every board.
+   * @param randomPlies     Number of random moves at the start of every game.
+   * @param seed            Seed of the random moves.
+   * @throws IllegalArgumentException if a player is human or in the roster twice, there are
+   *                                  fewer than two players or no board, or a number is
+   *                                  negative.
+   */
+  public Tournament(List<ReversiCreator.GameType> roster, List<BoardVariant> variants,
+                    int gamesPerPairing, int randomPlies, long seed) {
+    if (roster.size() < 2 || variants.isEmpty()) {
+      throw new IllegalArgumentException("Need two players and a board for a tournament.");
+    }
+    if (roster.contains(ReversiCreator.GameType.HUMAN)) {
+      throw new IllegalArgumentException("Human players cannot play headless.");
+    }
+    if (new HashSet<>(roster).size() != roster.size()) {
+      throw new IllegalArgumentException("A player is in the roster twice.");
+    }
+    if (gamesPerPairing < 0 || randomPlies < 0) {
+      throw new IllegalArgumentException("Games and random plies cannot be negative.");
+    }
+    this.roster = Collections.unmodifiableList(new ArrayList<>(roster));
+    this.variants = Collections.unmodifiableList(new ArrayList<>(variants));
+    this.gamesPerPairing = gamesPerPairing;
+    this.randomPlies = randomPlies;
+    this.seed = seed;
+    this.players = new IPlayer[roster.size()][];
+    for (int i = 0; i < roster.size(); i++) {
+      this.players[i] = new IPlayer[] {
+          ReversiCreator.createPlayer(roster.get(i), PlayerIdentity.BLACKPLAYER),
+          ReversiCreator.createPlayer(roster.get(i), PlayerIdentity.WHITEPLAYER)};
+    }
+    List<int[]> pairs = new ArrayList<>();
+    for (int i = 0; i < roster.size(); i++) {
+      for (int j = i + 1; j < roster.size(); j++) {
+        pairs.add(new int[] {i, j});
+      }
+    }
+    this.pairings = pairs.toArray(new int[0][]);
+  }
+
+  /**
+   * Number of games of the whole tournament.
+   *
+   * @return long
+   */
+  public long getGames() {
+    return (long) variants.size() * pairings.length * gamesPerPairing;
+  }
+
+  /**
+   * Play every game on the given number of threads, writing each game to the output.
+   *
+   * @param threads Number of threads playing.
+   * @param output  File the games are written to, replaced if it exists.
+   * @param format  Format of the file.
+   * @return the points and the ratings of the players.
+   * @throws IOException              if the output cannot be written.
+   * @throws IllegalArgumentException if threads is not positive.
+   */
+  public TournamentResult run(int threads, Path output, Format format) throws IOException {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Need threads to play the games.");
+    }
+    long start = System.nanoTime();
+    try (Writer writer = Files.newBufferedWriter(output)) {
+      Recorder recorder = new Recorder(writer, format);
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      try {
+        pool.invoke(new Games(0, getGames(), recorder));
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      } finally {
+        pool.shutdownNow();
+      }
+      recorder.finish();
+      return new TournamentResult(roster, recorder.points, recorder.games,
+              System.nanoTime() - start);
+    }
+  }
+
+  /**
+   * Represent the task playing games [from, to) of the tournament, split in halves until
+   * small enough so idle threads can steal the other half.
+   */
+  private final class Games extends RecursiveAction {
+
+    private final long from;
+    private final long to;
+    private final Recorder recorder;
+
+    private Games(long from, long to, Recorder recorder) {
+      this.from = from;
+      this.to = to;
+      this.recorder = recorder;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= GAMES_PER_TASK) {
+        UndoRecord undo = new UndoRecord();
+        for (long game = from; game < to; game++) {
+          playGame(game, undo, recorder);
+        }
+        return;
+      }
+      long middle = (from + to) >>> 1;
+      invokeAll(new Games(from, middle, recorder), new Games(middle, to, recorder));
+    }
+  }
+
+  // Play game number game of the tournament and record it.
+  private void playGame(long game, UndoRecord undo, Recorder recorder) {
+    long perVariant = (long) pairings.length * gamesPerPairing;
+    BoardVariant variant = variants.get((int) (game / perVariant));
+    long inVariant = game % perVariant;
+    int[] pairing = pairings[(int) (inVariant / gamesPerPairing)];
+    boolean swapped = inVariant % gamesPerPairing % 2 == 1;
+    int black = swapped ? pairing[1] : pairing[0];
+    int white = swapped ? pairing[0] : pairing[1];
+    IReversi model = variant.newGame();
+    int difference = BatchSimulator.playGame(model, players[black][0], players[white][1],
+            randomPlies, new SplittableRandom(seed + game), undo);
+    int blackChess = 0;
+    for (ICell c : model.getAllCells()) {
+      blackChess += c.getCellStatus() == CellStatus.BLACK ? 1 : 0;
+    }
+    recorder.record(variant, black, white, blackChess, blackChess - difference);
+  }
+
+  /**
+   * Represent the output and the points so far, shared by all the threads.
+   */
+  private final class Recorder {
+
+    private final Writer writer;
+    private final Format format;
+    // points[i][j] is what roster player i scored against player j, 1 a win, 0.5 a draw.
+    private final double[][] points = new double[roster.size()][roster.size()];
+    private final long[][] games = new long[roster.size()][roster.size()];
+    private boolean first = true;
+
+    private Recorder(Writer writer, Format format) throws IOException {
+      this.writer = writer;
+      this.format = format;
+      if (format == Format.CSV) {
+        writer.write("variant,black,white,black_chess,white_chess,winner\n");
+      } else {
+        writer.write("[\n");
+      }
+      writer.flush();
+    }
+
+    private synchronized void record(BoardVariant variant, int black, int white,
+                                     int blackChess, int whiteChess) {
+      String winner = blackChess > whiteChess ? "black"
+              : blackChess < whiteChess ? "white" : "draw";
+      double blackPoints = blackChess > whiteChess ? 1 : blackChess < whiteChess ? 0 : 0.5;
+      points[black][white] += blackPoints;
+      points[white][black] += 1 - blackPoints;
+      games[black][white]++;
+      games[white][black]++;
+      try {
+        if (format == Format.CSV) {
+          writer.write(String.format("%s,%s,%s,%d,%d,%s%n", variant, roster.get(black),
+                  roster.get(white), blackChess, whiteChess, winner));
+        } else {
+          writer.write(String.format("%s  {\"variant\": \"%s\", \"black\": \"%s\", "
+                          + "\"white\": \"%s\", \"blackChess\": %d, \"whiteChess\": %d, "
+                          + "\"winner\": \"%s\"}", first ? "" : ",\n", variant,
+                  roster.get(black), roster.get(white), blackChess, whiteChess, winner));
+        }
+        first = false;
+        writer.flush();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    private synchronized void finish() throws IOException {
+      if (format == Format.JSON) {
+        writer.write(first ? "]\n" : "\n]\n");
+      }
+      writer.flush();
+    }
+  }
+
+  /**
+   * The runner of a tournament, prints the ratings when all the games are played.
+   * Takes 6 arguments maximum.
+   * - Players, separated by commas (Default: easy,medium,hard,otherany,othermax)
+   * - Boards, mode:size separated by commas (Default: basic:4,basic:5,square:4,square:6)
+   * - Games of every pair on every board (Default: 20)
+   * - Output file, .json for JSON, CSV otherwise (Default: tournament.csv)
+   * - Number of threads (Default: number of processors)
+   * - Random plies at the start of every game (Default: 4)
+   */
+  public static void main(String[] args) throws IOException {
+    List<ReversiCreator.GameType> roster = new ArrayList<>();
+    for (String player : (args.length > 0 ? args[0]
+            : "easy,medium,hard,otherany,othermax").split(",")) {
+      roster.add(ReversiCreator.GameType.valueOf(player.trim().toUpperCase()));
+    }
+    List<BoardVariant> variants = new ArrayList<>();
+    for (String variant : (args.length > 1 ? args[1]
+            : "basic:4,basic:5,square:4,square:6").split(",")) {
+      variants.add(BoardVariant.parse(variant.trim()));
+    }
+    int games = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+    Path output = Path.of(args.length > 3 ? args[3] : "tournament.csv");
+    int threads = args.length > 4 ? Integer.parseInt(args[4])
+            : Runtime.getRuntime().availableProcessors();
+    int randomPlies = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+
+    Format format = output.toString().toLowerCase().endsWith(".json")
+            ? Format.JSON : Format.CSV;
+    TournamentResult result = new Tournament(roster, variants, games, randomPlies, 0)
+            .run(threads, output, format);
+    System.out.print(result);
+  }
+}
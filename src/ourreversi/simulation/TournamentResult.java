@@ -0,0 +1,168 @@
+package ourreversi.simulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import ourreversi.ReversiCreator;
+
+/**
+ * Represent the result of a round-robin tournament: the points of every player against
+ * every other (1 a win, 0.5 a draw) and the Elo rating of every player.
+ * Ratings are fitted to all the games at once (Bradley-Terry maximum likelihood), so they
+ * do not depend on the order the games finished in. Every pair of players gets one more
+ * draw than they played, so a player who won or lost everything still has a finite rating.
+ * The average rating is 1500.
+ */
+public final class TournamentResult {
+
+  private static final int ITERATIONS = 10000;
+  private static final double PRECISION = 1e-10;
+
+  private final List<ReversiCreator.GameType> players;
+  private final double[][] points;
+  private final long[][] games;
+  private final double[] ratings;
+  private final long elapsedNanos;
+
+  /**
+   * Construct the result.
+   *
+   * @param players      The players of the tournament.
+   * @param points       points[i][j] is what player i scored against player j.
+   * @param games        games[i][j] is the number of games between player i and j.
+   * @param elapsedNanos Wall clock time of the tournament, in nanoseconds.
+   */
+  TournamentResult(List<ReversiCreator.GameType> players, double[][] points, long[][] games,
+                   long elapsedNanos) {
+    this.players = Collections.unmodifiableList(new ArrayList<>(players));
+    this.points = points;
+    this.games = games;
+    this.ratings = eloOf(points, games);
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * The players of the tournament.
+   *
+   * @return the players, not modifiable.
+   */
+  public List<ReversiCreator.GameType> getPlayers() {
+    return this.players;
+  }
+
+  /**
+   * The Elo rating of the player.
+   *
+   * @param player A player of the tournament.
+   * @return the rating.
+   * @throws IllegalArgumentException if the player did not play.
+   */
+  public double getRating(ReversiCreator.GameType player) {
+    return this.ratings[indexOf(player)];
+  }
+
+  /**
+   * Points of the player, 1 a win and 0.5 a draw.
+   *
+   * @param player A player of the tournament.
+   * @return the points.
+   * @throws IllegalArgumentException if the player did not play.
+   */
+  public double getPoints(ReversiCreator.GameType player) {
+    double total = 0;
+    for (double p : this.points[indexOf(player)]) {
+      total += p;
+    }
+    return total;
+  }
+
+  /**
+   * Number of games played by all the players.
+   *
+   * @return long
+   */
+  public long getGames() {
+    long total = 0;
+    for (int i = 0; i < this.games.length; i++) {
+      for (int j = i + 1; j < this.games.length; j++) {
+        total += this.games[i][j];
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Wall clock time of the tournament, in nanoseconds.
+   *
+   * @return long
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  private int indexOf(ReversiCreator.GameType player) {
+    int index = this.players.indexOf(player);
+    if (index < 0) {
+      throw new IllegalArgumentException("Not a player of the tournament: " + player);
+    }
+    return index;
+  }
+
+  // Fit the strength of every player to the points with the minorization-maximization
+  // algorithm of Bradley-Terry, then write it on the Elo scale.
+  private static double[] eloOf(double[][] points, long[][] games) {
+    int n = points.length;
+    double[] strength = new double[n];
+    Arrays.fill(strength, 1);
+    for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+      double change = 0;
+      double logSum = 0;
+      double[] next = new double[n];
+      for (int i = 0; i < n; i++) {
+        double won = 0;
+        double expected = 0;
+        for (int j = 0; j < n; j++) {
+          if (i != j) {
+            won += points[i][j] + 0.5;
+            expected += (games[i][j] + 1) / (strength[i] + strength[j]);
+          }
+        }
+        next[i] = expected == 0 ? 1 : won / expected;
+        logSum += Math.log(next[i]);
+      }
+      double mean = Math.exp(logSum / n);
+      for (int i = 0; i < n; i++) {
+        next[i] /= mean;
+        change = Math.max(change, Math.abs(next[i] - strength[i]));
+      }
+      strength = next;
+      if (change < PRECISION) {
+        break;
+      }
+    }
+    double[] elo = new double[n];
+    for (int i = 0; i < n; i++) {
+      elo[i] = 1500 + 400 * Math.log10(strength[i]);
+    }
+    return elo;
+  }
+
+  @Override
+  public String toString() {
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < this.players.size(); i++) {
+      order.add(i);
+    }
+    order.sort((a, b) -> Double.compare(this.ratings[b], this.ratings[a]));
+    StringBuilder table = new StringBuilder(String.format("%d games in %.1f s%n",
+            getGames(), this.elapsedNanos / 1e9));
+    table.append(String.format("%-10s %8s %8s%n", "player", "elo", "points"));
+    for (int i : order) {
+      table.append(String.format("%-10s %8.1f %8.1f%n", this.players.get(i),
+              this.ratings[i], getPoints(this.players.get(i))));
+    }
+    return table.toString();
+  }
+}
@@ -0,0 +1,423 @@
+package ourreversi.strategy;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.IPlayer;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.UndoRecord;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represent the strategy searching the game tree with negamax alpha-beta.
+ * The search deepens one ply at a time until the time budget is used up
+ * (iterative deepening), and plays the best move of the deepest completed depth.
+ * Searched positions are kept in a transposition table, so a position reached again
+ * by another order of moves, or by the next depth, is not searched again.
+ * Moves are tried in order: the best move of the previous depth first at the root, the
+ * best move found in the table, then by how often a move cut off the search before
+ * (history), then by the weight of the cell.
+ * Once few enough cells are empty, the game is solved to the end by an EndgameSolver
+ * instead, and the move with the best final chess difference is played.
+ * Works on any IReversi, hexagon or square, through makeMove and unmakeMove.
+ * The model given is changed during the search and restored before returning, so it
+ * should be a simulated model, not the one observed by the views.
+ */
+public class AlphaBetaStrategy {
+
+  /**
+   * Number of empty cells from which the game is solved to the end, when none is given.
+   */
+  public static final int DEFAULT_ENDGAME_EMPTIES = 14;
+
+  private static final int INFINITY = Integer.MAX_VALUE - 1;
+  // Check the clock once every this many nodes (must be a power of two).
+  private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+  private final long timeBudgetMillis;
+  private final int maxDepth;
+  private final TranspositionTable table;
+  private final int endgameEmpties;
+  // Created on the first endgame searched.
+  private EndgameSolver solver;
+
+  // Search state, only valid during a search.
+  private IReversi model;
+  private PositionEvaluator evaluator;
+  private PlayerIdentity rootPlayer;
+  private int[][] moves;
+  private UndoRecord[] undo;
+  private int[] history;
+  private long nodes;
+  private long deadline;
+  private AtomicBoolean stop;
+  private boolean aborted;
+  private SearchResult lastResult;
+
+  /**
+   * Construct the strategy with a time budget of one second and no depth limit.
+   */
+  public AlphaBetaStrategy() {
+    this(1000, 64);
+  }
+
+  /**
+   * Construct the strategy with a transposition table of the default size.
+   *
+   * @param timeBudgetMillis Wall clock time allowed for one search, in milliseconds.
+   * @param maxDepth         The deepest depth to search.
+   * @throws IllegalArgumentException if the time budget or the depth is not positive.
+   */
+  public AlphaBetaStrategy(long timeBudgetMillis, int maxDepth) {
+    this(timeBudgetMillis, maxDepth, new TranspositionTable());
+  }
+
+  /**
+   * Construct the strategy.
+   *
+   * @param timeBudgetMillis Wall clock time allowed for one search, in milliseconds.
+   * @param maxDepth         The deepest depth to search.
+   * @param table            The transposition table to keep searched positions in.
+   * @throws IllegalArgumentException if the time budget or the depth is not positive.
+   * @throws NullPointerException     if the table is null.
+   */
+  public AlphaBetaStrategy(long timeBudgetMillis, int maxDepth, TranspositionTable table) {
+    this(timeBudgetMillis, maxDepth, table, DEFAULT_ENDGAME_EMPTIES);
+  }
+
+  /**
+   * Construct the strategy.
+   *
+   * @param timeBudgetMillis Wall clock time allowed for one search, in milliseconds.
+   * @param maxDepth         The deepest depth to search.
+   * @param table            The transposition table to keep searched positions in.
+   * @param endgameEmpties   Solve the game to the end once this many cells or fewer are
+   *                         empty, 0 to never solve. The solver does not stop at the time
+   *                         budget, 20 empties take seconds on a board of 8 x 8.
+   * @throws IllegalArgumentException if the time budget or the depth is not positive, or
+   *                                  endgameEmpties is negative.
+   * @throws NullPointerException     if the table is null.
+   */
+  public AlphaBetaStrategy(long timeBudgetMillis, int maxDepth, TranspositionTable table,
+                           int endgameEmpties) {
+    if (timeBudgetMillis <= 0 || maxDepth <= 0) {
+      throw new IllegalArgumentException("Time budget and depth need to be positive.");
+    }
+    if (endgameEmpties < 0) {
+      throw new IllegalArgumentException("Endgame empties cannot be negative.");
+    }
+    this.timeBudgetMillis = timeBudgetMillis;
+    this.maxDepth = maxDepth;
+    this.table = requireNonNull(table);
+    this.endgameEmpties = endgameEmpties;
+  }
+
+  /**
+   * Choose the cell for the player to place the chess on.
+   *
+   * @param model  A simulated model of the game.
+   * @param player The player to move.
+   * @return the position of the best move, or null if the player has to pass.
+   */
+  public ICellPosition chooseCell(IReversi model, IPlayer player) {
+    return search(model, player.getPlayerIdentity()).getBestMove();
+  }
+
+  /**
+   * Search the best move for the player.
+   * Depth 1 is always searched completely, whatever the time budget.
+   *
+   * @param model  A simulated model of the game, restored before returning.
+   * @param player The player to move.
+   * @return the result of the search.
+   * @throws IllegalArgumentException if the board has more than TranspositionTable.MAX_CELLS
+   *                                  cells.
+   */
+  public SearchResult search(IReversi model, PlayerIdentity player) {
+    if (solvesEndgame(model)) {
+      return solveEndgame(model, player, System.nanoTime());
+    }
+    table.newSearch();
+    return searchRoot(model, player, System.nanoTime(), 0, null);
+  }
+
+  /**
+   * Is the game solved to the end instead of searched, as few enough cells are empty?
+   *
+   * @param model A started game.
+   * @return true if search solves the game.
+   */
+  boolean solvesEndgame(IReversi model) {
+    if (endgameEmpties == 0) {
+      return false;
+    }
+    int empty = 0;
+    for (ICell c : model.getAllCells()) {
+      if (c.getCellStatus() == CellStatus.EMPTY) {
+        empty++;
+      }
+    }
+    return empty <= endgameEmpties;
+  }
+
+  /**
+   * Solve the game to the end and play the move with the best final chess difference.
+   * The score is on the scale of the search: a won game is worth more than any position.
+   *
+   * @param model  A started game, not changed.
+   * @param player The player to move.
+   * @param start  System.nanoTime() when the search started.
+   * @return the result of the solver.
+   */
+  SearchResult solveEndgame(IReversi model, PlayerIdentity player, long start) {
+    if (solver == null) {
+      solver = new EndgameSolver();
+    }
+    SearchResult solved = solver.solve(model, player, true);
+    int difference = solved.getScore();
+    int score = difference > 0 ? PositionEvaluator.WIN + difference
+            : difference < 0 ? -PositionEvaluator.WIN + difference : 0;
+    this.lastResult = new SearchResult(solved.getBestMove(), score, solved.getDepth(),
+            solved.getNodes(), System.nanoTime() - start);
+    return this.lastResult;
+  }
+
+  /**
+   * Search the best move for the player, as one of the threads of a parallel search.
+   * Thread 0 is the main thread, it searches every depth from 1 and always completes
+   * depth 1. The helper threads start from depth 2 on every other thread, and try the
+   * root moves in a rotated order, so the threads spread over different parts of the
+   * tree and share what they find through the table.
+   *
+   * @param model  A simulated model of the game, only used by this thread.
+   * @param player The player to move.
+   * @param start  System.nanoTime() when the search started.
+   * @param thread Number of this thread in the search, 0 for the main thread.
+   * @param stop   Set when the other threads should stop, or null.
+   * @return the result of the search of this thread.
+   * @throws IllegalArgumentException if the board has more than TranspositionTable.MAX_CELLS
+   *                                  cells, checked before the model is touched.
+   */
+  SearchResult searchRoot(IReversi model, PlayerIdentity player, long start, int thread,
+                          AtomicBoolean stop) {
+    List<ICell> cells = model.getAllCells();
+    if (cells.size() > TranspositionTable.MAX_CELLS) {
+      throw new IllegalArgumentException("The board is too big to search, it has more than "
+              + TranspositionTable.MAX_CELLS + " cells.");
+    }
+    PlayerIdentity modelPlayer = model.getCurrentPlayer();
+    model.setCurrentPlayerIdentity(player);
+    this.model = model;
+    this.evaluator = new PositionEvaluator(model);
+    this.rootPlayer = player;
+    this.moves = new int[maxDepth + 1][cells.size()];
+    this.undo = new UndoRecord[maxDepth + 1];
+    for (int ply = 0; ply <= maxDepth; ply++) {
+      undo[ply] = new UndoRecord();
+    }
+    this.history = new int[cells.size()];
+    this.nodes = 0;
+    this.deadline = thread == 0 ? Long.MAX_VALUE : start + timeBudgetMillis * 1_000_000L;
+    this.stop = stop;
+    this.aborted = false;
+
+    int[] rootMoves = moves[0];
+    int count = model.generateMoves(rootMoves);
+    long rootEntry = table.probe(model.getZobristKey());
+    if (rootEntry != 0) {
+      moveFirst(rootMoves, count, TranspositionTable.moveOf(rootEntry));
+    }
+    if (thread > 0 && count > 0) {
+      rotate(rootMoves, count, thread % count);
+    }
+    int bestMove = -1;
+    int bestScore = 0;
+    int reachedDepth = 0;
+    if (count > 0) {
+      bestMove = rootMoves[0];
+      int empty = evaluator.countEmpty();
+      for (int depth = 1 + (thread & 1); depth <= maxDepth; depth++) {
+        int alpha = -INFINITY;
+        int iterationBest = -1;
+        for (int i = 0; i < count; i++) {
+          model.makeMove(rootMoves[i], undo[0]);
+          int score = -negamax(depth - 1, 1, -INFINITY, -alpha, false);
+          model.unmakeMove(undo[0]);
+          if (aborted) {
+            break;
+          }
+          if (score > alpha) {
+            alpha = score;
+            iterationBest = i;
+          }
+        }
+        if (aborted) {
+          break;
+        }
+        bestMove = rootMoves[iterationBest];
+        bestScore = alpha;
+        reachedDepth = depth;
+        table.store(model.getZobristKey(), depth, TranspositionTable.EXACT, alpha, bestMove);
+        moveToFront(rootMoves, iterationBest);
+        /* once the whole game is searched, deeper searches give the same result.*/
+        if (depth >= empty) {
+          break;
+        }
+        if (depth == 1) {
+          this.deadline = start + timeBudgetMillis * 1_000_000L;
+        }
+      }
+    }
+
+    model.setCurrentPlayerIdentity(modelPlayer);
+    this.lastResult = new SearchResult(bestMove < 0 ? null : cells.get(bestMove).getPosition(),
+            bestScore, reachedDepth, nodes, System.nanoTime() - start);
+    this.model = null;
+    this.evaluator = null;
+    this.stop = null;
+    return this.lastResult;
+  }
+
+  /**
+   * The result of the last search, to report the depth reached and the nodes/second.
+   *
+   * @return the last result, or null if nothing has been searched yet.
+   */
+  public SearchResult getLastResult() {
+    return this.lastResult;
+  }
+
+  /**
+   * Negamax alpha-beta search from the position of the model.
+   *
+   * @param depth  Remaining depth, a pass also uses one ply.
+   * @param ply    Distance from the root.
+   * @param passed The previous player passed?
+   * @return the score for the player to move.
+   */
+  private int negamax(int depth, int ply, int alpha, int beta, boolean passed) {
+    nodes++;
+    if ((nodes & (CLOCK_CHECK_INTERVAL - 1)) == 0
+            && (System.nanoTime() > deadline || stop != null && stop.get())) {
+      aborted = true;
+    }
+    if (aborted) {
+      return 0;
+    }
+    PlayerIdentity player = (ply & 1) == 0 ? rootPlayer : opponentOf(rootPlayer);
+    if (depth == 0) {
+      return evaluator.evaluate(player);
+    }
+    long key = model.getZobristKey();
+    long entry = table.probe(key);
+    if (entry != 0 && TranspositionTable.depthOf(entry) >= depth) {
+      int score = TranspositionTable.scoreOf(entry);
+      int bound = TranspositionTable.boundOf(entry);
+      if (bound == TranspositionTable.EXACT
+              || bound == TranspositionTable.LOWER_BOUND && score >= beta
+              || bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+        return score;
+      }
+    }
+    int[] plyMoves = moves[ply];
+    int count = model.generateMoves(plyMoves);
+    if (count == 0) {
+      /* both players have to pass, the game is over.*/
+      if (passed) {
+        return evaluator.finalScore(player);
+      }
+      model.makePass(undo[ply]);
+      int score = -negamax(depth - 1, ply + 1, -beta, -alpha, true);
+      model.unmakeMove(undo[ply]);
+      return score;
+    }
+
+    orderMoves(plyMoves, count);
+    if (entry != 0) {
+      moveFirst(plyMoves, count, TranspositionTable.moveOf(entry));
+    }
+    int alphaBefore = alpha;
+    int best = -INFINITY;
+    int bestMove = -1;
+    for (int i = 0; i < count; i++) {
+      model.makeMove(plyMoves[i], undo[ply]);
+      int score = -negamax(depth - 1, ply + 1, -beta, -alpha, false);
+      model.unmakeMove(undo[ply]);
+      if (aborted) {
+        return 0;
+      }
+      if (score > best) {
+        best = score;
+        bestMove = plyMoves[i];
+        if (score > alpha) {
+          alpha = score;
+          if (alpha >= beta) {
+            history[plyMoves[i]] += depth * depth;
+            break;
+          }
+        }
+      }
+    }
+    int bound = best <= alphaBefore ? TranspositionTable.UPPER_BOUND
+            : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+    table.store(key, depth, bound, best, bestMove);
+    return best;
+  }
+
+  // Sort the moves by history, then by the weight of the cell, best first.
+  private void orderMoves(int[] plyMoves, int count) {
+    for (int i = 1; i < count; i++) {
+      int move = plyMoves[i];
+      int j = i - 1;
+      while (j >= 0 && before(move, plyMoves[j])) {
+        plyMoves[j + 1] = plyMoves[j];
+        j--;
+      }
+      plyMoves[j + 1] = move;
+    }
+  }
+
+  // Should move a be tried before move b?
+  private boolean before(int a, int b) {
+    if (history[a] != history[b]) {
+      return history[a] > history[b];
+    }
+    return evaluator.weightOf(a) > evaluator.weightOf(b);
+  }
+
+  // Move the entry at the given index to the front, keeping the order of the others.
+  private static void moveToFront(int[] array, int index) {
+    int value = array[index];
+    System.arraycopy(array, 0, array, 1, index);
+    array[0] = value;
+  }
+
+  // Move the given move to the front if it is one of the moves.
+  private static void moveFirst(int[] plyMoves, int count, int move) {
+    for (int i = 0; i < count; i++) {
+      if (plyMoves[i] == move) {
+        moveToFront(plyMoves, i);
+        return;
+      }
+    }
+  }
+
+  // Rotate the first count moves to the left by the given distance.
+  private static void rotate(int[] plyMoves, int count, int distance) {
+    int[] rotated = new int[count];
+    for (int i = 0; i < count; i++) {
+      rotated[i] = plyMoves[(i + distance) % count];
+    }
+    System.arraycopy(rotated, 0, plyMoves, 0, count);
+  }
+
+  private static PlayerIdentity opponentOf(PlayerIdentity player) {
+    return player == PlayerIdentity.BLACKPLAYER
+            ? PlayerIdentity.WHITEPLAYER : PlayerIdentity.BLACKPLAYER;
+  }
+}
@@ -0,0 +1,534 @@
+package ourreversi.strategy;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represent the exact solver of the end of a game: it searches every move until the game
+ * is over, so the result is what the player gets with perfect play of both players.
+ * Two modes: exact, the final chess difference, and win/loss/draw (WLD), only the sign of
+ * it, which is faster as the search only needs to tell a win from a loss.
+ * The board is copied into arrays (chess, empties, neighbors of each cell in every
+ * direction), so it solves any IReversi, hexagon or square, without changing it.
+ * Moves are ordered by:
+ * - the move of a previous search of the position, kept in a transposition table,
+ * - fastest first: the move leaving the opponent the fewest moves, corners preferred,
+ * - parity: moves in a region of the board with an odd number of empties first.
+ * The board is split into regions around its corners (4 on a square, 6 on a hexagon).
+ * With few empties left the table and fastest first cost more than they save, so a
+ * simpler search only orders by parity, and the last empty is counted without playing.
+ * The final chess difference does not count the empty cells, like getWinner.
+ */
+public final class EndgameSolver {
+
+  /**
+   * Number of empties from which the small search is used, when none is given.
+   */
+  public static final int DEFAULT_SMALL_EMPTIES = 6;
+
+  private static final int EMPTY = 0;
+  private static final int BLACK = 1;
+  private static final int WHITE = 2;
+  private static final int INFINITY = 1 << 20;
+  private static final long SEED = 0x5EED_E4D6_A3E5L;
+
+  private final TranspositionTable table;
+  private final int smallEmpties;
+
+  // Board being solved, only valid during a solve.
+  private int directions;
+  // Neighbor of cell i in direction d at i * directions + d, -1 if off the board.
+  private int[] neighbors;
+  // Region of each cell, and which regions have an odd number of empties (one bit each).
+  private int[] regions;
+  private int parity;
+  private boolean[] corners;
+  private byte[] board;
+  // Linked list of the empties, the head is the entry after the last cell.
+  private int[] next;
+  private int[] previous;
+  private int head;
+  private int[] flipped;
+  private int flippedTop;
+  private long[] keys;
+  private long[] flipKeys;
+  private long whiteToMove;
+  private long key;
+  private int[][] moves;
+  private int[][] sortKeys;
+  private long nodes;
+
+  /**
+   * Construct the solver with a transposition table of the default size.
+   */
+  public EndgameSolver() {
+    this(new TranspositionTable(), DEFAULT_SMALL_EMPTIES);
+  }
+
+  /**
+   * Construct the solver.
+   *
+   * @param table        The transposition table to keep solved positions in, not shared
+   *                     with other kinds of search as the scores are chess differences.
+   * @param smallEmpties Number of empties from which the small search is used.
+   * @throws IllegalArgumentException if smallEmpties is less than 1.
+   * @throws NullPointerException     if the table is null.
+   */
+  public EndgameSolver(TranspositionTable table, int smallEmpties) {
+    if (smallEmpties < 1) {
+      throw new IllegalArgumentException("Small search needs at least 1 empty.");
+    }
+    this.table = requireNonNull(table);
+    this.smallEmpties = smallEmpties;
+  }
+
+  /**
+   * Solve the game for the player to move.
+   *
+   * @param model  A started game, not changed.
+   * @param player The player to move.
+   * @param exact  Find the exact chess difference, or only win/loss/draw?
+   * @return the result: the best move (null if the player has to pass), the score (the
+   *         final chess difference for the player, or -1, 0, 1 for win/loss/draw), the
+   *         depth (number of empties), and the nodes searched.
+   * @throws IllegalArgumentException if the board has more than TranspositionTable.MAX_CELLS
+   *                                  cells.
+   */
+  public SearchResult solve(IReversi model, PlayerIdentity player, boolean exact) {
+    long start = System.nanoTime();
+    List<ICell> cells = model.getAllCells();
+    if (cells.size() > TranspositionTable.MAX_CELLS) {
+      throw new IllegalArgumentException("The board is too big to solve, it has more than "
+              + TranspositionTable.MAX_CELLS + " cells.");
+    }
+    load(model, cells);
+    table.newSearch();
+    this.nodes = 0;
+
+    int own = player == PlayerIdentity.BLACKPLAYER ? BLACK : WHITE;
+    int opp = BLACK + WHITE - own;
+    int empties = 0;
+    int diff = 0;
+    for (int i = 0; i < board.length; i++) {
+      if (board[i] == EMPTY) {
+        empties++;
+      } else {
+        diff += board[i] == own ? 1 : -1;
+      }
+    }
+    this.moves = new int[empties + 1][];
+    this.sortKeys = new int[empties + 1][];
+    for (int e = smallEmpties + 1; e <= empties; e++) {
+      moves[e] = new int[board.length];
+      sortKeys[e] = new int[board.length];
+    }
+    /* no difference is bigger than the number of cells.*/
+    int alpha = exact ? -board.length : -1;
+    int beta = exact ? board.length : 1;
+
+    int[] rootMoves = new int[board.length];
+    int count = orderedMoves(own, opp, rootMoves, new int[board.length], -1);
+    int best = -INFINITY;
+    int bestMove = -1;
+    if (count == 0) {
+      nodes++;
+      best = empties == 0 ? diff : -solve(opp, own, -beta, -alpha, empties, -diff, true);
+    }
+    for (int i = 0; i < count; i++) {
+      int move = rootMoves[i];
+      int flips = play(move, own, opp);
+      int score = searchChild(own, opp, alpha, beta, empties, diff + 1 + 2 * flips, i == 0);
+      undo(move, opp, flips);
+      if (score > best) {
+        best = score;
+        bestMove = move;
+        if (score > alpha) {
+          alpha = score;
+          if (alpha >= beta) {
+            break;
+          }
+        }
+      }
+    }
+    if (!exact) {
+      best = Integer.signum(best);
+    }
+    this.moves = null;
+    this.sortKeys = null;
+    return new SearchResult(bestMove < 0 ? null : cells.get(bestMove).getPosition(), best,
+            empties, nodes, System.nanoTime() - start);
+  }
+
+  // Copy the board of the model into the arrays.
+  private void load(IReversi model, List<ICell> cells) {
+    int size = cells.size();
+    this.directions = model.getSurroundingCells(cells.get(0)).size();
+    this.neighbors = PlayoutBoard.neighborsOf(model, cells, directions);
+    this.corners = new boolean[size];
+    for (int i = 0; i < size; i++) {
+      int count = 0;
+      for (int d = 0; d < directions; d++) {
+        if (neighbors[i * directions + d] >= 0) {
+          count++;
+        }
+      }
+      corners[i] = count == 3;
+    }
+    this.regions = regionsAroundCorners(size);
+
+    this.board = new byte[size];
+    this.next = new int[size + 1];
+    this.previous = new int[size + 1];
+    this.head = size;
+    this.flipped = new int[size];
+    this.flippedTop = 0;
+    this.keys = keysFor(size);
+    this.flipKeys = new long[size];
+    this.whiteToMove = keys[2 * size];
+    this.key = 0;
+    this.parity = 0;
+    for (int i = 0; i < size; i++) {
+      flipKeys[i] = keys[2 * i] ^ keys[2 * i + 1];
+      CellStatus status = cells.get(i).getCellStatus();
+      if (status != CellStatus.EMPTY) {
+        board[i] = (byte) (status == CellStatus.BLACK ? BLACK : WHITE);
+        key ^= keys[2 * i + board[i] - 1];
+      }
+    }
+
+    /* empties are listed corners first, then cells on the border, then the middle.*/
+    int last = head;
+    for (int pass = 0; pass < 3; pass++) {
+      for (int i = 0; i < size; i++) {
+        if (board[i] != EMPTY || rank(i) != pass) {
+          continue;
+        }
+        next[last] = i;
+        previous[i] = last;
+        last = i;
+        parity ^= 1 << regions[i];
+      }
+    }
+    next[last] = head;
+    previous[head] = last;
+  }
+
+  // 0 for a corner, 1 for the border, 2 for the middle of the board.
+  private int rank(int index) {
+    if (corners[index]) {
+      return 0;
+    }
+    for (int d = 0; d < directions; d++) {
+      if (neighbors[index * directions + d] < 0) {
+        return 1;
+      }
+    }
+    return 2;
+  }
+
+  // Give each cell the region of its nearest corner, counted in steps between neighbors.
+  private int[] regionsAroundCorners(int size) {
+    int[] region = new int[size];
+    Arrays.fill(region, -1);
+    ArrayDeque<Integer> queue = new ArrayDeque<>();
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      if (corners[i]) {
+        region[i] = count++ & 31;
+        queue.add(i);
+      }
+    }
+    while (!queue.isEmpty()) {
+      int cell = queue.poll();
+      for (int d = 0; d < directions; d++) {
+        int neighbor = neighbors[cell * directions + d];
+        if (neighbor >= 0 && region[neighbor] < 0) {
+          region[neighbor] = region[cell];
+          queue.add(neighbor);
+        }
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      region[i] = Math.max(region[i], 0);
+    }
+    return region;
+  }
+
+  /**
+   * Negamax alpha-beta search to the end of the game.
+   *
+   * @param empties Number of empty cells.
+   * @param diff    Chess of own minus chess of opp.
+   * @param passed  The previous player passed?
+   * @return the final chess difference for own, or a bound of it outside alpha..beta.
+   */
+  private int solve(int own, int opp, int alpha, int beta, int empties, int diff,
+                    boolean passed) {
+    if (empties == 0) {
+      nodes++;
+      return diff;
+    }
+    if (empties == 1) {
+      return lastEmpty(own, opp, diff);
+    }
+    if (empties <= smallEmpties) {
+      return solveSmall(own, opp, alpha, beta, empties, diff, passed);
+    }
+    nodes++;
+    long positionKey = own == WHITE ? key ^ whiteToMove : key;
+    long entry = table.probe(positionKey);
+    int tableMove = -1;
+    if (entry != 0) {
+      int score = TranspositionTable.scoreOf(entry);
+      int bound = TranspositionTable.boundOf(entry);
+      if (bound == TranspositionTable.EXACT
+              || bound == TranspositionTable.LOWER_BOUND && score >= beta
+              || bound == TranspositionTable.UPPER_BOUND && score <= alpha) {
+        return score;
+      }
+      tableMove = TranspositionTable.moveOf(entry);
+    }
+
+    int[] plyMoves = moves[empties];
+    int count = orderedMoves(own, opp, plyMoves, sortKeys[empties], tableMove);
+    if (count == 0) {
+      if (passed) {
+        return diff;
+      }
+      return -solve(opp, own, -beta, -alpha, empties, -diff, true);
+    }
+    int alphaBefore = alpha;
+    int best = -INFINITY;
+    int bestMove = -1;
+    for (int i = 0; i < count; i++) {
+      int move = plyMoves[i];
+      int flips = play(move, own, opp);
+      int score = searchChild(own, opp, alpha, beta, empties, diff + 1 + 2 * flips, i == 0);
+      undo(move, opp, flips);
+      if (score > best) {
+        best = score;
+        bestMove = move;
+        if (score > alpha) {
+          alpha = score;
+          if (alpha >= beta) {
+            break;
+          }
+        }
+      }
+    }
+    int bound = best <= alphaBefore ? TranspositionTable.UPPER_BOUND
+            : best >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+    table.store(positionKey, empties, bound, best, bestMove);
+    return best;
+  }
+
+  /* principal variation search: the first move gets the whole window, the others are only
+     tested to be no better than alpha, and searched again if they are.*/
+  private int searchChild(int own, int opp, int alpha, int beta, int empties, int diff,
+                          boolean first) {
+    if (first || beta - alpha <= 1) {
+      return -solve(opp, own, -beta, -alpha, empties - 1, -diff, false);
+    }
+    int score = -solve(opp, own, -alpha - 1, -alpha, empties - 1, -diff, false);
+    if (score > alpha && score < beta) {
+      score = -solve(opp, own, -beta, -score, empties - 1, -diff, false);
+    }
+    return score;
+  }
+
+  // Search with few empties: no table, moves in odd regions first, then the others.
+  private int solveSmall(int own, int opp, int alpha, int beta, int empties, int diff,
+                         boolean passed) {
+    nodes++;
+    int best = -INFINITY;
+    boolean moved = false;
+    for (int odd = 1; odd >= 0; odd--) {
+      for (int move = next[head]; move != head; move = next[move]) {
+        if ((parity >>> regions[move] & 1) != odd) {
+          continue;
+        }
+        int flips = play(move, own, opp);
+        if (flips == 0) {
+          continue;
+        }
+        int score = -solve(opp, own, -beta, -alpha, empties - 1, -(diff + 1 + 2 * flips),
+                false);
+        undo(move, opp, flips);
+        moved = true;
+        if (score > best) {
+          best = score;
+          if (score > alpha) {
+            alpha = score;
+            if (alpha >= beta) {
+              return best;
+            }
+          }
+        }
+      }
+    }
+    if (!moved) {
+      if (passed) {
+        return diff;
+      }
+      return -solve(opp, own, -beta, -alpha, empties, -diff, true);
+    }
+    return best;
+  }
+
+  // Final chess difference with one empty left, counted without playing the move.
+  private int lastEmpty(int own, int opp, int diff) {
+    nodes++;
+    int move = next[head];
+    int flips = countFlips(move, own, opp);
+    if (flips > 0) {
+      return diff + 1 + 2 * flips;
+    }
+    flips = countFlips(move, opp, own);
+    if (flips > 0) {
+      return diff - 1 - 2 * flips;
+    }
+    return diff;
+  }
+
+  // Fill the moves of own, best first, return how many there are.
+  private int orderedMoves(int own, int opp, int[] plyMoves, int[] plyKeys, int first) {
+    int count = 0;
+    for (int move = next[head]; move != head; move = next[move]) {
+      int flips = play(move, own, opp);
+      if (flips == 0) {
+        continue;
+      }
+      /* fastest first: fewer replies is better, then a corner, then an odd region.*/
+      int sortKey = mobility(opp, own) * 4 - (corners[move] ? 2 : 0)
+              + (parity >>> regions[move] & 1);
+      undo(move, opp, flips);
+      if (move == first) {
+        sortKey = Integer.MIN_VALUE;
+      }
+      int j = count - 1;
+      while (j >= 0 && plyKeys[j] > sortKey) {
+        plyMoves[j + 1] = plyMoves[j];
+        plyKeys[j + 1] = plyKeys[j];
+        j--;
+      }
+      plyMoves[j + 1] = move;
+      plyKeys[j + 1] = sortKey;
+      count++;
+    }
+    return count;
+  }
+
+  // Number of moves of own.
+  private int mobility(int own, int opp) {
+    int count = 0;
+    for (int move = next[head]; move != head; move = next[move]) {
+      if (canFlip(move, own, opp)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  // Place own chess on move and flip, return the number flipped (nothing changes if 0).
+  private int play(int move, int own, int opp) {
+    int top = flippedTop;
+    if (flipped.length - top < board.length) {
+      flipped = Arrays.copyOf(flipped, flipped.length * 2);
+    }
+    int base = move * directions;
+    for (int d = 0; d < directions; d++) {
+      int c = neighbors[base + d];
+      while (c >= 0 && board[c] == opp) {
+        c = neighbors[c * directions + d];
+      }
+      if (c < 0 || board[c] != own) {
+        continue;
+      }
+      for (int f = neighbors[base + d]; f != c; f = neighbors[f * directions + d]) {
+        board[f] = (byte) own;
+        key ^= flipKeys[f];
+        flipped[top++] = f;
+      }
+    }
+    int flips = top - flippedTop;
+    if (flips == 0) {
+      return 0;
+    }
+    flippedTop = top;
+    board[move] = (byte) own;
+    key ^= keys[2 * move + own - 1];
+    next[previous[move]] = next[move];
+    previous[next[move]] = previous[move];
+    parity ^= 1 << regions[move];
+    return flips;
+  }
+
+  // Take back the move played by play, opp is the color of the flipped chess.
+  private void undo(int move, int opp, int flips) {
+    for (int i = flippedTop - flips; i < flippedTop; i++) {
+      board[flipped[i]] = (byte) opp;
+      key ^= flipKeys[flipped[i]];
+    }
+    flippedTop -= flips;
+    key ^= keys[2 * move + BLACK + WHITE - opp - 1];
+    board[move] = EMPTY;
+    next[previous[move]] = move;
+    previous[next[move]] = move;
+    parity ^= 1 << regions[move];
+  }
+
+  // Number of chess own would flip on move.
+  private int countFlips(int move, int own, int opp) {
+    int flips = 0;
+    int base = move * directions;
+    for (int d = 0; d < directions; d++) {
+      int c = neighbors[base + d];
+      int row = 0;
+      while (c >= 0 && board[c] == opp) {
+        c = neighbors[c * directions + d];
+        row++;
+      }
+      if (c >= 0 && board[c] == own) {
+        flips += row;
+      }
+    }
+    return flips;
+  }
+
+  // Would own flip anything on move?
+  private boolean canFlip(int move, int own, int opp) {
+    int base = move * directions;
+    for (int d = 0; d < directions; d++) {
+      int c = neighbors[base + d];
+      if (c < 0 || board[c] != opp) {
+        continue;
+      }
+      do {
+        c = neighbors[c * directions + d];
+      } while (c >= 0 && board[c] == opp);
+      if (c >= 0 && board[c] == own) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Random keys of each cell and color, and of white to move (the last one).
+  private static long[] keysFor(int size) {
+    SplittableRandom random = new SplittableRandom(SEED + size);
+    long[] keys = new long[2 * size + 1];
+    for (int i = 0; i < keys.length; i++) {
+      keys[i] = random.nextLong();
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,164 @@
+package ourreversi.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.IPlayer;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+
+/**
+ * Represent the strategy searching with many threads at once (Lazy SMP).
+ * Every thread runs its own alpha-beta search of the same root on its own copy of the
+ * game; they share one transposition table, so what a helper thread finds makes the
+ * main thread faster. The move of the main thread is played, the helpers are stopped as
+ * soon as the main thread is done.
+ * The helper threads are kept in a pool for the life of the strategy, call close when
+ * the strategy is no longer needed.
+ */
+public class LazySmpStrategy implements AutoCloseable {
+
+  private final int threads;
+  private final TranspositionTable table;
+  // Searcher of each thread, 0 is the main thread.
+  private final AlphaBetaStrategy[] searchers;
+  private final ExecutorService helpers;
+  private SearchResult lastResult;
+
+  /**
+   * Construct the strategy with a transposition table of the default size.
+   *
+   * @param timeBudgetMillis Wall clock time allowed for one search, in milliseconds.
+   * @param maxDepth         The deepest depth to search.
+   * @param threads          Number of threads searching, including the main thread.
+   * @throws IllegalArgumentException if any argument is not positive.
+   */
+  public LazySmpStrategy(long timeBudgetMillis, int maxDepth, int threads) {
+    this(timeBudgetMillis, maxDepth, threads, new TranspositionTable());
+  }
+
+  /**
+   * Construct the strategy.
+   *
+   * @param timeBudgetMillis Wall clock time allowed for one search, in milliseconds.
+   * @param maxDepth         The deepest depth to search.
+   * @param threads          Number of threads searching, including the main thread.
+   * @param table            The transposition table shared by all the threads.
+   * @throws IllegalArgumentException if any argument is not positive.
+   */
+  public LazySmpStrategy(long timeBudgetMillis, int maxDepth, int threads,
+                         TranspositionTable table) {
+    if (threads <= 0) {
+      throw new IllegalArgumentException("Need at least one thread to search.");
+    }
+    this.threads = threads;
+    this.table = table;
+    this.searchers = new AlphaBetaStrategy[threads];
+    for (int i = 0; i < threads; i++) {
+      this.searchers[i] = new AlphaBetaStrategy(timeBudgetMillis, maxDepth, table);
+    }
+    if (threads == 1) {
+      this.helpers = null;
+    } else {
+      this.helpers = Executors.newFixedThreadPool(threads - 1, runnable -> {
+        Thread thread = new Thread(runnable, "reversi-search-helper");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * Choose the cell for the player to place the chess on.
+   *
+   * @param model  A simulated model of the game.
+   * @param player The player to move.
+   * @return the position of the best move, or null if the player has to pass.
+   */
+  public ICellPosition chooseCell(IReversi model, IPlayer player) {
+    return search(model, player.getPlayerIdentity()).getBestMove();
+  }
+
+  /**
+   * Search the best move for the player with all the threads.
+   * The nodes of the result are the nodes of all the threads together.
+   *
+   * @param model  A simulated model of the game, searched by the calling thread and
+   *               restored before returning. The helpers search copies of it.
+   * @param player The player to move.
+   * @return the result of the search.
+   */
+  public SearchResult search(IReversi model, PlayerIdentity player) {
+    long start = System.nanoTime();
+    /* the endgame solver is exact, the helpers would not make it faster.*/
+    if (searchers[0].solvesEndgame(model)) {
+      this.lastResult = searchers[0].solveEndgame(model, player, start);
+      return this.lastResult;
+    }
+    table.newSearch();
+    AtomicBoolean stop = new AtomicBoolean();
+    List<Future<SearchResult>> helperResults = new ArrayList<>();
+    for (int thread = 1; thread < threads; thread++) {
+      IReversi copy = model.copyGame();
+      AlphaBetaStrategy searcher = searchers[thread];
+      int number = thread;
+      helperResults.add(helpers.submit(() ->
+              searcher.searchRoot(copy, player, start, number, stop)));
+    }
+
+    SearchResult main;
+    try {
+      main = searchers[0].searchRoot(model, player, start, 0, stop);
+    } finally {
+      stop.set(true);
+    }
+    long nodes = main.getNodes();
+    for (Future<SearchResult> helperResult : helperResults) {
+      try {
+        nodes += helperResult.get().getNodes();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for the helper threads.", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("A helper thread failed to search.", e.getCause());
+      }
+    }
+    this.lastResult = new SearchResult(main.getBestMove(), main.getScore(), main.getDepth(),
+            nodes, System.nanoTime() - start);
+    return this.lastResult;
+  }
+
+  /**
+   * The result of the last search, to report the depth reached and the nodes/second.
+   *
+   * @return the last result, or null if nothing has been searched yet.
+   */
+  public SearchResult getLastResult() {
+    return this.lastResult;
+  }
+
+  /**
+   * Number of threads searching, including the main thread.
+   *
+   * @return int
+   */
+  public int getThreads() {
+    return this.threads;
+  }
+
+  /**
+   * Stop the helper threads.
+   */
+  @Override
+  public void close() {
+    if (helpers != null) {
+      helpers.shutdownNow();
+    }
+  }
+}
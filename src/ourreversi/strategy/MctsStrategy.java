@@ -0,0 +1,395 @@
+package ourreversi.strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.IPlayer;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+
+/**
+ * Represent the strategy of Monte Carlo tree search (UCT).
+ * Each step goes down the tree choosing the child with the best upper confidence bound,
+ * adds one new node, plays a random game to the end from it, and counts the result in
+ * every node on the way. The move played is the most visited child of the root.
+ * It needs no evaluation of the board, so it suits big hexagon boards where alpha-beta
+ * cannot search deep.
+ * Many threads grow the same tree (tree parallelism). A thread going through a node adds
+ * a virtual loss to it until its playout is counted, so the other threads choose other
+ * paths in the meantime. Every thread plays out on its own PlayoutBoard.
+ * Metrics of the last search: playouts per second, nodes of the tree and an estimate of
+ * the memory of the tree.
+ * The helper threads are kept in a pool for the life of the strategy, call close when
+ * the strategy is no longer needed.
+ */
+public class MctsStrategy implements AutoCloseable {
+
+  /**
+   * Exploration constant of the upper confidence bound when none is given.
+   */
+  public static final double DEFAULT_EXPLORATION = 1.4;
+
+  // Estimated bytes of a node object, and of an array header.
+  private static final int NODE_BYTES = 32;
+  private static final int ARRAY_BYTES = 16;
+  // Check the clock once every this many playouts of a thread.
+  private static final int CLOCK_CHECK_INTERVAL = 64;
+
+  private final long timeBudgetMillis;
+  private final long maxPlayouts;
+  private final int threads;
+  private final double exploration;
+  private final ExecutorService helpers;
+  private final AtomicLong seeds = new AtomicLong();
+
+  // Metrics of the last search.
+  private SearchResult lastResult;
+  private long lastTreeNodes;
+  private long lastTreeBytes;
+
+  /**
+   * Construct the strategy running one thread.
+   *
+   * @param timeBudgetMillis Wall clock time allowed for one search, in milliseconds.
+   */
+  public MctsStrategy(long timeBudgetMillis) {
+    this(timeBudgetMillis, Long.MAX_VALUE, 1, DEFAULT_EXPLORATION);
+  }
+
+  /**
+   * Construct the strategy.
+   *
+   * @param timeBudgetMillis Wall clock time allowed for one search, in milliseconds.
+   * @param maxPlayouts      Stop once this many playouts are done by all the threads.
+   * @param threads          Number of threads growing the tree, including the main thread.
+   * @param exploration      Exploration constant of the upper confidence bound.
+   * @throws IllegalArgumentException if any argument is not positive.
+   */
+  public MctsStrategy(long timeBudgetMillis, long maxPlayouts, int threads,
+                      double exploration) {
+    if (timeBudgetMillis <= 0 || maxPlayouts <= 0 || threads <= 0 || exploration <= 0) {
+      throw new IllegalArgumentException("Time budget, playouts, threads and exploration "
+              + "need to be positive.");
+    }
+    this.timeBudgetMillis = timeBudgetMillis;
+    this.maxPlayouts = maxPlayouts;
+    this.threads = threads;
+    this.exploration = exploration;
+    if (threads == 1) {
+      this.helpers = null;
+    } else {
+      this.helpers = Executors.newFixedThreadPool(threads - 1, runnable -> {
+        Thread thread = new Thread(runnable, "reversi-mcts-helper");
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
+  }
+
+  /**
+   * Choose the cell for the player to place the chess on.
+   *
+   * @param model  The model of the game.
+   * @param player The player to move.
+   * @return the position of the best move, or null if the player has to pass.
+   */
+  public ICellPosition chooseCell(IReversi model, IPlayer player) {
+    return search(model, player.getPlayerIdentity()).getBestMove();
+  }
+
+  /**
+   * Search the best move for the player with all the threads.
+   * The result has the most visited move, its winning rate in per mille as the score, the
+   * deepest node of the tree as the depth, and the playouts as the nodes, so
+   * getNodesPerSecond is the playouts per second.
+   *
+   * @param model  A started game, not changed.
+   * @param player The player to move.
+   * @return the result of the search.
+   */
+  public SearchResult search(IReversi model, PlayerIdentity player) {
+    long start = System.nanoTime();
+    List<ICell> cells = model.getAllCells();
+    PlayoutBoard board = new PlayoutBoard(model);
+    if (board.movesOf(PlayoutBoard.colorOf(player), new int[board.size()]) == 0) {
+      this.lastTreeNodes = 0;
+      this.lastTreeBytes = 0;
+      this.lastResult = new SearchResult(null, 0, 0, 0, System.nanoTime() - start);
+      return this.lastResult;
+    }
+    Tree tree = new Tree(PlayoutBoard.BLACK + PlayoutBoard.WHITE
+            - PlayoutBoard.colorOf(player), start + timeBudgetMillis * 1_000_000L);
+
+    List<Future<?>> helperRuns = new ArrayList<>();
+    for (int thread = 1; thread < threads; thread++) {
+      PlayoutBoard copy = board.copy();
+      SplittableRandom random = new SplittableRandom(seeds.incrementAndGet());
+      helperRuns.add(helpers.submit(() -> tree.grow(copy, random)));
+    }
+    try {
+      tree.grow(board, new SplittableRandom(seeds.incrementAndGet()));
+    } finally {
+      tree.stop = true;
+    }
+    for (Future<?> helperRun : helperRuns) {
+      try {
+        helperRun.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for the helper threads.", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("A helper thread failed to search.", e.getCause());
+      }
+    }
+
+    Node best = tree.root.mostVisited();
+    ICellPosition bestMove = cells.get(best.move).getPosition();
+    int score = best.visits == 0 ? 0 : (int) (best.wins * 500L / best.visits);
+    this.lastTreeNodes = tree.nodes.get();
+    this.lastTreeBytes = tree.bytes.get();
+    this.lastResult = new SearchResult(bestMove, score, tree.depth, tree.playouts.get(),
+            System.nanoTime() - start);
+    return this.lastResult;
+  }
+
+  /**
+   * The result of the last search, its nodes are the playouts.
+   *
+   * @return the last result, or null if nothing has been searched yet.
+   */
+  public SearchResult getLastResult() {
+    return this.lastResult;
+  }
+
+  /**
+   * Playouts per second of the last search, with all the threads.
+   *
+   * @return long, 0 if nothing has been searched yet.
+   */
+  public long getPlayoutsPerSecond() {
+    return this.lastResult == null ? 0 : this.lastResult.getNodesPerSecond();
+  }
+
+  /**
+   * Number of nodes of the tree of the last search.
+   *
+   * @return long
+   */
+  public long getTreeNodes() {
+    return this.lastTreeNodes;
+  }
+
+  /**
+   * Estimated memory of the tree of the last search, in bytes.
+   *
+   * @return long
+   */
+  public long getTreeBytes() {
+    return this.lastTreeBytes;
+  }
+
+  /**
+   * Number of threads growing the tree, including the main thread.
+   *
+   * @return int
+   */
+  public int getThreads() {
+    return this.threads;
+  }
+
+  /**
+   * Stop the helper threads.
+   */
+  @Override
+  public void close() {
+    if (helpers != null) {
+      helpers.shutdownNow();
+    }
+  }
+
+  /**
+   * Represent the tree of one search, grown by all the threads at once.
+   */
+  private final class Tree {
+
+    private final Node root;
+    private final long deadline;
+    private final AtomicLong playouts = new AtomicLong();
+    private final AtomicLong nodes = new AtomicLong(1);
+    private final AtomicLong bytes = new AtomicLong(NODE_BYTES);
+    private volatile boolean stop;
+    // Deepest node reached, only grows.
+    private volatile int depth;
+
+    private Tree(int rootMover, long deadline) {
+      this.root = new Node(-1, rootMover);
+      this.deadline = deadline;
+    }
+
+    // Run steps on the board until the time or the playouts are used up.
+    private void grow(PlayoutBoard board, SplittableRandom random) {
+      Node[] path = new Node[board.size() * 2 + 2];
+      int[] moves = new int[board.size()];
+      long steps = 0;
+      while (!stop) {
+        board.reset();
+        step(board, random, path, moves);
+        if (playouts.incrementAndGet() >= maxPlayouts) {
+          stop = true;
+        }
+        if (++steps % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+          stop = true;
+        }
+      }
+    }
+
+    // Go down the tree, add a node, play out and count the result on the path.
+    private void step(PlayoutBoard board, SplittableRandom random, Node[] path, int[] moves) {
+      Node node = root;
+      int length = 0;
+      node.addVirtualLoss();
+      path[length++] = node;
+      while (true) {
+        Node[] children = node.children;
+        if (children == null) {
+          children = expand(node, board, moves);
+        }
+        if (children.length == 0) {
+          break;
+        }
+        Node child = node.select(exploration);
+        if (child.move >= 0) {
+          board.play(child.move, child.mover);
+        }
+        boolean fresh = child.visits + child.virtual == 0;
+        child.addVirtualLoss();
+        path[length++] = child;
+        node = child;
+        if (fresh) {
+          break;
+        }
+      }
+      if (length - 1 > depth) {
+        depth = length - 1;
+      }
+      int winner = board.playout(PlayoutBoard.BLACK + PlayoutBoard.WHITE - node.mover, random);
+      for (int i = 0; i < length; i++) {
+        path[i].update(winner == PlayoutBoard.EMPTY ? 1 : winner == path[i].mover ? 2 : 0);
+      }
+    }
+
+    // Add the children of the node: its moves, a pass, or none if the game is over.
+    private Node[] expand(Node node, PlayoutBoard board, int[] moves) {
+      synchronized (node) {
+        if (node.children != null) {
+          return node.children;
+        }
+        int color = PlayoutBoard.BLACK + PlayoutBoard.WHITE - node.mover;
+        int count = board.movesOf(color, moves);
+        Node[] children;
+        if (count > 0) {
+          children = new Node[count];
+          for (int i = 0; i < count; i++) {
+            children[i] = new Node(moves[i], color);
+          }
+        } else if (node.move < 0 && node != root
+                || board.movesOf(node.mover, moves) == 0) {
+          /* both players have to pass, the game is over.*/
+          children = new Node[0];
+        } else {
+          children = new Node[] {new Node(-1, color)};
+        }
+        nodes.addAndGet(children.length);
+        bytes.addAndGet((long) children.length * (NODE_BYTES + 4) + ARRAY_BYTES);
+        node.children = children;
+        return children;
+      }
+    }
+  }
+
+  /**
+   * Represent a node of the tree: the move leading to it and the counts of its playouts.
+   * The counts are changed by many threads at once without locks.
+   */
+  private static final class Node {
+
+    private static final AtomicIntegerFieldUpdater<Node> VISITS =
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "visits");
+    private static final AtomicIntegerFieldUpdater<Node> WINS =
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "wins");
+    private static final AtomicIntegerFieldUpdater<Node> VIRTUAL =
+            AtomicIntegerFieldUpdater.newUpdater(Node.class, "virtual");
+
+    // Cell played to reach the node, -1 for a pass and for the root.
+    private final int move;
+    // Color of the player who played the move.
+    private final int mover;
+    // Playouts counted, twice the wins of the mover plus the draws.
+    private volatile int visits;
+    private volatile int wins;
+    // Threads going through the node whose playout is not counted yet.
+    private volatile int virtual;
+    // Null until expanded.
+    private volatile Node[] children;
+
+    private Node(int move, int mover) {
+      this.move = move;
+      this.mover = mover;
+    }
+
+    private void addVirtualLoss() {
+      VIRTUAL.incrementAndGet(this);
+    }
+
+    // Count a playout: 2 for a win of the mover, 1 for a draw, 0 for a loss.
+    private void update(int result) {
+      WINS.addAndGet(this, result);
+      VISITS.incrementAndGet(this);
+      VIRTUAL.decrementAndGet(this);
+    }
+
+    // The child with the best upper confidence bound, a virtual loss counts as a visit
+    // with no win; children never visited come first.
+    private Node select(double exploration) {
+      Node[] nodes = this.children;
+      double logVisits = Math.log(Math.max(1, visits + virtual));
+      Node best = null;
+      double bestValue = Double.NEGATIVE_INFINITY;
+      for (Node child : nodes) {
+        int n = child.visits + child.virtual;
+        if (n == 0) {
+          return child;
+        }
+        double value = child.wins / (2.0 * n) + exploration * Math.sqrt(logVisits / n);
+        if (value > bestValue) {
+          bestValue = value;
+          best = child;
+        }
+      }
+      return best;
+    }
+
+    // The child visited the most, the first one if many, null if none.
+    private Node mostVisited() {
+      Node[] nodes = this.children;
+      Node best = null;
+      if (nodes != null) {
+        for (Node child : nodes) {
+          if (best == null || child.visits > best.visits) {
+            best = child;
+          }
+        }
+      }
+      return best;
+    }
+  }
+}
@@ -0,0 +1,63 @@
+package ourreversi.strategy;
+
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.UndoRecord;
+
+/**
+ * Represent how a greedy strategy scores one candidate move, higher is better.
+ * The game given is a copy owned by the calling thread; a scorer may make moves on it
+ * with makeMove and unmakeMove, but must leave it as it was given before returning.
+ */
+@FunctionalInterface
+public interface MoveScorer {
+
+  /**
+   * Score the move.
+   *
+   * @param game   A copy of the game, with the player to move.
+   * @param index  Index of the cell of the move in getAllCells order, a valid move.
+   * @param player The player making the move.
+   * @return the score of the move, higher is better.
+   */
+  int score(IReversi game, int index, PlayerIdentity player);
+
+  /**
+   * Score a move by the number of chess it flips (FlipMost).
+   *
+   * @return the scorer.
+   */
+  static MoveScorer flipMost() {
+    return (game, index, player) -> {
+      UndoRecord undo = new UndoRecord();
+      game.makeMove(index, undo);
+      int flipped = undo.getFlipCount();
+      game.unmakeMove(undo);
+      return flipped;
+    };
+  }
+
+  /**
+   * Score a move by how few chess the best reply of the next player flips
+   * (MinimizeNextPlayerChoice): the score is minus the most the reply can flip.
+   *
+   * @return the scorer.
+   */
+  static MoveScorer minimizeNextPlayerChoice() {
+    return (game, index, player) -> {
+      UndoRecord undo = new UndoRecord();
+      UndoRecord reply = new UndoRecord();
+      int[] replies = new int[game.getAllCells().size()];
+      game.makeMove(index, undo);
+      int count = game.generateMoves(replies);
+      int most = 0;
+      for (int i = 0; i < count; i++) {
+        game.makeMove(replies[i], reply);
+        most = Math.max(most, reply.getFlipCount());
+        game.unmakeMove(reply);
+      }
+      game.unmakeMove(undo);
+      return -most;
+    };
+  }
+}
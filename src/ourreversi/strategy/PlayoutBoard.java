@@ -0,0 +1,253 @@
+package ourreversi.strategy;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+
+/**
+ * Represent a compact copy of a board for random playouts: one byte per cell, the
+ * neighbor of each cell in every direction, and the list of empty cells.
+ * Playing a move, finding the moves and playing a game to the end allocate nothing.
+ * A board is used by one thread; copy gives another thread its own board sharing the
+ * neighbors and the starting position, which are never changed.
+ */
+final class PlayoutBoard {
+
+  static final int EMPTY = 0;
+  static final int BLACK = 1;
+  static final int WHITE = 2;
+
+  private final int directions;
+  // Neighbor of cell i in direction d at i * directions + d, -1 if off the board.
+  private final int[] neighbors;
+  // Starting position, reset restores it.
+  private final byte[] startBoard;
+  private final int[] startEmpties;
+  private final int startEmptyCount;
+
+  private final byte[] board;
+  // Invariance: empties[0..emptyCount-1] are the empty cells, emptyAt[cell] is where the
+  // cell is in empties.
+  private final int[] empties;
+  private final int[] emptyAt;
+  private int emptyCount;
+  private final int[] moves;
+
+  /**
+   * Construct the board from the position of the model.
+   *
+   * @param model A started game, not changed.
+   */
+  PlayoutBoard(IReversi model) {
+    List<ICell> cells = model.getAllCells();
+    int size = cells.size();
+    this.directions = model.getSurroundingCells(cells.get(0)).size();
+    this.neighbors = neighborsOf(model, cells, directions);
+    this.startBoard = new byte[size];
+    int[] emptyCells = new int[size];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      CellStatus status = cells.get(i).getCellStatus();
+      if (status == CellStatus.EMPTY) {
+        emptyCells[count++] = i;
+      } else {
+        startBoard[i] = (byte) (status == CellStatus.BLACK ? BLACK : WHITE);
+      }
+    }
+    this.startEmpties = emptyCells;
+    this.startEmptyCount = count;
+    this.board = new byte[size];
+    this.empties = new int[size];
+    this.emptyAt = new int[size];
+    this.moves = new int[size];
+    reset();
+  }
+
+  private PlayoutBoard(PlayoutBoard that) {
+    this.directions = that.directions;
+    this.neighbors = that.neighbors;
+    this.startBoard = that.startBoard;
+    this.startEmpties = that.startEmpties;
+    this.startEmptyCount = that.startEmptyCount;
+    int size = that.board.length;
+    this.board = new byte[size];
+    this.empties = new int[size];
+    this.emptyAt = new int[size];
+    this.moves = new int[size];
+    reset();
+  }
+
+  /**
+   * A board of the same starting position for another thread.
+   *
+   * @return the copy, at the starting position.
+   */
+  PlayoutBoard copy() {
+    return new PlayoutBoard(this);
+  }
+
+  /**
+   * Go back to the starting position.
+   */
+  void reset() {
+    System.arraycopy(startBoard, 0, board, 0, board.length);
+    System.arraycopy(startEmpties, 0, empties, 0, startEmptyCount);
+    emptyCount = startEmptyCount;
+    for (int i = 0; i < emptyCount; i++) {
+      emptyAt[empties[i]] = i;
+    }
+  }
+
+  /**
+   * Fill the moves of the color into the array.
+   *
+   * @param color  BLACK or WHITE.
+   * @param result Array big enough for every cell.
+   * @return number of moves filled.
+   */
+  int movesOf(int color, int[] result) {
+    int opponent = BLACK + WHITE - color;
+    int count = 0;
+    for (int i = 0; i < emptyCount; i++) {
+      if (canFlip(empties[i], color, opponent)) {
+        result[count++] = empties[i];
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Place the chess of the color on the cell and flip, the move must be valid.
+   *
+   * @param cell  Index of the cell in getAllCells order.
+   * @param color BLACK or WHITE.
+   */
+  void play(int cell, int color) {
+    int opponent = BLACK + WHITE - color;
+    int base = cell * directions;
+    for (int d = 0; d < directions; d++) {
+      int c = neighbors[base + d];
+      while (c >= 0 && board[c] == opponent) {
+        c = neighbors[c * directions + d];
+      }
+      if (c < 0 || board[c] != color) {
+        continue;
+      }
+      for (int f = neighbors[base + d]; f != c; f = neighbors[f * directions + d]) {
+        board[f] = (byte) color;
+      }
+    }
+    board[cell] = (byte) color;
+    int last = empties[--emptyCount];
+    int at = emptyAt[cell];
+    empties[at] = last;
+    emptyAt[last] = at;
+  }
+
+  /**
+   * Play random moves for both players, starting with the color, until the game is over.
+   *
+   * @param color  BLACK or WHITE, the player to move.
+   * @param random The random numbers of this thread.
+   * @return the winner, BLACK or WHITE, or EMPTY for a draw.
+   */
+  int playout(int color, SplittableRandom random) {
+    boolean passed = false;
+    while (emptyCount > 0) {
+      int count = movesOf(color, moves);
+      if (count == 0) {
+        if (passed) {
+          break;
+        }
+        passed = true;
+      } else {
+        play(moves[random.nextInt(count)], color);
+        passed = false;
+      }
+      color = BLACK + WHITE - color;
+    }
+    return winner();
+  }
+
+  /**
+   * The player with more chess, EMPTY for a draw.
+   *
+   * @return BLACK, WHITE or EMPTY.
+   */
+  int winner() {
+    int difference = 0;
+    for (byte status : board) {
+      difference += status == BLACK ? 1 : status == WHITE ? -1 : 0;
+    }
+    return difference > 0 ? BLACK : difference < 0 ? WHITE : EMPTY;
+  }
+
+  /**
+   * Number of cells of the board.
+   *
+   * @return int
+   */
+  int size() {
+    return board.length;
+  }
+
+  // Would color flip anything on cell?
+  private boolean canFlip(int cell, int color, int opponent) {
+    int base = cell * directions;
+    for (int d = 0; d < directions; d++) {
+      int c = neighbors[base + d];
+      if (c < 0 || board[c] != opponent) {
+        continue;
+      }
+      do {
+        c = neighbors[c * directions + d];
+      } while (c >= 0 && board[c] == opponent);
+      if (c >= 0 && board[c] == color) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The color of the chess of the player.
+   *
+   * @param player The player.
+   * @return BLACK or WHITE.
+   */
+  static int colorOf(PlayerIdentity player) {
+    return player == PlayerIdentity.BLACKPLAYER ? BLACK : WHITE;
+  }
+
+  /**
+   * The neighbor table of the board of the model: the index of the neighbor of cell i in
+   * direction d at i * directions + d, -1 if off the board.
+   *
+   * @param model      A started game.
+   * @param cells      The cells of the model, in getAllCells order.
+   * @param directions Number of directions around a cell.
+   * @return the table.
+   */
+  static int[] neighborsOf(IReversi model, List<ICell> cells, int directions) {
+    /* equal cells are the same cell, even when the model makes a new view per call.*/
+    Map<ICell, Integer> indexOf = new HashMap<>();
+    for (int i = 0; i < cells.size(); i++) {
+      indexOf.put(cells.get(i), i);
+    }
+    int[] neighbors = new int[cells.size() * directions];
+    for (int i = 0; i < cells.size(); i++) {
+      List<ICell> surrounding = model.getSurroundingCells(cells.get(i));
+      for (int d = 0; d < directions; d++) {
+        ICell neighbor = surrounding.get(d);
+        neighbors[i * directions + d] = neighbor == null ? -1 : indexOf.get(neighbor);
+      }
+    }
+    return neighbors;
+  }
+}
@@ -0,0 +1,155 @@
+package ourreversi.strategy;
+
+import java.util.List;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+
+/**
+ * Represent the static evaluation of a board for a search.
+ * Works on hexagon and square boards alike: the weight of each cell comes from the
+ * number of cells around it, so corners (3 neighbors) are worth the most, the cells
+ * next to a corner are worth less than nothing, and the border is worth more than
+ * the middle of the board.
+ * It reads the cells of one model, a model changed by a search is evaluated as it is.
+ */
+public final class PositionEvaluator {
+
+  static final int CORNER = 20;
+  static final int NEXT_TO_CORNER = -6;
+  static final int BORDER = 4;
+  static final int MIDDLE = 1;
+  // Score of a won game, bigger than any evaluation of an unfinished game.
+  static final int WIN = 100000;
+
+  // Cells of the model, in getAllCells order.
+  private final List<ICell> cells;
+  // Weight of each cell index.
+  private final int[] weights;
+
+  /**
+   * Construct the evaluator of the given model.
+   *
+   * @param model A started game.
+   */
+  public PositionEvaluator(IReversi model) {
+    this.cells = model.getAllCells();
+    this.weights = new int[cells.size()];
+    int directions = model.getSurroundingCells(cells.get(0)).size();
+    boolean[] corner = new boolean[cells.size()];
+    for (int i = 0; i < cells.size(); i++) {
+      int neighbors = countNeighbors(model.getSurroundingCells(cells.get(i)));
+      corner[i] = neighbors == 3;
+      weights[i] = corner[i] ? CORNER : neighbors < directions ? BORDER : MIDDLE;
+    }
+    for (int i = 0; i < cells.size(); i++) {
+      if (!corner[i]) {
+        continue;
+      }
+      for (ICell neighbor : model.getSurroundingCells(cells.get(i))) {
+        if (neighbor != null) {
+          weights[cells.indexOf(neighbor)] = NEXT_TO_CORNER;
+        }
+      }
+    }
+  }
+
+  /**
+   * Evaluate the board for the given player, bigger is better for that player.
+   *
+   * @param player The player to evaluate for.
+   * @return the weighted chess of the player minus those of the opponent.
+   */
+  public int evaluate(PlayerIdentity player) {
+    CellStatus own = colorOf(player);
+    int score = 0;
+    for (int i = 0; i < weights.length; i++) {
+      CellStatus status = cells.get(i).getCellStatus();
+      if (status == own) {
+        score += weights[i];
+      } else if (status != CellStatus.EMPTY) {
+        score -= weights[i];
+      }
+    }
+    return score;
+  }
+
+  /**
+   * Score of the finished game for the given player: WIN plus the chess difference
+   * for a win, minus that for a loss, and 0 for a draw.
+   *
+   * @param player The player to score for.
+   * @return the final score.
+   */
+  public int finalScore(PlayerIdentity player) {
+    int difference = chessDifference(player);
+    if (difference > 0) {
+      return WIN + difference;
+    }
+    if (difference < 0) {
+      return -WIN + difference;
+    }
+    return 0;
+  }
+
+  /**
+   * Number of chess of the player minus number of chess of the opponent.
+   *
+   * @param player The player to count for.
+   * @return the chess difference.
+   */
+  public int chessDifference(PlayerIdentity player) {
+    CellStatus own = colorOf(player);
+    int difference = 0;
+    for (int i = 0; i < weights.length; i++) {
+      CellStatus status = cells.get(i).getCellStatus();
+      if (status == own) {
+        difference++;
+      } else if (status != CellStatus.EMPTY) {
+        difference--;
+      }
+    }
+    return difference;
+  }
+
+  /**
+   * Number of empty cells on the board.
+   *
+   * @return int
+   */
+  public int countEmpty() {
+    int empty = 0;
+    for (int i = 0; i < weights.length; i++) {
+      if (cells.get(i).getCellStatus() == CellStatus.EMPTY) {
+        empty++;
+      }
+    }
+    return empty;
+  }
+
+  /**
+   * Weight of the cell with the given index, used to order moves.
+   *
+   * @param index Index of the cell in getAllCells order.
+   * @return the weight.
+   */
+  public int weightOf(int index) {
+    return weights[index];
+  }
+
+  private static int countNeighbors(List<ICell> surrounding) {
+    int count = 0;
+    for (ICell c : surrounding) {
+      if (c != null) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  static CellStatus colorOf(PlayerIdentity player) {
+    return player == PlayerIdentity.BLACKPLAYER ? CellStatus.BLACK : CellStatus.WHITE;
+  }
+}
@@ -0,0 +1,144 @@
+package ourreversi.strategy;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.IPlayer;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Represent a greedy strategy: every move the player can go is scored by a MoveScorer,
+ * and the move with the highest score is chosen. If many moves have the highest score,
+ * the upmost leftmost one (the first in getAllCells order) is chosen.
+ * Moves are scored one after another, or at the same time on a fork/join pool
+ * (root split): the moves are split in halves until one move is left, and each move is
+ * scored on its own copy of the game. The best of each half is kept with the same
+ * tie-breaking, so both ways always choose the same move.
+ * Works on any IReversi, hexagon or square. The model given is never changed.
+ */
+public class RootSplitStrategy {
+
+  private final MoveScorer scorer;
+  // Pool scoring the moves at the same time, null to score them one after another.
+  private final ForkJoinPool pool;
+
+  /**
+   * Construct the strategy scoring the moves one after another.
+   *
+   * @param scorer How a move is scored.
+   * @throws NullPointerException if the scorer is null.
+   */
+  public RootSplitStrategy(MoveScorer scorer) {
+    this.scorer = requireNonNull(scorer);
+    this.pool = null;
+  }
+
+  /**
+   * Construct the strategy scoring the moves at the same time.
+   *
+   * @param scorer How a move is scored, called from many threads at once.
+   * @param pool   The pool to score the moves on, e.g. ForkJoinPool.commonPool().
+   * @throws NullPointerException if the scorer or the pool is null.
+   */
+  public RootSplitStrategy(MoveScorer scorer, ForkJoinPool pool) {
+    this.scorer = requireNonNull(scorer);
+    this.pool = requireNonNull(pool);
+  }
+
+  /**
+   * Choose the cell for the player to place the chess on.
+   *
+   * @param model  The model of the game.
+   * @param player The player to move.
+   * @return the position of the best move, or null if the player has to pass.
+   */
+  public ICellPosition chooseCell(IReversi model, IPlayer player) {
+    return chooseCell(model, player.getPlayerIdentity());
+  }
+
+  /**
+   * Choose the cell for the player to place the chess on.
+   *
+   * @param model  The model of the game.
+   * @param player The player to move.
+   * @return the position of the best move, or null if the player has to pass.
+   * @throws IllegalStateException if the game has not been started.
+   */
+  public ICellPosition chooseCell(IReversi model, PlayerIdentity player) {
+    IReversi game = model.copyGame();
+    game.setCurrentPlayerIdentity(player);
+    int[] moves = new int[game.getAllCells().size()];
+    int count = game.generateMoves(moves);
+    if (count == 0) {
+      return null;
+    }
+    long best;
+    if (pool == null) {
+      best = scoreMoves(game, moves, 0, count, player);
+    } else {
+      best = pool.invoke(new ScoreTask(game, moves, 0, count, player));
+    }
+    return model.getAllCells().get(indexOf(best)).getPosition();
+  }
+
+  // Score the moves from..to-1 on the game, return the best of them.
+  private long scoreMoves(IReversi game, int[] moves, int from, int to, PlayerIdentity player) {
+    long best = Long.MIN_VALUE;
+    for (int i = from; i < to; i++) {
+      best = better(best, pack(scorer.score(game, moves[i], player), moves[i]));
+    }
+    return best;
+  }
+
+  /* a scored move is packed into a long: the score in the high 32 bits and
+     Integer.MAX_VALUE - index in the low 32 bits, so the bigger long is the higher score,
+     then the smaller index. The best of many moves is their max, in any order.*/
+  private static long pack(int score, int index) {
+    return ((long) score << 32) | (Integer.MAX_VALUE - index);
+  }
+
+  private static int indexOf(long packed) {
+    return Integer.MAX_VALUE - (int) (packed & 0xFFFFFFFFL);
+  }
+
+  private static long better(long a, long b) {
+    return Math.max(a, b);
+  }
+
+  /**
+   * Represent the scoring of a range of moves, split in halves until one move is left.
+   * Each half after the first works on its own copy of the game.
+   */
+  private final class ScoreTask extends RecursiveTask<Long> {
+
+    private final IReversi game;
+    private final int[] moves;
+    private final int from;
+    private final int to;
+    private final PlayerIdentity player;
+
+    private ScoreTask(IReversi game, int[] moves, int from, int to, PlayerIdentity player) {
+      this.game = game;
+      this.moves = moves;
+      this.from = from;
+      this.to = to;
+      this.player = player;
+    }
+
+    @Override
+    protected Long compute() {
+      if (to - from <= 1) {
+        return scoreMoves(game, moves, from, to, player);
+      }
+      int middle = (from + to) >>> 1;
+      ScoreTask right = new ScoreTask(game.copyGame(), moves, middle, to, player);
+      right.fork();
+      long left = new ScoreTask(game, moves, from, middle, player).compute();
+      return better(left, right.join());
+    }
+  }
+}
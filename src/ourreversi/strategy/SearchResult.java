@@ -0,0 +1,94 @@
+package ourreversi.strategy;
+
+import ourreversi.cell.ICellPosition;
+
+/**
+ * Represent the result of a search: the move found, its score, and how much work
+ * was done to find it, so the speed of the search can be measured.
+ */
+public final class SearchResult {
+
+  private final ICellPosition bestMove;
+  private final int score;
+  private final int depth;
+  private final long nodes;
+  private final long elapsedNanos;
+
+  /**
+   * Construct the result of a search.
+   *
+   * @param bestMove     The position of the best move, null if the player has to pass.
+   * @param score        Score of the best move for the player who searched.
+   * @param depth        The deepest depth completely searched.
+   * @param nodes        Number of positions visited.
+   * @param elapsedNanos Time spent searching, in nanoseconds.
+   */
+  public SearchResult(ICellPosition bestMove, int score, int depth, long nodes,
+                      long elapsedNanos) {
+    this.bestMove = bestMove;
+    this.score = score;
+    this.depth = depth;
+    this.nodes = nodes;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * The position of the best move.
+   *
+   * @return the position, or null if the player has to pass.
+   */
+  public ICellPosition getBestMove() {
+    return this.bestMove;
+  }
+
+  /**
+   * Score of the best move for the player who searched, bigger is better.
+   *
+   * @return int
+   */
+  public int getScore() {
+    return this.score;
+  }
+
+  /**
+   * The deepest depth completely searched.
+   *
+   * @return int
+   */
+  public int getDepth() {
+    return this.depth;
+  }
+
+  /**
+   * Number of positions visited by the search.
+   *
+   * @return long
+   */
+  public long getNodes() {
+    return this.nodes;
+  }
+
+  /**
+   * Time spent searching, in nanoseconds.
+   *
+   * @return long
+   */
+  public long getElapsedNanos() {
+    return this.elapsedNanos;
+  }
+
+  /**
+   * Number of positions visited per second.
+   *
+   * @return long
+   */
+  public long getNodesPerSecond() {
+    return this.elapsedNanos == 0 ? 0 : this.nodes * 1_000_000_000L / this.elapsedNanos;
+  }
+
+  @Override
+  public String toString() {
+    return "depth " + depth + ", score " + score + ", " + nodes + " nodes, "
+            + getNodesPerSecond() + " nodes/s";
+  }
+}
@@ -0,0 +1,181 @@
+package ourreversi.strategy;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Represent a fixed size hash table of searched positions, keyed by Zobrist key.
+ * The number of entries is a power of two, each entry takes two longs (16 bytes):
+ * the key xor-ed with the data, and the data. Entries are read and written without
+ * locks; a reader only accepts an entry if key xor data gives back the key probed, so
+ * an entry torn by two threads writing at once is seen as a miss, never as wrong data.
+ * One table can be shared by all the threads searching the same game.
+ * An entry is replaced by a search of the same or greater depth, or by any search once
+ * it is left over from an older search (depth-preferred replacement).
+ */
+public final class TranspositionTable {
+
+  /**
+   * Size of the table in megabytes when none is given, read from the system property
+   * "reversi.hash.mb" at startup, 16 if not set.
+   */
+  public static final int DEFAULT_MEGABYTES = Integer.getInteger("reversi.hash.mb", 16);
+
+  /**
+   * Most cells a board searched with a table can have: the move of an entry is kept in
+   * 16 bits, so only the cell indices 0 to MAX_CELLS - 1 can be stored.
+   */
+  public static final int MAX_CELLS = 0xFFFF;
+
+  // Kinds of score stored.
+  public static final int EXACT = 1;
+  public static final int LOWER_BOUND = 2;
+  public static final int UPPER_BOUND = 3;
+
+  /* data layout:
+     bits  0-31 : score
+     bits 32-47 : move + 1, 0 for no move
+     bits 48-55 : depth
+     bits 56-57 : kind of score (EXACT, LOWER_BOUND, UPPER_BOUND), never 0 in an entry
+     bits 58-63 : generation of the search that stored the entry
+   */
+  private static final int MOVE_SHIFT = 32;
+  private static final int DEPTH_SHIFT = 48;
+  private static final int BOUND_SHIFT = 56;
+  private static final int GENERATION_SHIFT = 58;
+
+  // Invariance: entry i is at 2 * i (key xor data) and 2 * i + 1 (data).
+  private final AtomicLongArray table;
+  private final int indexMask;
+  private volatile int generation;
+
+  /**
+   * Construct a table of DEFAULT_MEGABYTES.
+   */
+  public TranspositionTable() {
+    this(DEFAULT_MEGABYTES);
+  }
+
+  /**
+   * Construct a table using at most the given memory.
+   *
+   * @param megabytes Memory of the table, rounded down to a power of two entries.
+   * @throws IllegalArgumentException if megabytes is not positive.
+   */
+  public TranspositionTable(int megabytes) {
+    if (megabytes <= 0) {
+      throw new IllegalArgumentException("The table needs at least 1 megabyte.");
+    }
+    long entries = Long.highestOneBit(megabytes * 1024L * 1024L / 16);
+    if (entries > 1 << 30) {
+      entries = 1 << 30;
+    }
+    this.table = new AtomicLongArray((int) entries * 2);
+    this.indexMask = (int) entries - 1;
+  }
+
+  /**
+   * Number of entries of the table.
+   *
+   * @return int
+   */
+  public int capacity() {
+    return this.indexMask + 1;
+  }
+
+  /**
+   * Start a new search: entries stored by earlier searches may be replaced by any
+   * new entry.
+   */
+  public void newSearch() {
+    this.generation = (this.generation + 1) & 63;
+  }
+
+  /**
+   * Remove all the entries.
+   */
+  public void clear() {
+    for (int i = 0; i < this.table.length(); i++) {
+      this.table.setOpaque(i, 0);
+    }
+  }
+
+  /**
+   * Look up the position with the given key.
+   *
+   * @param key Zobrist key of the position.
+   * @return the data of the entry, 0 if the position is not in the table.
+   */
+  public long probe(long key) {
+    int slot = ((int) key & this.indexMask) << 1;
+    long data = this.table.getOpaque(slot + 1);
+    long check = this.table.getOpaque(slot);
+    return (check ^ data) == key ? data : 0;
+  }
+
+  /**
+   * Store the result of searching a position.
+   *
+   * @param key   Zobrist key of the position.
+   * @param depth Depth searched, from 0 to 255.
+   * @param bound EXACT, LOWER_BOUND or UPPER_BOUND.
+   * @param score Score of the position for the player to move.
+   * @param move  Cell index of the best move, -1 if none.
+   * @throws IllegalArgumentException if move is not -1 or a cell index below MAX_CELLS.
+   */
+  public void store(long key, int depth, int bound, int score, int move) {
+    if (move < -1 || move >= MAX_CELLS) {
+      throw new IllegalArgumentException("The move " + move + " cannot be stored, a board "
+              + "searched with a table has at most " + MAX_CELLS + " cells.");
+    }
+    int slot = ((int) key & this.indexMask) << 1;
+    long old = this.table.getOpaque(slot + 1);
+    long oldKey = this.table.getOpaque(slot) ^ old;
+    int generation = this.generation;
+    if (old != 0 && generationOf(old) == generation && depthOf(old) > depth) {
+      return;
+    }
+    /* keep the best move of an older search of the same position if this one has none.*/
+    if (move < 0 && oldKey == key) {
+      move = moveOf(old);
+    }
+    long data = (score & 0xFFFFFFFFL)
+            | ((long) (move + 1) & 0xFFFF) << MOVE_SHIFT
+            | ((long) Math.min(depth, 255)) << DEPTH_SHIFT
+            | ((long) bound) << BOUND_SHIFT
+            | ((long) generation) << GENERATION_SHIFT;
+    this.table.setOpaque(slot, key ^ data);
+    this.table.setOpaque(slot + 1, data);
+  }
+
+  /**
+   * Score of an entry.
+   */
+  public static int scoreOf(long data) {
+    return (int) data;
+  }
+
+  /**
+   * Best move of an entry, -1 if none.
+   */
+  public static int moveOf(long data) {
+    return (int) ((data >>> MOVE_SHIFT) & 0xFFFF) - 1;
+  }
+
+  /**
+   * Depth of an entry.
+   */
+  public static int depthOf(long data) {
+    return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+  }
+
+  /**
+   * Kind of score of an entry: EXACT, LOWER_BOUND or UPPER_BOUND.
+   */
+  public static int boundOf(long data) {
+    return (int) ((data >>> BOUND_SHIFT) & 3);
+  }
+
+  private static int generationOf(long data) {
+    return (int) (data >>> GENERATION_SHIFT);
+  }
+}
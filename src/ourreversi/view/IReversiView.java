@@ -58,5 +58,12 @@ public interface IReversiView {
    */
   void showCellError();
 
+  /**
+   * Inform the player the computer player failed to choose or play its move.
+   *
+   * @param message What went wrong.
+   */
+  void showComputerError(String message);
+
   void setPlayer(PlayerIdentity identity);
 }
@@ -11,13 +11,18 @@ import java.awt.Point;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.List;
 
 import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.cell.PositionIndex;
+import ourreversi.cell.PositionKey;
 import ourreversi.controller.IActionListener;
+import ourreversi.log.GameLog;
+import ourreversi.log.LogLevel;
 import ourreversi.model.IReadOnlyModel;
 import ourreversi.cell.CellPosition;
 import ourreversi.cell.CellStatus;
@@ -36,8 +41,10 @@ public class JSReversiPanel extends JPanel {
   private final IReadOnlyModel model;
   // All the cells in the model. Only for observation
   private List<ICell> allCells;
-  // All the hexagon been in View
-  protected Map<Polygon, CellPosition> allHexagon = new HashMap<>();
+  // The positions of the cells, in getAllCells order.
+  private final PositionIndex cellIndex;
+  // The hexagon drawn for each cell, by the index of the cell, null until drawn.
+  protected Polygon[] allHexagon;
 
   // Chosen Position been selected.
   private CellPosition chosenPosition = null;
@@ -63,6 +70,12 @@ public class JSReversiPanel extends JPanel {
   public JSReversiPanel(IReadOnlyModel model) {
     this.model = Objects.requireNonNull(model);
     this.allCells = model.getAllCells();
+    List<ICellPosition> positions = new ArrayList<>(this.allCells.size());
+    for (ICell cell : this.allCells) {
+      positions.add(cell.getPosition());
+    }
+    this.cellIndex = new PositionIndex(positions);
+    this.allHexagon = new Polygon[positions.size()];
     MouseEventsListener listener = new MouseEventsListener();
     // Key event listener
     KeyEventsListener keyEvent = new KeyEventsListener();
@@ -118,7 +131,7 @@ public class JSReversiPanel extends JPanel {
     @Override
     public void keyPressed(KeyEvent e) {
       if (keyPressHandler != null) {
-        System.out.println("Key pressed");
+        GameLog.log(LogLevel.DEBUG, "Key pressed");
         keyPressHandler.handleKeyPressed(e);
       }
     }
@@ -137,19 +150,14 @@ public class JSReversiPanel extends JPanel {
      * @param e The MouseEvent object containing details about the mouse event.
      */
     public void mousePressed(MouseEvent e) {
-      Graphics2D g2d = (Graphics2D) getGraphics();
       Point physicalP = e.getPoint();
 
-      for (Map.Entry<Polygon, CellPosition> entry : allHexagon.entrySet()) {
-        Polygon hex = entry.getKey();
-
-        CellPosition hexPosition = entry.getValue();
-
-        if (hex.contains(physicalP)) {
-          printHexPosition(hexPosition);
-          handleHexagonClick(hex, hexPosition);
-          return; // Stop the search once we find the hexagon
-        }
+      int index = hexagonAt(physicalP);
+      if (index >= 0) {
+        CellPosition hexPosition = (CellPosition) cellIndex.positionAt(index);
+        printHexPosition(hexPosition);
+        handleHexagonClick(index, hexPosition);
+        return;
       }
       chosenPosition = null;
       mouseClickHandler.handleMousePressed(null);
@@ -158,13 +166,13 @@ public class JSReversiPanel extends JPanel {
 
 
     /**
-     * Prints the position of the clicked hexagon.
+     * Logs the position of the clicked hexagon.
      * This is for self-testing purpose.
      *
      * @param hexPosition The position of the clicked hexagon.
      */
     private void printHexPosition(CellPosition hexPosition) {
-      System.out.println("Hexagon clicked at: "
+      GameLog.log(LogLevel.INFO, "Hexagon clicked at: "
               + hexPosition.xGetter() + ", "
               + hexPosition.yGetter() + ", "
               + hexPosition.zGetter() + ", ");
@@ -173,23 +181,14 @@ public class JSReversiPanel extends JPanel {
     /**
      * Handles the logic for clicking on a hexagon, including selecting or deselecting it.
      *
-     * @param hex         The hexagon that was clicked.
+     * @param index       The index of the clicked cell.
      * @param hexPosition The position of the clicked hexagon.
      */
-    private void handleHexagonClick(Polygon hex, CellPosition hexPosition) {
-      Polygon hexToChange = null;
-
-      if (chosenPosition == null || !chosenPosition.equals(hexPosition)) {
-        for (ICell c : model.getAllCells()) {
-          if (c.getPosition().equals(hexPosition) && c.getCellStatus()
-                  == CellStatus.EMPTY) {
-            hexToChange = hex;
-            break;
-          }
-        }
-      }
+    private void handleHexagonClick(int index, CellPosition hexPosition) {
+      boolean choose = (chosenPosition == null || !chosenPosition.equals(hexPosition))
+              && allCells.get(index).getCellStatus() == CellStatus.EMPTY;
 
-      if (hexToChange != null) {
+      if (choose) {
         chosenPosition = hexPosition;
         mouseClickHandler.handleMousePressed(hexPosition);
 
@@ -211,18 +210,18 @@ public class JSReversiPanel extends JPanel {
    */
   @Override
   protected void paintComponent(Graphics g) {
-    System.out.println("Print");
+    GameLog.log(LogLevel.DEBUG, "Print");
     super.paintComponent(g);
     Graphics2D g2d = (Graphics2D) g.create();
-    this.allHexagon = new HashMap<>();
     g2d.setColor(Color.DARK_GRAY);
     g2d.fillRect(0, 0, getWidth(), getHeight());
     // Drawing hexagons based on the coordinate system
-    for (ICell cell : this.allCells) {
+    for (int index = 0; index < this.allCells.size(); index++) {
+      ICell cell = this.allCells.get(index);
       if (cell.getCellStatus() == CellStatus.EMPTY) {
-        drawHexagon(g2d, (CellPosition) cell.getPosition());
+        drawHexagon(g2d, index, (CellPosition) cell.getPosition());
       } else {
-        drawHexagon(g2d, (CellPosition) cell.getPosition());
+        drawHexagon(g2d, index, (CellPosition) cell.getPosition());
         drawCircle(g2d, (CellPosition) cell.getPosition()
                 , cellColor.get(cell.getCellStatus()));
       }
@@ -258,9 +257,10 @@ public class JSReversiPanel extends JPanel {
    * Draws a hexagon at a specified position on the board.
    *
    * @param g2d      The Graphics2D object used for drawing.
+   * @param index    The index of the cell.
    * @param position The position where the hexagon should be drawn.
    */
-  private void drawHexagon(Graphics2D g2d, CellPosition position) {
+  private void drawHexagon(Graphics2D g2d, int index, CellPosition position) {
     // For a horizontal hexagon, the width
     int x = position.xGetter();
     int y = position.yGetter();
@@ -280,9 +280,9 @@ public class JSReversiPanel extends JPanel {
     g2d.fillPolygon(hex);
     g2d.setColor(Color.BLACK);
     g2d.drawPolygon(hex);
-    // Add the hexagon and its CellPosition to the map
-    allHexagon.put(hex, position);
-    if (this.chosenPosition == position) {
+    // Keep the hexagon of the cell for hit testing
+    allHexagon[index] = hex;
+    if (position.equals(this.chosenPosition)) {
       g2d.setColor(Color.CYAN);
       g2d.fillPolygon(hex);
       g2d.setColor(Color.BLACK);
@@ -294,27 +294,51 @@ public class JSReversiPanel extends JPanel {
    * Get the chosen position.
    */
   public Point getChosenPosition() {
-    for (Map.Entry<Polygon, CellPosition> entry : allHexagon.entrySet()) {
-      Polygon hex = entry.getKey();
-      CellPosition hexPosition = entry.getValue();
-
-      if (hexPosition.equals(this.chosenPosition)) {
-        int centerX = 0;
-        int centerY = 0;
-        int numPoints = hex.npoints;
-
-        for (int i = 0; i < numPoints; i++) {
-          centerX += hex.xpoints[i];
-          centerY += hex.ypoints[i];
-        }
+    int index = this.chosenPosition == null ? -1 : cellIndex.indexOf(this.chosenPosition);
+    if (index < 0 || allHexagon[index] == null) {
+      return null; // Return null if no chosen position is found
+    }
+    Polygon hex = allHexagon[index];
+    int centerX = 0;
+    int centerY = 0;
+    int numPoints = hex.npoints;
+
+    for (int i = 0; i < numPoints; i++) {
+      centerX += hex.xpoints[i];
+      centerY += hex.ypoints[i];
+    }
 
-        centerX /= numPoints;
-        centerY /= numPoints;
+    centerX /= numPoints;
+    centerY /= numPoints;
 
-        return new Point(centerX, centerY);
+    return new Point(centerX, centerY);
+  }
+
+  /**
+   * Find the cell of the hexagon drawn under the point.
+   * The row and the column of the point give the nearest hexagon centers, only those
+   * are looked up by their position key and tested, not every hexagon.
+   *
+   * @param p The point on the panel.
+   * @return the index of the cell, or -1 if the point is on no hexagon.
+   */
+  private int hexagonAt(Point p) {
+    // Row is -z, column is y - x, the same as the centers drawn.
+    double row = (p.y - getHeight() / 2) / (double) (HEX_SIZE + 15);
+    double column = (p.x - getWidth() / 2) / (double) (HEX_SIZE / 2 + 10);
+    for (int z = -(int) Math.floor(row) + 1; z >= -(int) Math.ceil(row) - 1; z--) {
+      for (int d = (int) Math.floor(column) - 1; d <= (int) Math.ceil(column) + 1; d++) {
+        /* x + y = -z and y - x = d, so d and z are both even or both odd.*/
+        if (((d + z) & 1) != 0 || !PositionKey.inRange(-z - d, d - z, z)) {
+          continue;
+        }
+        int index = cellIndex.indexOf(PositionKey.of((-z - d) / 2, (d - z) / 2, z));
+        if (index >= 0 && allHexagon[index] != null && allHexagon[index].contains(p)) {
+          return index;
+        }
       }
     }
-    return null; // Return null if no chosen position is found
+    return -1;
   }
 
   /**
@@ -163,6 +163,15 @@ public class SimpleReversiView extends JFrame implements IReversiView {
             JOptionPane.INFORMATION_MESSAGE);
   }
 
+  /**
+   * Inform the player the computer player failed to choose or play its move.
+   */
+  @Override
+  public void showComputerError(String message) {
+    showMessageDialog(this, message, "Computer player error",
+            JOptionPane.ERROR_MESSAGE);
+  }
+
   /**
    * Set the player identity.
    */
@@ -11,14 +11,18 @@ import java.awt.Point;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
+import java.util.ArrayList;
 import java.util.Objects;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.List;
 
 import ourreversi.cell.ICell;
 import ourreversi.cell.ICellPosition;
+import ourreversi.cell.PositionIndex;
+import ourreversi.cell.PositionKey;
 import ourreversi.controller.IActionListener;
+import ourreversi.log.GameLog;
+import ourreversi.log.LogLevel;
 import ourreversi.model.IReadOnlyModel;
 import ourreversi.cell.CellStatus;
 
@@ -35,8 +39,10 @@ public class SquareJSReversiPanel extends JPanel {
   private final IReadOnlyModel model;
   // All the cells in the model. Only for observation
   private List<ICell> allCells;
-  // All the Square been in View
-  protected Map<Polygon, ICellPosition> allSquare = new HashMap<>();
+  // The positions of the cells, in getAllCells order.
+  private final PositionIndex cellIndex;
+  // The square drawn for each cell, by the index of the cell, null until drawn.
+  protected Polygon[] allSquare;
 
   // Chosen Position been selected.
   private ICellPosition chosenPosition = null;
@@ -59,6 +65,12 @@ public class SquareJSReversiPanel extends JPanel {
   public SquareJSReversiPanel(IReadOnlyModel model) {
     this.model = Objects.requireNonNull(model);
     this.allCells = model.getAllCells();
+    List<ICellPosition> positions = new ArrayList<>(this.allCells.size());
+    for (ICell cell : this.allCells) {
+      positions.add(cell.getPosition());
+    }
+    this.cellIndex = new PositionIndex(positions);
+    this.allSquare = new Polygon[positions.size()];
     MouseEventsListener listener = new MouseEventsListener();
     // Key event listener
     KeyEventsListener keyEvent = new KeyEventsListener();
@@ -114,7 +126,7 @@ public class SquareJSReversiPanel extends JPanel {
     @Override
     public void keyPressed(KeyEvent e) {
       if (keyPressHandler != null) {
-        System.out.println("Key pressed");
+        GameLog.log(LogLevel.DEBUG, "Key pressed");
         keyPressHandler.handleKeyPressed(e);
       }
     }
@@ -132,31 +144,25 @@ public class SquareJSReversiPanel extends JPanel {
      * @param e The MouseEvent object containing details about the mouse event.
      */
     public void mousePressed(MouseEvent e) {
-      Graphics2D g2d = (Graphics2D) getGraphics();
       Point physicalP = e.getPoint();
 
-      for (Map.Entry<Polygon, ICellPosition> entry : allSquare.entrySet()) {
-        Polygon square = entry.getKey();
-
-        ICellPosition sqrPosition = entry.getValue();
-
-        if (square.contains(physicalP)) {
-          printSqrPosition(sqrPosition);
-          handleSqrClick(square, sqrPosition);
-          break; // Stop the search once we find the square.
-        }
+      int index = squareAt(physicalP);
+      if (index >= 0) {
+        ICellPosition sqrPosition = cellIndex.positionAt(index);
+        printSqrPosition(sqrPosition);
+        handleSqrClick(index, sqrPosition);
       }
     }
 
 
     /**
-     * Prints the position of the clicked square.
+     * Logs the position of the clicked square.
      * This is for self-testing purpose.
      *
      * @param sqrPosn The position of the clicked square.
      */
     private void printSqrPosition(ICellPosition sqrPosn) {
-      System.out.println("Square clicked at: "
+      GameLog.log(LogLevel.INFO, "Square clicked at: "
               + sqrPosn.xGetter() + ", "
               + sqrPosn.yGetter() + ", ");
     }
@@ -164,23 +170,14 @@ public class SquareJSReversiPanel extends JPanel {
     /**
      * Handles the logic for clicking on a square, including selecting or deselecting it.
      *
-     * @param sqr         The square that was clicked.
+     * @param index       The index of the clicked cell.
      * @param hexPosition The position of the clicked hexagon.
      */
-    private void handleSqrClick(Polygon sqr, ICellPosition hexPosition) {
-      Polygon sqrToChange = null;
-
-      if (chosenPosition == null || !chosenPosition.equals(hexPosition)) {
-        for (ICell c : model.getAllCells()) {
-          if (c.getPosition().equals(hexPosition) && c.getCellStatus()
-                  == CellStatus.EMPTY) {
-            sqrToChange = sqr;
-            break;
-          }
-        }
-      }
+    private void handleSqrClick(int index, ICellPosition hexPosition) {
+      boolean choose = (chosenPosition == null || !chosenPosition.equals(hexPosition))
+              && allCells.get(index).getCellStatus() == CellStatus.EMPTY;
 
-      if (sqrToChange != null) {
+      if (choose) {
         chosenPosition = hexPosition;
         mouseClickHandler.handleMousePressed(hexPosition);
       } else if (chosenPosition != null && chosenPosition.equals(hexPosition)) {
@@ -201,20 +198,20 @@ public class SquareJSReversiPanel extends JPanel {
    */
   @Override
   protected void paintComponent(Graphics g) {
-    System.out.println("Print");
+    GameLog.log(LogLevel.DEBUG, "Print");
     super.paintComponent(g);
     Graphics2D g2d = (Graphics2D) g.create();
-    this.allSquare = new HashMap<>();
     g2d.setColor(Color.DARK_GRAY);
     g2d.fillRect(0, 0, getWidth(), getHeight());
     // Drawing square based on the coordinate system
-    for (ICell cell : this.allCells) {
+    for (int index = 0; index < this.allCells.size(); index++) {
+      ICell cell = this.allCells.get(index);
       ICellPosition squarePosn = cell.getPosition();
 
       if (cell.getCellStatus() == CellStatus.EMPTY) {
-        drawSquare(g2d, squarePosn);
+        drawSquare(g2d, index, squarePosn);
       } else {
-        drawSquare(g2d, squarePosn);
+        drawSquare(g2d, index, squarePosn);
         drawCircle(g2d, squarePosn
                 , cellColor.get(cell.getCellStatus()));
       }
@@ -280,9 +277,10 @@ public class SquareJSReversiPanel extends JPanel {
    * Draws a square at a specified position on the board.
    *
    * @param g2d      The Graphics2D object used for drawing.
+   * @param index    The index of the cell.
    * @param position The position where the square should be drawn.
    */
-  private void drawSquare(Graphics2D g2d, ICellPosition position) {
+  private void drawSquare(Graphics2D g2d, int index, ICellPosition position) {
     int width = getWidth();
     int height = getHeight();
     int gameDiameter = model.getGameSize() * 2;
@@ -314,9 +312,9 @@ public class SquareJSReversiPanel extends JPanel {
     g2d.setColor(Color.BLACK);
     g2d.drawPolygon(square);
 
-    this.allSquare.put(square, position);
+    this.allSquare[index] = square;
     // Highlight the selected square if applicable
-    if (this.chosenPosition == position) {
+    if (position.equals(this.chosenPosition)) {
       g2d.setColor(Color.CYAN);
       g2d.fillPolygon(square);
       g2d.setColor(Color.BLACK);
@@ -324,4 +322,34 @@ public class SquareJSReversiPanel extends JPanel {
     }
   }
 
+  /**
+   * Find the cell of the square drawn under the point.
+   * The column and the row of the point give the square, it and the squares around it
+   * (the corners of the drawn squares are rounded down) are looked up by their position
+   * key and tested, not every square.
+   *
+   * @param p The point on the panel.
+   * @return the index of the cell, or -1 if the point is on no square.
+   */
+  private int squareAt(Point p) {
+    int width = getWidth();
+    int height = getHeight();
+    double squareSize = Math.min(width, height) / (model.getGameSize() * 2.0);
+    double left = width > height ? (width - height) / 2 : 0;
+    double top = width > height ? 0 : (height - width) / 2;
+    int column = (int) Math.floor((p.x - left) / squareSize);
+    int row = (int) Math.floor((p.y - top) / squareSize);
+    for (int y = row - 1; y <= row + 1; y++) {
+      for (int x = column - 1; x <= column + 1; x++) {
+        if (!PositionKey.inRange(x, y, 0)) {
+          continue;
+        }
+        int index = cellIndex.indexOf(PositionKey.of(x, y, 0));
+        if (index >= 0 && allSquare[index] != null && allSquare[index].contains(p)) {
+          return index;
+        }
+      }
+    }
+    return -1;
+  }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ourreversi.cell.ICell;
+import ourreversi.model.IReversi;
+import ourreversi.model.Player;
+import ourreversi.model.PlayerIdentity;
+
+/**
+ * Represent the games the tests share: random moves to reach a position, the
+ * statuses of the cells to compare positions, and a new model played side by side
+ * with the reference model of its board.
+ */
+final class GameHelper {
+
+  private GameHelper() {
+    // Only static methods.
+  }
+
+  /**
+   * Play random legal moves, passing when there is none, until the game is over.
+   *
+   * @param model  The game.
+   * @param random Where the moves are picked from.
+   * @param moves  Number of moves and passes to play at most.
+   */
+  static void playRandomMoves(IReversi model, Random random, int moves) {
+    for (int i = 0; i < moves && !model.isGameOver(); i++) {
+      List<ICell> canGo = model.getAllCellsCanGo();
+      if (canGo.isEmpty()) {
+        model.playerPass();
+      } else {
+        model.playerChooseCell(canGo.get(random.nextInt(canGo.size())).getPosition());
+        model.playerMove();
+      }
+    }
+  }
+
+  /**
+   * The status of every cell of the game, in the order of getAllCells.
+   *
+   * @param model The game.
+   * @return List of String
+   */
+  static List<String> statusesOf(IReversi model) {
+    List<String> statuses = new ArrayList<>();
+    for (ICell c : model.getAllCells()) {
+      statuses.add(c.getCellStatus().toString());
+    }
+    return statuses;
+  }
+
+  /**
+   * The positions of the cells as text, to compare cells of different models.
+   *
+   * @param cells The cells.
+   * @return List of String
+   */
+  static List<String> positionsOf(List<ICell> cells) {
+    List<String> positions = new ArrayList<>();
+    for (ICell c : cells) {
+      positions.add(c.getPosition().xGetter() + " " + c.getPosition().yGetter()
+              + " " + c.getPosition().zGetter());
+    }
+    return positions;
+  }
+
+  /**
+   * The other player of the given player.
+   *
+   * @param player The player.
+   * @return PlayerIdentity
+   */
+  static PlayerIdentity opponentOf(PlayerIdentity player) {
+    return player == PlayerIdentity.BLACKPLAYER
+            ? PlayerIdentity.WHITEPLAYER : PlayerIdentity.BLACKPLAYER;
+  }
+
+  /**
+   * Play the new model and the reference model with the same random moves, and check
+   * they are in the same state after every turn.
+   *
+   * @param reference The model the new model must play the same as, not initialized.
+   * @param model     The new model of the same board, not initialized.
+   * @param size      Size of the game.
+   * @param random    Where the moves are picked from.
+   */
+  static void playSameRandomGame(IReversi reference, IReversi model, int size,
+                                 Random random) {
+    reference.initializeReversi(size);
+    model.initializeReversi(size);
+
+    while (!reference.isGameOver()) {
+      assertSameState(reference, model);
+      List<ICell> canGo = reference.getAllCellsCanGo();
+      if (canGo.isEmpty()) {
+        reference.playerPass();
+        model.playerPass();
+        Assert.assertEquals(reference.isGameOver(), model.isGameOver());
+        continue;
+      }
+      ICell move = canGo.get(random.nextInt(canGo.size()));
+      reference.playerChooseCell(move.getPosition());
+      model.playerChooseCell(move.getPosition());
+      Assert.assertEquals(reference.getNumChessAbleToFlip(), model.getNumChessAbleToFlip());
+      reference.playerMove();
+      model.playerMove();
+    }
+    Assert.assertTrue(model.isGameOver());
+    for (PlayerIdentity identity : PlayerIdentity.values()) {
+      Assert.assertEquals(reference.getScore(new Player(identity)),
+              model.getScore(new Player(identity)));
+    }
+  }
+
+  /**
+   * Check the new model is in the same state as the reference model: the player to
+   * move, every cell, the flips on every cell, the cells can go and the scores.
+   *
+   * @param reference The model the new model must be the same as.
+   * @param model     The new model of the same board.
+   */
+  static void assertSameState(IReversi reference, IReversi model) {
+    Assert.assertEquals(reference.getCurrentPlayer(), model.getCurrentPlayer());
+    List<ICell> referenceCells = reference.getAllCells();
+    List<ICell> cells = model.getAllCells();
+    Assert.assertEquals(referenceCells.size(), cells.size());
+    for (int i = 0; i < cells.size(); i++) {
+      ICell expected = referenceCells.get(i);
+      ICell actual = cells.get(i);
+      Assert.assertEquals(expected.getPosition(), actual.getPosition());
+      Assert.assertEquals(expected.getCellStatus(), actual.getCellStatus());
+      for (PlayerIdentity identity : PlayerIdentity.values()) {
+        Assert.assertEquals(reference.numAbleToFlip(expected, identity),
+                model.numAbleToFlip(actual, identity));
+      }
+    }
+    List<ICell> referenceCanGo = reference.getAllCellsCanGo();
+    List<ICell> canGo = model.getAllCellsCanGo();
+    Assert.assertEquals(referenceCanGo.size(), canGo.size());
+    for (int i = 0; i < canGo.size(); i++) {
+      Assert.assertEquals(referenceCanGo.get(i).getPosition(), canGo.get(i).getPosition());
+    }
+    for (PlayerIdentity identity : PlayerIdentity.values()) {
+      Assert.assertEquals(reference.getScore(new Player(identity)),
+              model.getScore(new Player(identity)));
+    }
+  }
+}
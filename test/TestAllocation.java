@@ -0,0 +1,137 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+import ourreversi.model.UndoRecord;
+
+/**
+ * Allocation benchmark of the model move validation, flipping and move generation.
+ * Once warmed up, checking every cell of the board, making and taking back moves, and
+ * generating the moves after a move should not create any garbage.
+ */
+public class TestAllocation {
+
+  private static final int WARM_UP_ROUNDS = 20_000;
+  private static final int MEASURED_ROUNDS = 2_000;
+  // Allowed noise for the whole measured run, far less than one object per call.
+  private static final long ALLOWED_BYTES = 1024;
+
+  @Test
+  public void testValidMoveAllocationFreeBasic() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(5);
+    List<ICell> cells = model.getAllCells();
+    assertNoGarbage("validations", () -> checkAllCells(model, cells));
+  }
+
+  @Test
+  public void testValidMoveAllocationFreeSquare() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(4);
+    List<ICell> cells = model.getAllCells();
+    assertNoGarbage("validations", () -> checkAllCells(model, cells));
+  }
+
+  @Test
+  public void testMakeUnmakeAllocationFreeBasic() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(5);
+    assertNoGarbage("moves", new MoveRound(model, false));
+  }
+
+  @Test
+  public void testMakeUnmakeAllocationFreeSquare() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(8);
+    assertNoGarbage("moves", new MoveRound(model, false));
+  }
+
+  @Test
+  public void testGenerateMovesAllocationFreeBasic() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(5);
+    assertNoGarbage("move generations", new MoveRound(model, true));
+  }
+
+  @Test
+  public void testGenerateMovesAllocationFreeSquare() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(8);
+    assertNoGarbage("move generations", new MoveRound(model, true));
+  }
+
+  // Run the round to warm up, then measure the bytes allocated by this thread over
+  // the measured rounds.
+  private void assertNoGarbage(String what, IntSupplier round) {
+    for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+      round.getAsInt();
+    }
+
+    com.sun.management.ThreadMXBean threadBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long threadId = Thread.currentThread().getId();
+    long before = threadBean.getThreadAllocatedBytes(threadId);
+    long done = 0;
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      done += round.getAsInt();
+    }
+    long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+    Assert.assertTrue(done > 0);
+    Assert.assertTrue("Allocated " + allocated + " bytes for " + MEASURED_ROUNDS
+            + " rounds of " + what, allocated < ALLOWED_BYTES);
+  }
+
+  // Run validMove and numAbleToFlip on every cell.
+  private int checkAllCells(IReversi model, List<ICell> cells) {
+    int valid = 0;
+    for (int i = 0; i < cells.size(); i++) {
+      ICell cell = cells.get(i);
+      if (model.validMove(cell, PlayerIdentity.BLACKPLAYER)) {
+        valid++;
+      }
+      valid += model.numAbleToFlip(cell, PlayerIdentity.WHITEPLAYER);
+    }
+    return valid;
+  }
+
+  /**
+   * Represent one round over the moves of the start of the game: make each move, flipping
+   * the chess, generate the moves after it if asked, and take it back.
+   */
+  private static final class MoveRound implements IntSupplier {
+    private final IReversi model;
+    private final boolean generate;
+    private final int[] moves;
+    private final int moveCount;
+    private final int[] replies;
+    private final UndoRecord undo = new UndoRecord();
+
+    private MoveRound(IReversi model, boolean generate) {
+      this.model = model;
+      this.generate = generate;
+      this.moves = new int[model.getAllCells().size()];
+      this.moveCount = model.generateMoves(moves);
+      this.replies = new int[moves.length];
+    }
+
+    @Override
+    public int getAsInt() {
+      int done = 0;
+      for (int i = 0; i < moveCount; i++) {
+        model.makeMove(moves[i], undo);
+        done += generate ? model.generateMoves(replies) : undo.getFlipCount();
+        model.unmakeMove(undo);
+      }
+      return done;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.cell.SquareCellPosition;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+import ourreversi.model.UndoRecord;
+import ourreversi.strategy.AlphaBetaStrategy;
+import ourreversi.strategy.PositionEvaluator;
+import ourreversi.strategy.SearchResult;
+
+/**
+ * Test the alpha-beta search strategy.
+ */
+public class TestAlphaBetaStrategy {
+
+  // Alpha-beta gives the same score as searching every move.
+  @Test
+  public void testSameScoreAsFullSearch() {
+    IReversi[] models = {new BasicReversi(), new SquareReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(3);
+      GameHelper.playRandomMoves(model, new Random(4), 6);
+      PositionEvaluator evaluator = new PositionEvaluator(model);
+      PlayerIdentity player = model.getCurrentPlayer();
+      for (int depth = 1; depth <= 4; depth++) {
+        SearchResult result = new AlphaBetaStrategy(60000, depth).search(model, player);
+        Assert.assertEquals(depth, result.getDepth());
+        Assert.assertEquals(fullSearch(model, evaluator, depth, player, false),
+                result.getScore());
+      }
+    }
+  }
+
+  @Test
+  public void testModelRestoredAfterSearch() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(4);
+    GameHelper.playRandomMoves(model, new Random(2), 5);
+    List<String> board = GameHelper.statusesOf(model);
+    PlayerIdentity player = model.getCurrentPlayer();
+    List<ICell> canGo = model.getAllCellsCanGo();
+
+    SearchResult result = new AlphaBetaStrategy(200, 64).search(model, player);
+    Assert.assertEquals(board, GameHelper.statusesOf(model));
+    Assert.assertEquals(player, model.getCurrentPlayer());
+    Assert.assertEquals(canGo, model.getAllCellsCanGo());
+    Assert.assertTrue(result.getDepth() >= 1);
+    Assert.assertTrue(result.getNodes() > 0);
+    Assert.assertTrue(canGo.contains(model.getCellOnPosition(result.getBestMove())));
+  }
+
+  @Test
+  public void testTakesTheCorner() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(2);
+    for (ICell c : model.getAllCells()) {
+      c.changeStatus(CellStatus.EMPTY);
+    }
+    /* black can take the corner (0, 0), or play the border (2, 0).*/
+    model.getCellOnPosition(new SquareCellPosition(1, 1)).changeStatus(CellStatus.WHITE);
+    model.getCellOnPosition(new SquareCellPosition(2, 1)).changeStatus(CellStatus.WHITE);
+    model.getCellOnPosition(new SquareCellPosition(2, 2)).changeStatus(CellStatus.BLACK);
+    ICellPosition move = new AlphaBetaStrategy(200, 1)
+            .search(model, PlayerIdentity.BLACKPLAYER).getBestMove();
+    Assert.assertEquals(0, move.xGetter());
+    Assert.assertEquals(0, move.yGetter());
+  }
+
+  // Stopped by the budget, not by the depth: no wall clock bound, the machine may be slow.
+  @Test
+  public void testTimeBudgetIsKept() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(6);
+    AlphaBetaStrategy strategy = new AlphaBetaStrategy(100, 64);
+    SearchResult result = strategy.search(model, PlayerIdentity.BLACKPLAYER);
+    Assert.assertTrue(result.getDepth() >= 1 && result.getDepth() < 64);
+    Assert.assertTrue(result.getElapsedNanos() >= 100_000_000L);
+    Assert.assertTrue(result.getNodesPerSecond() > 0);
+    Assert.assertSame(result, strategy.getLastResult());
+  }
+
+  private int fullSearch(IReversi model, PositionEvaluator evaluator, int depth,
+                         PlayerIdentity player, boolean passed) {
+    if (depth == 0) {
+      return evaluator.evaluate(player);
+    }
+    PlayerIdentity opponent = player == PlayerIdentity.BLACKPLAYER
+            ? PlayerIdentity.WHITEPLAYER : PlayerIdentity.BLACKPLAYER;
+    int[] moves = new int[model.getAllCells().size()];
+    int count = model.generateMoves(moves);
+    UndoRecord undo = new UndoRecord();
+    if (count == 0) {
+      if (passed) {
+        return evaluator.finalScore(player);
+      }
+      model.makePass(undo);
+      int score = -fullSearch(model, evaluator, depth - 1, opponent, true);
+      model.unmakeMove(undo);
+      return score;
+    }
+    int best = Integer.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      model.makeMove(moves[i], undo);
+      best = Math.max(best, -fullSearch(model, evaluator, depth - 1, opponent, false));
+      model.unmakeMove(undo);
+    }
+    return best;
+  }
+}
@@ -0,0 +1,68 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import ourreversi.ReversiCreator;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.SquareReversi;
+import ourreversi.simulation.BatchSimulator;
+import ourreversi.simulation.SimulationResult;
+
+/**
+ * Test the headless batch simulator.
+ */
+public class TestBatchSimulator {
+
+  @Test
+  public void testPlaysAllGamesSilently() {
+    PrintStream out = System.out;
+    ByteArrayOutputStream printed = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(printed));
+    SimulationResult result;
+    try {
+      result = new BatchSimulator(SquareReversi::new, 3, ReversiCreator.GameType.EASY,
+              ReversiCreator.GameType.HARD, 4, 1).run(40, 2);
+    } finally {
+      System.setOut(out);
+    }
+    Assert.assertEquals(0, printed.size());
+    Assert.assertEquals(40, result.getGames());
+    Assert.assertEquals(40, result.getFirstWins() + result.getSecondWins() + result.getDraws());
+    Assert.assertTrue(result.getGamesPerSecond() > 0);
+    Assert.assertEquals(1.0, result.getFirstWinRate() + result.getSecondWinRate()
+            + result.getDrawRate(), 1e-9);
+  }
+
+  // The same games are played whatever the number of threads.
+  @Test
+  public void testSameResultOnAnyThreads() {
+    BatchSimulator simulator = new BatchSimulator(BasicReversi::new, 3,
+            ReversiCreator.GameType.MEDIUM, ReversiCreator.GameType.EASY, 6, 42);
+    SimulationResult one = simulator.run(30, 1);
+    SimulationResult three = simulator.run(30, 3);
+    Assert.assertEquals(one.getFirstWins(), three.getFirstWins());
+    Assert.assertEquals(one.getSecondWins(), three.getSecondWins());
+    Assert.assertEquals(one.getDraws(), three.getDraws());
+  }
+
+  @Test
+  public void testConfidenceInterval() {
+    SimulationResult result = new SimulationResult(60, 30, 10, 1_000_000_000L);
+    double[] interval = result.getFirstWinInterval();
+    Assert.assertEquals(0.6, result.getFirstWinRate(), 1e-9);
+    Assert.assertEquals(0.502, interval[0], 0.001);
+    Assert.assertEquals(0.690, interval[1], 0.001);
+    Assert.assertEquals(100, result.getGamesPerSecond(), 1e-9);
+    double[] none = new SimulationResult(0, 0, 0, 0).getSecondWinInterval();
+    Assert.assertEquals(0, none[0], 0);
+    Assert.assertEquals(1, none[1], 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHumanCannotPlay() {
+    new BatchSimulator(SquareReversi::new, 3, ReversiCreator.GameType.HUMAN,
+            ReversiCreator.GameType.HARD, 0, 0);
+  }
+}
@@ -0,0 +1,77 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.CellPosition;
+import ourreversi.cell.SquareCellPosition;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.Player;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Test the bitboard model plays exactly the same as the square reversi model.
+ */
+public class TestBitboardReversi {
+
+  @Test
+  public void testThrowWithTooSmallSize() {
+    IReversi model = new BitboardReversi();
+    Assert.assertThrows(IllegalArgumentException.class, () -> model.initializeReversi(1));
+  }
+
+  @Test
+  public void testInitializeBoard() {
+    IReversi reference = new SquareReversi();
+    IReversi model = new BitboardReversi();
+    reference.initializeReversi(4);
+    model.initializeReversi(4);
+    GameHelper.assertSameState(reference, model);
+    Assert.assertEquals(CellStatus.BLACK,
+            model.getCellOnPosition(new SquareCellPosition(3, 3)).getCellStatus());
+    Assert.assertEquals(CellStatus.WHITE,
+            model.getCellOnPosition(new SquareCellPosition(4, 3)).getCellStatus());
+    Assert.assertNull(model.getCellOnPosition(new SquareCellPosition(8, 0)));
+  }
+
+  // Single word boards (size 2 to 4) and multi word boards (size 5 and above).
+  @Test
+  public void testRandomGamesSameAsSquareReversi() {
+    Random random = new Random(42);
+    for (int size = 2; size <= 7; size++) {
+      for (int game = 0; game < 10; game++) {
+        GameHelper.playSameRandomGame(new SquareReversi(), new BitboardReversi(), size, random);
+      }
+    }
+  }
+
+  @Test
+  public void testChangeStatusWritesToBoard() {
+    IReversi model = new BitboardReversi();
+    model.initializeReversi(4);
+    ICell cell = model.getCellOnPosition(new SquareCellPosition(0, 0));
+    cell.changeStatus(CellStatus.WHITE);
+    Assert.assertEquals(3, model.getScore(new Player(PlayerIdentity.WHITEPLAYER)));
+    cell.changeStatus(CellStatus.EMPTY);
+    Assert.assertEquals(2, model.getScore(new Player(PlayerIdentity.WHITEPLAYER)));
+  }
+
+  // Cells are views made when asked for: equal to each other, and always up to date.
+  @Test
+  public void testCellViews() {
+    IReversi model = new BitboardReversi();
+    model.initializeReversi(15);
+    ICell cell = model.getCellOnPosition(new SquareCellPosition(3, 3));
+    ICell same = model.getAllCells().get(model.getAllCells().indexOf(cell));
+    Assert.assertEquals(cell, same);
+    Assert.assertEquals(cell.hashCode(), same.hashCode());
+    Assert.assertEquals(cell.getPosition(), same.getPosition());
+    same.changeStatus(CellStatus.EMPTY);
+    Assert.assertEquals(CellStatus.EMPTY, cell.getCellStatus());
+    Assert.assertNull(model.getCellOnPosition(new CellPosition(0, 0, 0)));
+  }
+}
@@ -0,0 +1,146 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ourreversi.cell.CellPosition;
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.BoardSnapshot;
+import ourreversi.model.IReversi;
+import ourreversi.model.MoveEvaluation;
+import ourreversi.model.PackedHexReversi;
+import ourreversi.model.Player;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Test the immutable snapshots of the models.
+ */
+public class TestBoardSnapshot {
+
+  @Test
+  public void testSnapshotAnswersLikeTheModel() {
+    IReversi[] models = {new BasicReversi(), new PackedHexReversi(),
+        new SquareReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(4);
+      Random random = new Random(17);
+      while (!model.isGameOver()) {
+        assertSameAsModel(model, model.snapshot());
+        List<ICell> canGo = model.getAllCellsCanGo();
+        if (canGo.isEmpty()) {
+          model.playerPass();
+        } else {
+          model.playerChooseCell(canGo.get(random.nextInt(canGo.size())).getPosition());
+          model.playerMove();
+        }
+      }
+      Assert.assertTrue(model.snapshot().isGameOver());
+    }
+  }
+
+  // The snapshot keeps the board of the moment it was taken.
+  @Test
+  public void testSnapshotNeverChanges() {
+    IReversi[] models = {new BasicReversi(), new SquareReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(3);
+      BoardSnapshot before = model.snapshot();
+      List<String> boardBefore = statusesOf(before.getAllCells());
+      BoardSnapshot again = model.snapshot();
+
+      ICell move = model.getAllCellsCanGo().get(0);
+      model.playerChooseCell(move.getPosition());
+      model.playerMove();
+      model.getAllCells().get(0).changeStatus(CellStatus.WHITE);
+
+      Assert.assertEquals(boardBefore, statusesOf(before.getAllCells()));
+      Assert.assertEquals(boardBefore, statusesOf(again.getAllCells()));
+      Assert.assertEquals(PlayerIdentity.BLACKPLAYER, before.getCurrentPlayer());
+      Assert.assertEquals(CellStatus.EMPTY,
+              before.getCellOnPosition(move.getPosition()).getCellStatus());
+      assertSameAsModel(model, model.snapshot());
+    }
+  }
+
+  @Test
+  public void testSnapshotCellsCannotChange() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(2);
+    BoardSnapshot snapshot = model.snapshot();
+    Assert.assertThrows(UnsupportedOperationException.class, () ->
+            snapshot.getCellOnPosition(new CellPosition(0, 0, 0))
+                    .changeStatus(CellStatus.BLACK));
+    Assert.assertThrows(UnsupportedOperationException.class, snapshot::startGame);
+    Assert.assertSame(snapshot, snapshot.snapshot());
+  }
+
+  @Test
+  public void testSnapshotScoreAndChosenCell() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(2);
+    Player black = new Player(PlayerIdentity.BLACKPLAYER);
+    Player white = new Player(PlayerIdentity.WHITEPLAYER);
+    model.addPlayer(black);
+    model.addPlayer(white);
+    ICell move = model.getAllCellsCanGo().get(0);
+    model.playerChooseCell(move.getPosition());
+
+    BoardSnapshot snapshot = model.snapshot();
+    Assert.assertEquals(move.getPosition(), snapshot.getChosenCell().getPosition());
+    Assert.assertEquals(1, snapshot.getNumChessAbleToFlip());
+    Assert.assertEquals(2, snapshot.getScore(black));
+    Assert.assertNull(snapshot.getWinner());
+
+    model.playerMove();
+    Assert.assertEquals(2, snapshot.getScore(black));
+    Assert.assertEquals(4, model.snapshot().getScore(black));
+    Assert.assertEquals(black, model.snapshot().getWinner());
+  }
+
+  private void assertSameAsModel(IReversi model, BoardSnapshot snapshot) {
+    Assert.assertEquals(model.getGameSize(), snapshot.getGameSize());
+    Assert.assertEquals(model.getCurrentPlayer(), snapshot.getCurrentPlayer());
+    Assert.assertEquals(statusesOf(model.getAllCells()), statusesOf(snapshot.getAllCells()));
+    Assert.assertEquals(statusesOf(model.getAllCellsCanGo()),
+            statusesOf(snapshot.getAllCellsCanGo()));
+    for (ICell c : model.getAllCells()) {
+      Assert.assertEquals(c.getCellStatus(),
+              snapshot.getCellOnPosition(c.getPosition()).getCellStatus());
+      Assert.assertEquals(statusesOf(model.getSurroundingCells(c)),
+              statusesOf(snapshot.getSurroundingCells(c)));
+      for (PlayerIdentity player : PlayerIdentity.values()) {
+        Assert.assertEquals(model.numAbleToFlip(c, player), snapshot.numAbleToFlip(c, player));
+        Assert.assertEquals(
+                sortedPositions(model.evaluateMove(c.getPosition(), player)),
+                sortedPositions(snapshot.evaluateMove(c.getPosition(), player)));
+        Assert.assertEquals(model.validMove(c, player), snapshot.validMove(c, player));
+      }
+    }
+  }
+
+  private List<String> statusesOf(List<ICell> cells) {
+    List<String> statuses = new ArrayList<>();
+    for (ICell c : cells) {
+      statuses.add(c == null ? "null" : c.getPosition().xGetter() + " "
+              + c.getPosition().yGetter() + " " + c.getCellStatus());
+    }
+    return statuses;
+  }
+
+  // The flipped positions in a fixed order, the models may list them in any order.
+  private List<String> sortedPositions(MoveEvaluation evaluation) {
+    List<String> positions = new ArrayList<>();
+    for (ICellPosition p : evaluation.getFlippedPositions()) {
+      positions.add(p.xGetter() + " " + p.yGetter() + " " + p.zGetter());
+    }
+    positions.sort(null);
+    return positions;
+  }
+}
@@ -0,0 +1,117 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.BoardSymmetry;
+import ourreversi.model.CanonicalPosition;
+import ourreversi.model.IReversi;
+import ourreversi.model.PackedHexReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Test the symmetries of the boards and the canonical form of positions.
+ */
+public class TestBoardSymmetry {
+
+  @Test
+  public void testPermutations() {
+    IReversi[] models = {new SquareReversi(), new BasicReversi()};
+    int[] counts = {8, 12};
+    for (int m = 0; m < models.length; m++) {
+      models[m].initializeReversi(4);
+      BoardSymmetry symmetry = BoardSymmetry.of(models[m]);
+      Assert.assertSame(symmetry, BoardSymmetry.of(models[m]));
+      Assert.assertEquals(counts[m], symmetry.count());
+      int size = models[m].getAllCells().size();
+      Set<String> images = new HashSet<>();
+      for (int t = 0; t < symmetry.count(); t++) {
+        Set<Integer> seen = new HashSet<>();
+        StringBuilder image = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+          Assert.assertTrue(seen.add(symmetry.map(t, i)));
+          Assert.assertEquals(i, symmetry.map(symmetry.inverse(t), symmetry.map(t, i)));
+          image.append(symmetry.map(t, i)).append(' ');
+        }
+        Assert.assertTrue(images.add(image.toString()));
+      }
+      for (int i = 0; i < size; i++) {
+        Assert.assertEquals(i, symmetry.map(0, i));
+      }
+    }
+  }
+
+  // Every image of a position has the same canonical form and key.
+  @Test
+  public void testImagesShareCanonicalForm() {
+    IReversi[] models = {new SquareReversi(), new BitboardReversi(), new BasicReversi(),
+        new PackedHexReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(4);
+      GameHelper.playRandomMoves(model, new Random(7), 9);
+      PlayerIdentity player = model.getCurrentPlayer();
+      BoardSymmetry symmetry = BoardSymmetry.of(model);
+      CanonicalPosition canonical = symmetry.canonicalize(model, player);
+      List<ICell> cells = model.getAllCells();
+      for (int t = 0; t < symmetry.count(); t++) {
+        byte[] image = new byte[cells.size()];
+        for (int i = 0; i < cells.size(); i++) {
+          image[symmetry.map(t, i)] = (byte) cells.get(i).getCellStatus().ordinal();
+        }
+        CanonicalPosition other = symmetry.canonicalize(image, player);
+        Assert.assertEquals(canonical.getKey(), other.getKey());
+        for (int i = 0; i < cells.size(); i++) {
+          Assert.assertEquals(canonical.getStatus(i), other.getStatus(i));
+          Assert.assertEquals(cells.get(i).getCellStatus(),
+                  canonical.getStatus(canonical.toCanonical(i)));
+          Assert.assertEquals(i, canonical.fromCanonical(canonical.toCanonical(i)));
+        }
+      }
+      Assert.assertNotEquals(canonical.getKey(),
+              symmetry.canonicalize(model, GameHelper.opponentOf(player)).getKey());
+    }
+  }
+
+  // The key is the Zobrist key of a model in the canonical form.
+  @Test
+  public void testKeyIsZobristKeyOfCanonicalForm() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(4);
+    GameHelper.playRandomMoves(model, new Random(2), 7);
+    CanonicalPosition canonical = BoardSymmetry.of(model)
+            .canonicalize(model, model.getCurrentPlayer());
+    IReversi form = new SquareReversi();
+    form.initializeReversi(4);
+    for (int i = 0; i < form.getAllCells().size(); i++) {
+      form.getAllCells().get(i).changeStatus(canonical.getStatus(i));
+    }
+    form.setCurrentPlayerIdentity(model.getCurrentPlayer());
+    Assert.assertEquals(form.getZobristKey(), canonical.getKey());
+  }
+
+  // The four first moves of a square game are equal by a symmetry of the start.
+  @Test
+  public void testSymmetricMovesShareCanonicalMove() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(4);
+    CanonicalPosition start = BoardSymmetry.of(model)
+            .canonicalize(model, PlayerIdentity.BLACKPLAYER);
+    Assert.assertTrue(start.isSymmetric());
+    Set<Integer> moves = new HashSet<>();
+    for (ICell c : model.getAllCellsCanGo()) {
+      moves.add(start.canonicalMove(model.getAllCells().indexOf(c)));
+    }
+    Assert.assertEquals(1, moves.size());
+
+    GameHelper.playRandomMoves(model, new Random(3), 6);
+    Assert.assertFalse(BoardSymmetry.of(model)
+            .canonicalize(model, model.getCurrentPlayer()).isSymmetric());
+  }
+}
@@ -0,0 +1,147 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+import ourreversi.model.UndoRecord;
+import ourreversi.strategy.AlphaBetaStrategy;
+import ourreversi.strategy.EndgameSolver;
+import ourreversi.strategy.SearchResult;
+import ourreversi.strategy.TranspositionTable;
+
+/**
+ * Test the exact endgame solver.
+ */
+public class TestEndgameSolver {
+
+  // The solver gives the same final chess difference as searching every move.
+  @Test
+  public void testSameAsFullSearch() {
+    for (int seed = 0; seed < 6; seed++) {
+      IReversi[] models = {new BasicReversi(), new SquareReversi()};
+      for (IReversi model : models) {
+        model.initializeReversi(3);
+        playUntilEmpty(model, new Random(seed), 9);
+        if (model.isGameOver()) {
+          continue;
+        }
+        PlayerIdentity player = model.getCurrentPlayer();
+        List<String> board = GameHelper.statusesOf(model);
+        int expected = fullSearch(model, player, false);
+        for (int small = 1; small <= 8; small += 3) {
+          EndgameSolver solver = new EndgameSolver(new TranspositionTable(1), small);
+          SearchResult exact = solver.solve(model, player, true);
+          Assert.assertEquals(expected, exact.getScore());
+          Assert.assertEquals(Integer.signum(expected),
+                  solver.solve(model, player, false).getScore());
+          Assert.assertEquals(board, GameHelper.statusesOf(model));
+          if (exact.getBestMove() != null) {
+            UndoRecord undo = new UndoRecord();
+            model.makeMove(model.getAllCells().indexOf(
+                    model.getCellOnPosition(exact.getBestMove())), undo);
+            Assert.assertEquals(expected,
+                    -fullSearch(model, GameHelper.opponentOf(player), false));
+            model.unmakeMove(undo);
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDepthIsEmpties() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(3);
+    playUntilEmpty(model, new Random(9), 8);
+    SearchResult result = new EndgameSolver().solve(model, model.getCurrentPlayer(), true);
+    Assert.assertEquals(countEmpty(model), result.getDepth());
+    Assert.assertTrue(result.getNodes() > 0);
+  }
+
+  // The search solves the game once few enough cells are empty.
+  @Test
+  public void testUsedByAlphaBeta() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(3);
+    playUntilEmpty(model, new Random(4), 12);
+    PlayerIdentity player = model.getCurrentPlayer();
+    int difference = new EndgameSolver().solve(model, player, true).getScore();
+
+    SearchResult solved = new AlphaBetaStrategy(60000, 4, new TranspositionTable(1), 12)
+            .search(model, player);
+    Assert.assertEquals(countEmpty(model), solved.getDepth());
+    Assert.assertEquals(Integer.signum(difference), Integer.signum(solved.getScore()));
+    SearchResult searched = new AlphaBetaStrategy(60000, 4, new TranspositionTable(1), 11)
+            .search(model, player);
+    Assert.assertEquals(4, searched.getDepth());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSmallEmptiesTooSmall() {
+    new EndgameSolver(new TranspositionTable(1), 0);
+  }
+
+  private int fullSearch(IReversi model, PlayerIdentity player, boolean passed) {
+    int[] moves = new int[model.getAllCells().size()];
+    int count = model.generateMoves(moves);
+    UndoRecord undo = new UndoRecord();
+    if (count == 0) {
+      if (passed) {
+        return difference(model, player);
+      }
+      model.makePass(undo);
+      int score = -fullSearch(model, GameHelper.opponentOf(player), true);
+      model.unmakeMove(undo);
+      return score;
+    }
+    int best = Integer.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      model.makeMove(moves[i], undo);
+      best = Math.max(best, -fullSearch(model, GameHelper.opponentOf(player), false));
+      model.unmakeMove(undo);
+    }
+    return best;
+  }
+
+  private int difference(IReversi model, PlayerIdentity player) {
+    CellStatus own = player == PlayerIdentity.BLACKPLAYER ? CellStatus.BLACK : CellStatus.WHITE;
+    int difference = 0;
+    for (ICell c : model.getAllCells()) {
+      if (c.getCellStatus() == own) {
+        difference++;
+      } else if (c.getCellStatus() != CellStatus.EMPTY) {
+        difference--;
+      }
+    }
+    return difference;
+  }
+
+  private int countEmpty(IReversi model) {
+    int empty = 0;
+    for (ICell c : model.getAllCells()) {
+      if (c.getCellStatus() == CellStatus.EMPTY) {
+        empty++;
+      }
+    }
+    return empty;
+  }
+
+  private void playUntilEmpty(IReversi model, Random random, int empties) {
+    while (!model.isGameOver() && countEmpty(model) > empties) {
+      List<ICell> canGo = model.getAllCellsCanGo();
+      if (canGo.isEmpty()) {
+        model.playerPass();
+      } else {
+        model.playerChooseCell(canGo.get(random.nextInt(canGo.size())).getPosition());
+        model.playerMove();
+      }
+    }
+  }
+}
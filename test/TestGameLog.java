@@ -0,0 +1,120 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import ourreversi.cell.ICell;
+import ourreversi.log.GameLog;
+import ourreversi.log.LogLevel;
+import ourreversi.log.RingBufferSink;
+import ourreversi.model.BasicReversi;
+
+/**
+ * Test the game logger and its sinks.
+ */
+public class TestGameLog {
+
+  // Moves print nothing when no sink is installed.
+  @Test
+  public void testSilentByDefault() {
+    PrintStream out = System.out;
+    ByteArrayOutputStream printed = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(printed));
+    try {
+      BasicReversi model = new BasicReversi();
+      model.initializeReversi(3);
+      for (int move = 0; move < 4; move++) {
+        List<ICell> canGo = model.getAllCellsCanGo();
+        model.playerChooseCell(canGo.get(0).getPosition());
+        model.playerMove();
+      }
+    } finally {
+      System.setOut(out);
+    }
+    Assert.assertEquals(0, printed.size());
+    Assert.assertFalse(GameLog.isEnabled(LogLevel.WARN));
+  }
+
+  // Only the events of the level or above go to the sink.
+  @Test
+  public void testLevelGated() {
+    List<String> events = new ArrayList<>();
+    GameLog.install((level, message) -> events.add(level + " " + message), LogLevel.INFO);
+    try {
+      GameLog.log(LogLevel.DEBUG, "move");
+      GameLog.log(LogLevel.INFO, "pass");
+      GameLog.log(LogLevel.WARN, "invalid");
+      GameLog.log(LogLevel.OFF, "never");
+      Assert.assertFalse(GameLog.isEnabled(LogLevel.DEBUG));
+      Assert.assertTrue(GameLog.isEnabled(LogLevel.INFO));
+    } finally {
+      GameLog.uninstall();
+    }
+    GameLog.log(LogLevel.WARN, "after");
+    Assert.assertEquals(List.of("INFO pass", "WARN invalid"), events);
+  }
+
+  // The model logs every turn at DEBUG.
+  @Test
+  public void testModelEvents() {
+    List<String> events = new ArrayList<>();
+    GameLog.install((level, message) -> events.add(message), LogLevel.DEBUG);
+    try {
+      BasicReversi model = new BasicReversi();
+      model.initializeReversi(3);
+      model.playerPass();
+    } finally {
+      GameLog.uninstall();
+    }
+    Assert.assertEquals(List.of("Notify"), events);
+  }
+
+  @Test
+  public void testRingBufferPrintsInOrder() throws InterruptedException {
+    ByteArrayOutputStream printed = new ByteArrayOutputStream();
+    try (RingBufferSink sink = new RingBufferSink(new PrintStream(printed), 16)) {
+      for (int i = 0; i < 10; i++) {
+        sink.write(LogLevel.INFO, "event " + i);
+      }
+      Assert.assertTrue(sink.flush(5000));
+    }
+    String[] lines = printed.toString().trim().split("\\R");
+    Assert.assertEquals(10, lines.length);
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals("[INFO] event " + i, lines[i]);
+    }
+  }
+
+  // A full buffer overwrites the oldest events and says how many were lost.
+  @Test
+  public void testRingBufferOverwritesOldest() {
+    ByteArrayOutputStream printed = new ByteArrayOutputStream();
+    /* printing waits while the test holds the lock, so the buffer fills up.*/
+    PrintStream slow = new PrintStream(printed) {
+      @Override
+      public void println(String line) {
+        synchronized (TestGameLog.class) {
+          super.println(line);
+        }
+      }
+    };
+    RingBufferSink sink = new RingBufferSink(slow, 4);
+    synchronized (TestGameLog.class) {
+      for (int i = 0; i < 10; i++) {
+        sink.write(LogLevel.DEBUG, "event " + i);
+      }
+    }
+    sink.close();
+    sink.write(LogLevel.DEBUG, "after close");
+    String text = printed.toString();
+    Assert.assertTrue(text, text.contains("dropped"));
+    Assert.assertFalse(text, text.contains("event 5"));
+    for (int i = 6; i < 10; i++) {
+      Assert.assertTrue(text, text.contains("[DEBUG] event " + i));
+    }
+    Assert.assertFalse(text, text.contains("after close"));
+  }
+}
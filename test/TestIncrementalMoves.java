@@ -0,0 +1,79 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Test the cells can go, updated incrementally after each turn,
+ * are the same as validating every cell of the board.
+ */
+public class TestIncrementalMoves {
+
+  @Test
+  public void testRandomGamesBasic() {
+    Random random = new Random(7);
+    for (int game = 0; game < 10; game++) {
+      IReversi model = new BasicReversi();
+      model.initializeReversi(5);
+      playRandomGame(model, random, false);
+    }
+  }
+
+  @Test
+  public void testRandomGamesSquare() {
+    Random random = new Random(7);
+    for (int game = 0; game < 10; game++) {
+      IReversi model = new SquareReversi();
+      model.initializeReversi(4);
+      playRandomGame(model, random, false);
+    }
+  }
+
+  // Cells changed from outside of the model are picked up on the next turn.
+  @Test
+  public void testRandomGamesWithOutsideChanges() {
+    Random random = new Random(11);
+    for (int game = 0; game < 10; game++) {
+      IReversi model = new BasicReversi();
+      model.initializeReversi(4);
+      playRandomGame(model, random, true);
+    }
+  }
+
+  private void playRandomGame(IReversi model, Random random, boolean changeOutside) {
+    while (!model.isGameOver()) {
+      Assert.assertEquals(validateEveryCell(model),
+              GameHelper.positionsOf(model.getAllCellsCanGo()));
+      List<ICell> canGo = model.getAllCellsCanGo();
+      if (changeOutside && random.nextInt(4) == 0) {
+        List<ICell> cells = model.getAllCells();
+        cells.get(random.nextInt(cells.size()))
+                .changeStatus(CellStatus.values()[random.nextInt(3)]);
+        model.playerPass();
+      } else if (canGo.isEmpty()) {
+        model.playerPass();
+      } else {
+        model.playerChooseCell(canGo.get(random.nextInt(canGo.size())).getPosition());
+        model.playerMove();
+      }
+    }
+  }
+
+  private List<String> validateEveryCell(IReversi model) {
+    List<ICell> valid = new ArrayList<>();
+    for (ICell c : model.getAllCells()) {
+      if (model.validMove(c, model.getCurrentPlayer())) {
+        valid.add(c);
+      }
+    }
+    return GameHelper.positionsOf(valid);
+  }
+}
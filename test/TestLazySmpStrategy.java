@@ -0,0 +1,72 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+import ourreversi.strategy.LazySmpStrategy;
+import ourreversi.strategy.SearchResult;
+
+/**
+ * Test the parallel search and the copies of the game it searches.
+ */
+public class TestLazySmpStrategy {
+
+  @Test
+  public void testCopyIsIndependent() {
+    IReversi[] models = {new BasicReversi(), new SquareReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(3);
+      GameHelper.playRandomMoves(model, new Random(3), 4);
+      IReversi copy = model.copyGame();
+      Assert.assertEquals(GameHelper.statusesOf(model), GameHelper.statusesOf(copy));
+      Assert.assertEquals(model.getCurrentPlayer(), copy.getCurrentPlayer());
+      Assert.assertEquals(model.getZobristKey(), copy.getZobristKey());
+      Assert.assertEquals(GameHelper.positionsOf(model.getAllCellsCanGo()),
+              GameHelper.positionsOf(copy.getAllCellsCanGo()));
+
+      copy.getAllCells().get(0).changeStatus(CellStatus.BLACK);
+      Assert.assertNotEquals(GameHelper.statusesOf(model), GameHelper.statusesOf(copy));
+    }
+  }
+
+  @Test
+  public void testParallelSearchReachesDepth() {
+    IReversi[] models = {new BasicReversi(), new SquareReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(4);
+      GameHelper.playRandomMoves(model, new Random(8), 6);
+      List<String> board = GameHelper.statusesOf(model);
+      PlayerIdentity player = model.getCurrentPlayer();
+      try (LazySmpStrategy strategy = new LazySmpStrategy(60000, 5, 4)) {
+        SearchResult result = strategy.search(model, player);
+        Assert.assertEquals(5, result.getDepth());
+        Assert.assertTrue(GameHelper.positionsOf(model.getAllCellsCanGo()).containsAll(
+                GameHelper.positionsOf(List.of(model.getCellOnPosition(result.getBestMove())))));
+        Assert.assertSame(result, strategy.getLastResult());
+        Assert.assertEquals(4, strategy.getThreads());
+      }
+      Assert.assertEquals(board, GameHelper.statusesOf(model));
+      Assert.assertEquals(player, model.getCurrentPlayer());
+    }
+  }
+
+  // Stopped by the budget, not by the depth: no wall clock bound, the machine may be slow.
+  @Test
+  public void testTimeBudgetStopsHelpers() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(6);
+    try (LazySmpStrategy strategy = new LazySmpStrategy(100, 64, 3)) {
+      SearchResult result = strategy.search(model, PlayerIdentity.BLACKPLAYER);
+      Assert.assertTrue(result.getDepth() >= 1 && result.getDepth() < 64);
+      Assert.assertTrue(result.getElapsedNanos() >= 100_000_000L);
+      Assert.assertNotNull(result.getBestMove());
+    }
+  }
+}
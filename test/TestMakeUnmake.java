@@ -0,0 +1,196 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PackedHexReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+import ourreversi.model.UndoRecord;
+
+/**
+ * Test making and taking back moves for a search over the game.
+ */
+public class TestMakeUnmake {
+
+  @Test
+  public void testMakeAndUnmakeRestoreTheBoard() {
+    IReversi[] models = {new BasicReversi(), new PackedHexReversi(),
+        new SquareReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(3);
+      List<String> board = GameHelper.statusesOf(model);
+      List<String> canGo = GameHelper.positionsOf(model.getAllCellsCanGo());
+      UndoRecord[] undo = new UndoRecord[8];
+      for (int i = 0; i < undo.length; i++) {
+        undo[i] = new UndoRecord();
+      }
+      search(model, undo, 0, new Random(1));
+      Assert.assertEquals(board, GameHelper.statusesOf(model));
+      Assert.assertEquals(PlayerIdentity.BLACKPLAYER, model.getCurrentPlayer());
+      Assert.assertEquals(canGo, GameHelper.positionsOf(model.getAllCellsCanGo()));
+    }
+  }
+
+  @Test
+  public void testMakeMoveSameAsPlayerMove() {
+    IReversi[] models = {new BasicReversi(), new PackedHexReversi(),
+        new SquareReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(3);
+      IReversi played = newModelLike(model);
+      played.initializeReversi(3);
+      UndoRecord undo = new UndoRecord();
+      int[] moves = new int[model.getAllCells().size()];
+      Random random = new Random(9);
+      while (!played.isGameOver()) {
+        int count = model.generateMoves(moves);
+        Assert.assertEquals(GameHelper.positionsOf(played.getAllCellsCanGo()),
+                GameHelper.positionsOf(cellsOf(model, moves, count)));
+        if (count == 0) {
+          model.makePass(undo);
+          played.playerPass();
+          continue;
+        }
+        int move = moves[random.nextInt(count)];
+        played.playerChooseCell(model.getAllCells().get(move).getPosition());
+        int flips = played.getNumChessAbleToFlip();
+        played.playerMove();
+        model.makeMove(move, undo);
+        Assert.assertEquals(flips, undo.getFlipCount());
+        Assert.assertEquals(move, undo.getMove());
+        Assert.assertEquals(GameHelper.statusesOf(played), GameHelper.statusesOf(model));
+      }
+    }
+  }
+
+  // Walk a random part of the game tree, checking each move is taken back exactly.
+  @Test
+  public void testCellsCanGoReadAfterMakeMove() {
+    IReversi[] models = {new BitboardReversi(), new PackedHexReversi(),
+        new SquareReversi(), new BasicReversi()};
+    int[] sizes = {8, 5, 8, 5};
+    for (int m = 0; m < models.length; m++) {
+      IReversi model = models[m];
+      model.initializeReversi(sizes[m]);
+      int[] moves = new int[model.getAllCells().size()];
+      UndoRecord[] undo = new UndoRecord[12];
+      Random random = new Random(4);
+      for (int ply = 0; ply < undo.length; ply++) {
+        undo[ply] = new UndoRecord();
+        int count = model.generateMoves(moves);
+        if (count == 0) {
+          model.makePass(undo[ply]);
+        } else {
+          model.makeMove(moves[random.nextInt(count)], undo[ply]);
+        }
+        assertCellsCanGoSameAsMoves(model, moves);
+      }
+      for (int ply = undo.length - 1; ply >= 0; ply--) {
+        model.unmakeMove(undo[ply]);
+        assertCellsCanGoSameAsMoves(model, moves);
+      }
+    }
+  }
+
+  @Test
+  public void testCellsCanGoFromManyThreads() throws Exception {
+    IReversi[] models = {new BitboardReversi(), new PackedHexReversi(),
+        new SquareReversi(), new BasicReversi()};
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      for (IReversi model : models) {
+        model.initializeReversi(6);
+        int[] moves = new int[model.getAllCells().size()];
+        UndoRecord undo = new UndoRecord();
+        Random random = new Random(6);
+        for (int ply = 0; ply < 10; ply++) {
+          int count = model.generateMoves(moves);
+          model.makeMove(moves[random.nextInt(count)], undo);
+          List<String> expected = GameHelper.positionsOf(
+                  cellsOf(model, moves, model.generateMoves(moves)));
+          model.makePass(undo);
+          model.unmakeMove(undo);
+          /* the moves are stale now, the threads all read them at once.*/
+          List<Future<List<String>>> results = new ArrayList<>();
+          for (int t = 0; t < 8; t++) {
+            boolean bySnapshot = t % 2 == 0;
+            results.add(pool.submit(() -> GameHelper.positionsOf(bySnapshot
+                    ? model.snapshot().getAllCellsCanGo() : model.getAllCellsCanGo())));
+          }
+          for (Future<List<String>> result : results) {
+            Assert.assertEquals(expected, result.get());
+          }
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private void search(IReversi model, UndoRecord[] undo, int ply, Random random) {
+    if (ply == undo.length) {
+      return;
+    }
+    int[] moves = new int[model.getAllCells().size()];
+    int count = model.generateMoves(moves);
+    List<String> board = GameHelper.statusesOf(model);
+    PlayerIdentity player = model.getCurrentPlayer();
+    if (count == 0) {
+      model.makePass(undo[ply]);
+      search(model, undo, ply + 1, random);
+      model.unmakeMove(undo[ply]);
+      Assert.assertEquals(player, model.getCurrentPlayer());
+      return;
+    }
+    for (int i = 0; i < count; i++) {
+      if (i > 0 && random.nextInt(3) != 0) {
+        continue;
+      }
+      model.makeMove(moves[i], undo[ply]);
+      Assert.assertNotEquals(player, model.getCurrentPlayer());
+      search(model, undo, ply + 1, random);
+      model.unmakeMove(undo[ply]);
+      Assert.assertEquals(board, GameHelper.statusesOf(model));
+      Assert.assertEquals(player, model.getCurrentPlayer());
+    }
+  }
+
+  // The cells can go and the snapshot of the model list the moves generateMoves finds.
+  private void assertCellsCanGoSameAsMoves(IReversi model, int[] moves) {
+    List<String> expected = GameHelper.positionsOf(
+            cellsOf(model, moves, model.generateMoves(moves)));
+    Assert.assertEquals(expected, GameHelper.positionsOf(model.getAllCellsCanGo()));
+    Assert.assertEquals(expected, GameHelper.positionsOf(model.snapshot().getAllCellsCanGo()));
+  }
+
+  private IReversi newModelLike(IReversi model) {
+    if (model instanceof BasicReversi) {
+      return new BasicReversi();
+    }
+    if (model instanceof PackedHexReversi) {
+      return new PackedHexReversi();
+    }
+    if (model instanceof SquareReversi) {
+      return new SquareReversi();
+    }
+    return new BitboardReversi();
+  }
+
+  private List<ICell> cellsOf(IReversi model, int[] moves, int count) {
+    List<ICell> cells = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      cells.add(model.getAllCells().get(moves[i]));
+    }
+    return cells;
+  }
+}
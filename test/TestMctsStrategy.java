@@ -0,0 +1,97 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.SquareCellPosition;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+import ourreversi.strategy.MctsStrategy;
+import ourreversi.strategy.SearchResult;
+
+/**
+ * Test the Monte Carlo tree search strategy.
+ */
+public class TestMctsStrategy {
+
+  @Test
+  public void testChoosesValidMoveWithManyThreads() {
+    IReversi[] models = {new BasicReversi(), new SquareReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(5);
+      GameHelper.playRandomMoves(model, new Random(6), 6);
+      List<String> board = GameHelper.statusesOf(model);
+      PlayerIdentity player = model.getCurrentPlayer();
+      try (MctsStrategy strategy = new MctsStrategy(60000, 4000, 4,
+              MctsStrategy.DEFAULT_EXPLORATION)) {
+        SearchResult result = strategy.search(model, player);
+        Assert.assertTrue(model.getAllCellsCanGo()
+                .contains(model.getCellOnPosition(result.getBestMove())));
+        Assert.assertTrue(result.getNodes() >= 4000);
+        Assert.assertTrue(result.getNodes() < 4000 + 4);
+        Assert.assertTrue(result.getDepth() >= 1);
+        Assert.assertTrue(strategy.getPlayoutsPerSecond() > 0);
+        Assert.assertTrue(strategy.getTreeNodes() > model.getAllCellsCanGo().size());
+        Assert.assertTrue(strategy.getTreeBytes() > strategy.getTreeNodes());
+        Assert.assertSame(result, strategy.getLastResult());
+      }
+      Assert.assertEquals(board, GameHelper.statusesOf(model));
+      Assert.assertEquals(player, model.getCurrentPlayer());
+    }
+  }
+
+  // Stopped by the budget, not by the playouts: no wall clock bound, the machine may be slow.
+  @Test
+  public void testTimeBudgetIsKept() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(8);
+    try (MctsStrategy strategy = new MctsStrategy(100, Long.MAX_VALUE, 2, 1.0)) {
+      SearchResult result = strategy.search(model, PlayerIdentity.BLACKPLAYER);
+      Assert.assertTrue(result.getNodes() > 0);
+      Assert.assertTrue(result.getElapsedNanos() >= 100_000_000L);
+      Assert.assertNotNull(result.getBestMove());
+    }
+  }
+
+  // Takes the corner that wins every chess on the board.
+  @Test
+  public void testTakesTheWinningMove() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(2);
+    for (ICell c : model.getAllCells()) {
+      c.changeStatus(CellStatus.EMPTY);
+    }
+    /* black flips every white chess on (1, 0), and only one of them on (0, 0) or (0, 2).*/
+    model.getCellOnPosition(new SquareCellPosition(1, 1)).changeStatus(CellStatus.WHITE);
+    model.getCellOnPosition(new SquareCellPosition(1, 2)).changeStatus(CellStatus.WHITE);
+    model.getCellOnPosition(new SquareCellPosition(1, 3)).changeStatus(CellStatus.BLACK);
+    model.getCellOnPosition(new SquareCellPosition(2, 2)).changeStatus(CellStatus.BLACK);
+    MctsStrategy strategy = new MctsStrategy(60000, 3000, 1, MctsStrategy.DEFAULT_EXPLORATION);
+    SearchResult result = strategy.search(model, PlayerIdentity.BLACKPLAYER);
+    Assert.assertEquals(1, result.getBestMove().xGetter());
+    Assert.assertEquals(0, result.getBestMove().yGetter());
+    Assert.assertEquals(1000, result.getScore());
+  }
+
+  @Test
+  public void testPassWhenNoMove() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(2);
+    for (ICell c : model.getAllCells()) {
+      c.changeStatus(CellStatus.BLACK);
+    }
+    model.getAllCells().get(0).changeStatus(CellStatus.EMPTY);
+    SearchResult result = new MctsStrategy(1000).search(model, PlayerIdentity.WHITEPLAYER);
+    Assert.assertNull(result.getBestMove());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThread() {
+    new MctsStrategy(1000, 10, 0, 1.0);
+  }
+}
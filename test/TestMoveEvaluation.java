@@ -0,0 +1,119 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import ourreversi.cell.CellPosition;
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.MoveEvaluation;
+import ourreversi.model.PackedHexReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Test the side-effect-free move evaluation of the models.
+ */
+public class TestMoveEvaluation {
+
+  @Test
+  public void testEvaluateDoesNotChangeChosenCell() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(2);
+    model.playerChooseCell(new CellPosition(2, -1, -1));
+    Assert.assertEquals(1, model.getNumChessAbleToFlip());
+
+    MoveEvaluation evaluation = model.evaluateMove(new CellPosition(-1, -1, 2),
+            PlayerIdentity.BLACKPLAYER);
+    Assert.assertTrue(evaluation.isValid());
+    Assert.assertEquals(1, evaluation.getFlipCount());
+    Assert.assertEquals(new CellPosition(-1, 0, 1), evaluation.getFlippedPositions().get(0));
+
+    Assert.assertEquals(1, model.getNumChessAbleToFlip());
+    Assert.assertEquals(new CellPosition(2, -1, -1), model.getChosenCell().getPosition());
+  }
+
+  @Test
+  public void testEvaluateOutOfBoardAndOccupied() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(2);
+    Assert.assertFalse(model.evaluateMove(new CellPosition(3, -3, 0),
+            PlayerIdentity.BLACKPLAYER).isValid());
+    Assert.assertFalse(model.evaluateMove(new CellPosition(0, -1, 1),
+            PlayerIdentity.BLACKPLAYER).isValid());
+    Assert.assertThrows(UnsupportedOperationException.class, () ->
+            model.evaluateMove(new CellPosition(-1, -1, 2), PlayerIdentity.BLACKPLAYER)
+                    .getFlippedPositions().clear());
+  }
+
+  @Test
+  public void testEvaluateSameAsNumAbleToFlip() {
+    IReversi[] models = {new BasicReversi(), new PackedHexReversi(),
+        new SquareReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(5);
+      GameHelper.playRandomMoves(model, new Random(3), 20);
+      for (ICell c : model.getAllCells()) {
+        for (PlayerIdentity player : PlayerIdentity.values()) {
+          MoveEvaluation evaluation = model.evaluateMove(c.getPosition(), player);
+          int flips = c.getCellStatus() == CellStatus.EMPTY ? model.numAbleToFlip(c, player) : 0;
+          Assert.assertEquals(flips, evaluation.getFlipCount());
+          Assert.assertEquals(model.validMove(c, player), evaluation.isValid());
+        }
+      }
+    }
+  }
+
+  // A taken cell flips nothing, even where a row of the opponent's chess ends there.
+  @Test
+  public void testEvaluateTakenCellFlipsNothing() {
+    IReversi[] models = {new BasicReversi(), new PackedHexReversi(),
+        new SquareReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(5);
+      GameHelper.playRandomMoves(model, new Random(3), 20);
+      int rowsEndingOnTakenCells = 0;
+      for (ICell c : model.getAllCells()) {
+        if (c.getCellStatus() == CellStatus.EMPTY) {
+          continue;
+        }
+        for (PlayerIdentity player : PlayerIdentity.values()) {
+          rowsEndingOnTakenCells += model.numAbleToFlip(c, player);
+          for (MoveEvaluation evaluation : List.of(model.evaluateMove(c.getPosition(), player),
+                  model.snapshot().evaluateMove(c.getPosition(), player))) {
+            Assert.assertFalse(evaluation.isValid());
+            Assert.assertTrue(evaluation.getFlippedPositions().isEmpty());
+          }
+        }
+      }
+      Assert.assertTrue(rowsEndingOnTakenCells > 0);
+    }
+  }
+
+  // Many threads evaluate moves on one shared model at the same time.
+  @Test
+  public void testEvaluateFromManyThreads() {
+    IReversi[] models = {new BasicReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(6);
+      GameHelper.playRandomMoves(model, new Random(5), 30);
+      List<ICell> cells = model.getAllCells();
+      List<Integer> sequential = cells.stream()
+              .map(c -> model.evaluateMove(c.getPosition(), model.getCurrentPlayer()))
+              .map(MoveEvaluation::getFlipCount)
+              .collect(Collectors.toList());
+      for (int round = 0; round < 20; round++) {
+        List<Integer> parallel = cells.parallelStream()
+                .map(c -> model.evaluateMove(c.getPosition(), model.getCurrentPlayer()))
+                .map(MoveEvaluation::getFlipCount)
+                .collect(Collectors.toList());
+        Assert.assertEquals(sequential, parallel);
+      }
+    }
+  }
+}
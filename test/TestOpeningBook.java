@@ -0,0 +1,133 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import ourreversi.book.OpeningBook;
+import ourreversi.book.OpeningBookBuilder;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Test the opening book and its builder.
+ */
+public class TestOpeningBook {
+
+  // Plays the first cell it can go.
+  private static ICellPosition firstCell(IReversi model, PlayerIdentity player) {
+    List<ICell> canGo = model.getAllCellsCanGo();
+    return canGo.isEmpty() ? null : canGo.get(0).getPosition();
+  }
+
+  // A position equal by a symmetry finds the same move, moved by the symmetry.
+  @Test
+  public void testSymmetricPositionsShareEntries() throws IOException {
+    IReversi square = new SquareReversi();
+    square.initializeReversi(4);
+    GameHelper.playRandomMoves(square, new Random(3), 5);
+    checkSymmetric(square, new SquareReversi(), 4, (x, y, z) -> new int[] {7 - y, x, 0});
+    checkSymmetric(square, new SquareReversi(), 4, (x, y, z) -> new int[] {y, x, 0});
+
+    IReversi hex = new BasicReversi();
+    hex.initializeReversi(3);
+    GameHelper.playRandomMoves(hex, new Random(3), 5);
+    checkSymmetric(hex, new BasicReversi(), 3, (x, y, z) -> new int[] {-z, -x, -y});
+    checkSymmetric(hex, new BasicReversi(), 3, (x, y, z) -> new int[] {x, z, y});
+    checkSymmetric(hex, new BasicReversi(), 3, (x, y, z) -> new int[] {-y, -x, -z});
+  }
+
+  @Test
+  public void testSelfPlayAndGrow() throws IOException {
+    OpeningBookBuilder builder = new OpeningBookBuilder(4);
+    builder.selfPlay(SquareReversi::new, 3, 6, TestOpeningBook::firstCell, 0.5,
+            new Random(1));
+    Path file = Files.createTempFile("book", ".bin");
+    builder.write(file);
+    OpeningBook book = OpeningBook.open(file);
+    Assert.assertEquals(builder.size(), book.size());
+    Assert.assertTrue(book.size() > 4);
+
+    /* every game starts in the same position, so it is in the book.*/
+    IReversi model = new SquareReversi();
+    model.initializeReversi(3);
+    ICellPosition move = book.lookup(model, PlayerIdentity.BLACKPLAYER, 1);
+    Assert.assertTrue(model.validMove(model.getCellOnPosition(move),
+            PlayerIdentity.BLACKPLAYER));
+    Assert.assertNull(book.lookup(model, PlayerIdentity.BLACKPLAYER, 7));
+
+    OpeningBookBuilder grown = new OpeningBookBuilder(4);
+    grown.addBook(book);
+    Assert.assertEquals(book.size(), grown.size());
+    grown.selfPlay(SquareReversi::new, 3, 2, TestOpeningBook::firstCell, 1, new Random(2));
+    grown.write(file);
+    Assert.assertNotNull(OpeningBook.open(file).lookup(model, PlayerIdentity.BLACKPLAYER, 7));
+    Files.delete(file);
+  }
+
+  @Test
+  public void testPositionNotInBook() throws IOException {
+    OpeningBookBuilder builder = new OpeningBookBuilder(1);
+    builder.selfPlay(BasicReversi::new, 2, 1, TestOpeningBook::firstCell, 0, new Random(1));
+    Path file = Files.createTempFile("book", ".bin");
+    builder.write(file);
+    IReversi model = new BasicReversi();
+    model.initializeReversi(3);
+    Assert.assertNull(OpeningBook.open(file).lookup(model, PlayerIdentity.BLACKPLAYER, 1));
+    Files.delete(file);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotABook() throws IOException {
+    Path file = Files.createTempFile("book", ".bin");
+    Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+    try {
+      OpeningBook.open(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  private interface Symmetry {
+    int[] apply(int x, int y, int z);
+  }
+
+  private void checkSymmetric(IReversi model, IReversi moved, int size, Symmetry symmetry)
+          throws IOException {
+    PlayerIdentity player = model.getCurrentPlayer();
+    OpeningBookBuilder builder = new OpeningBookBuilder(1);
+    builder.playGame(model.copyGame(), TestOpeningBook::firstCell, 0, new Random(0));
+    Path file = Files.createTempFile("book", ".bin");
+    builder.write(file);
+    OpeningBook book = OpeningBook.open(file);
+    Files.delete(file);
+    ICellPosition move = book.lookup(model, player, 1);
+    Assert.assertEquals(firstCell(model, player), move);
+
+    moved.initializeReversi(size);
+    for (ICell c : model.getAllCells()) {
+      cellAt(moved, symmetry.apply(c.getPosition().xGetter(), c.getPosition().yGetter(),
+              c.getPosition().zGetter())).changeStatus(c.getCellStatus());
+    }
+    moved.setCurrentPlayerIdentity(player);
+    Assert.assertSame(cellAt(moved, symmetry.apply(move.xGetter(), move.yGetter(),
+            move.zGetter())).getPosition(), book.lookup(moved, player, 1));
+  }
+
+  private ICell cellAt(IReversi model, int[] xyz) {
+    for (ICell c : model.getAllCells()) {
+      if (c.getPosition().xGetter() == xyz[0] && c.getPosition().yGetter() == xyz[1]
+              && c.getPosition().zGetter() == xyz[2]) {
+        return c;
+      }
+    }
+    throw new IllegalArgumentException("No cell at " + xyz[0] + " " + xyz[1] + " " + xyz[2]);
+  }
+}
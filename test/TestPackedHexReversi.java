@@ -0,0 +1,99 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.SquareCellPosition;
+import ourreversi.cell.CellPosition;
+import ourreversi.model.PackedHexReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.Player;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.BasicReversi;
+
+/**
+ * Test the packed hexagon model plays exactly the same as the basic reversi model.
+ */
+public class TestPackedHexReversi {
+
+  @Test
+  public void testThrowWithTooSmallSize() {
+    IReversi model = new PackedHexReversi();
+    Assert.assertThrows(IllegalArgumentException.class, () -> model.initializeReversi(1));
+  }
+
+  @Test
+  public void testInitializeBoard() {
+    IReversi reference = new BasicReversi();
+    IReversi model = new PackedHexReversi();
+    reference.initializeReversi(2);
+    model.initializeReversi(2);
+    GameHelper.assertSameState(reference, model);
+    Assert.assertEquals(CellStatus.WHITE,
+            model.getCellOnPosition(new CellPosition(1, -1, 0)).getCellStatus());
+    Assert.assertEquals(CellStatus.BLACK,
+            model.getCellOnPosition(new CellPosition(0, -1, 1)).getCellStatus());
+    Assert.assertEquals(CellStatus.EMPTY,
+            model.getCellOnPosition(new CellPosition(0, 0, 0)).getCellStatus());
+    Assert.assertNull(model.getCellOnPosition(new CellPosition(3, -1, -2)));
+  }
+
+  @Test
+  public void testRandomGamesSameAsBasicReversi() {
+    Random random = new Random(42);
+    for (int size = 2; size <= 6; size++) {
+      for (int game = 0; game < 10; game++) {
+        GameHelper.playSameRandomGame(new BasicReversi(), new PackedHexReversi(), size, random);
+      }
+    }
+  }
+
+  @Test
+  public void testChangeStatusWritesToBoard() {
+    IReversi model = new PackedHexReversi();
+    model.initializeReversi(2);
+    ICell cell = model.getCellOnPosition(new CellPosition(0, -2, 2));
+    cell.changeStatus(CellStatus.WHITE);
+    Assert.assertEquals(4, model.getScore(new Player(PlayerIdentity.WHITEPLAYER)));
+    cell.changeStatus(CellStatus.EMPTY);
+    Assert.assertEquals(3, model.getScore(new Player(PlayerIdentity.WHITEPLAYER)));
+  }
+
+  // Cells are views made when asked for: equal to each other, and always up to date.
+  @Test
+  public void testCellViews() {
+    IReversi model = new PackedHexReversi();
+    model.initializeReversi(30);
+    ICell cell = model.getCellOnPosition(new CellPosition(0, -1, 1));
+    ICell same = model.getAllCells().get(model.getAllCells().indexOf(cell));
+    Assert.assertEquals(cell, same);
+    Assert.assertEquals(cell.hashCode(), same.hashCode());
+    Assert.assertEquals(cell.getPosition(), same.getPosition());
+    same.changeStatus(CellStatus.EMPTY);
+    Assert.assertEquals(CellStatus.EMPTY, cell.getCellStatus());
+    Assert.assertNull(model.getCellOnPosition(new SquareCellPosition(0, 0)));
+  }
+
+  @Test
+  public void testEqualsIsSymmetric() {
+    IReversi reference = new BasicReversi();
+    IReversi model = new PackedHexReversi();
+    IReversi other = new PackedHexReversi();
+    reference.initializeReversi(3);
+    model.initializeReversi(3);
+    other.initializeReversi(3);
+    for (int i = 0; i < model.getAllCells().size(); i++) {
+      ICell cell = reference.getAllCells().get(i);
+      ICell view = model.getAllCells().get(i);
+      ICell otherView = other.getAllCells().get(i);
+      Assert.assertEquals(cell.getPosition(), view.getPosition());
+      Assert.assertEquals(cell.getCellStatus(), view.getCellStatus());
+      Assert.assertNotEquals(cell, view);
+      Assert.assertNotEquals(view, cell);
+      Assert.assertEquals(view, otherView);
+      Assert.assertEquals(otherView, view);
+    }
+  }
+}
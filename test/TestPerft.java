@@ -0,0 +1,76 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import ourreversi.benchmark.Perft;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PackedHexReversi;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Test the perft counts of every model against the reference counts.
+ */
+public class TestPerft {
+
+  // Every model counts the reference counts, sequential and parallel.
+  @Test
+  public void testModelsMatchReference() {
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      check(new BasicReversi(), "basic", 3, 6, pool);
+      check(new PackedHexReversi(), "basic", 3, 6, pool);
+      check(new BasicReversi(), "basic", 2, 7, pool);
+      check(new SquareReversi(), "square", 4, 6, pool);
+      check(new BitboardReversi(), "square", 4, 6, pool);
+      check(new SquareReversi(), "square", 2, 12, pool);
+      check(new BitboardReversi(), "square", 3, 6, pool);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  // The slow count with playerMove and playerPass agrees with the table.
+  @Test
+  public void testReferenceCountsOfObjectModel() {
+    long[] expected = Perft.referenceCounts("square", 2);
+    for (int depth = 0; depth <= 8; depth++) {
+      IReversi model = new SquareReversi();
+      model.initializeReversi(2);
+      Assert.assertEquals(expected[depth], Perft.reference(model, depth));
+    }
+    expected = Perft.referenceCounts("basic", 3);
+    for (int depth = 0; depth <= 4; depth++) {
+      IReversi model = new BasicReversi();
+      model.initializeReversi(3);
+      Assert.assertEquals(expected[depth], Perft.reference(model, depth));
+    }
+  }
+
+  // The 8 by 8 board counts the well known counts of Othello.
+  @Test
+  public void testOthelloCounts() {
+    Assert.assertArrayEquals(new long[] {1, 4, 12, 56, 244, 1396, 8200, 55092, 390216, 3005288},
+            Perft.referenceCounts("square", 4));
+  }
+
+  @Test
+  public void testNoReferenceCounts() {
+    Assert.assertEquals(0, Perft.referenceCounts("square", 9).length);
+  }
+
+  private static void check(IReversi model, String shape, int size, int depth,
+                            ForkJoinPool pool) {
+    model.initializeReversi(size);
+    long[] expected = Perft.referenceCounts(shape, size);
+    long key = model.getZobristKey();
+    for (int d = 0; d <= depth; d++) {
+      Assert.assertEquals(shape + " " + size + " depth " + d, expected[d],
+              Perft.count(model, d));
+      Assert.assertEquals(expected[d], Perft.count(model, d, pool));
+    }
+    Assert.assertEquals(key, model.getZobristKey());
+  }
+}
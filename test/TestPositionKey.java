@@ -0,0 +1,155 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import ourreversi.cell.Cell;
+import ourreversi.cell.CellPosition;
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.cell.PositionIndex;
+import ourreversi.cell.PositionKey;
+import ourreversi.cell.SquareCellPosition;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Test the packed position keys, the value hash codes of positions and cells, and the
+ * position index of a board.
+ */
+public class TestPositionKey {
+
+  @Test
+  public void testKeyGivesBackTheCoordinates() {
+    int[] values = {0, 1, -1, 7, -7, PositionKey.MIN, PositionKey.MAX};
+    for (int x : values) {
+      for (int y : values) {
+        for (int z : values) {
+          long key = PositionKey.of(x, y, z);
+          Assert.assertEquals(x, PositionKey.x(key));
+          Assert.assertEquals(y, PositionKey.y(key));
+          Assert.assertEquals(z, PositionKey.z(key));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDifferentCoordinatesHaveDifferentKeys() {
+    Set<Long> keys = new HashSet<>();
+    for (int x = -5; x <= 5; x++) {
+      for (int y = -5; y <= 5; y++) {
+        for (int z = -5; z <= 5; z++) {
+          Assert.assertTrue(keys.add(PositionKey.of(x, y, z)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testThrowOutOfRange() {
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PositionKey.of(PositionKey.MAX + 1, 0, 0));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> PositionKey.of(0, 0, PositionKey.MIN - 1));
+  }
+
+  @Test
+  public void testEqualSquarePositionsHashEqual() {
+    SquareCellPosition a = new SquareCellPosition(3, 4);
+    SquareCellPosition b = new SquareCellPosition(3, 4);
+    Assert.assertEquals(a, b);
+    Assert.assertEquals(a.hashCode(), b.hashCode());
+
+    Map<ICellPosition, String> map = new HashMap<>();
+    map.put(a, "a");
+    Assert.assertEquals("a", map.get(b));
+  }
+
+  @Test
+  public void testCellHashIsStableWhenFlipped() {
+    Cell a = new Cell(new SquareCellPosition(1, 2), CellStatus.EMPTY);
+    Cell b = new Cell(new SquareCellPosition(1, 2), CellStatus.EMPTY);
+    Assert.assertEquals(a, b);
+    Assert.assertEquals(a.hashCode(), b.hashCode());
+
+    Set<ICell> set = new HashSet<>();
+    set.add(a);
+    int hash = a.hashCode();
+    a.changeStatus(CellStatus.BLACK);
+    Assert.assertEquals(hash, a.hashCode());
+    Assert.assertTrue(set.contains(a));
+  }
+
+  @Test
+  public void testIndexInternsThePositions() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(3);
+    model.startGame();
+    List<ICell> cells = model.getAllCells();
+    List<ICellPosition> positions = new ArrayList<>();
+    for (ICell cell : cells) {
+      positions.add(cell.getPosition());
+    }
+    PositionIndex index = new PositionIndex(positions);
+    Assert.assertEquals(cells.size(), index.size());
+    for (int i = 0; i < cells.size(); i++) {
+      ICellPosition posn = cells.get(i).getPosition();
+      ICellPosition copy = new SquareCellPosition(posn.xGetter(), posn.yGetter());
+      Assert.assertEquals(i, index.indexOf(copy));
+      Assert.assertSame(posn, index.intern(copy));
+      Assert.assertSame(posn, index.positionAt(i));
+    }
+    Assert.assertEquals(-1, index.indexOf(new SquareCellPosition(6, 0)));
+    Assert.assertNull(index.intern(new SquareCellPosition(-1, 0)));
+  }
+
+  @Test
+  public void testIndexTellsShapesApart() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(2);
+    model.startGame();
+    List<ICellPosition> positions = new ArrayList<>();
+    for (ICell cell : model.getAllCells()) {
+      positions.add(cell.getPosition());
+    }
+    PositionIndex index = new PositionIndex(positions);
+    /* a hexagon position with the same coordinates has the same key.*/
+    Assert.assertTrue(index.indexOf(PositionKey.of(1, 1, 0)) >= 0);
+    Assert.assertEquals(-1, index.indexOf(new CellPosition(1, 1, 0)));
+  }
+
+  @Test
+  public void testGetCellOnPosition() {
+    IReversi basic = new BasicReversi();
+    basic.initializeReversi(3);
+    basic.startGame();
+    for (ICell cell : basic.getAllCells()) {
+      ICellPosition posn = cell.getPosition();
+      ICell found = basic.getCellOnPosition(
+          new CellPosition(posn.xGetter(), posn.yGetter(), posn.zGetter()));
+      Assert.assertSame(cell, found);
+    }
+    Assert.assertNull(basic.getCellOnPosition(new CellPosition(4, -4, 0)));
+    Assert.assertNull(basic.getCellOnPosition(new SquareCellPosition(0, 0)));
+
+    IReversi square = new SquareReversi();
+    square.initializeReversi(3);
+    square.startGame();
+    for (ICell cell : square.getAllCells()) {
+      ICellPosition posn = cell.getPosition();
+      ICell found = square.getCellOnPosition(
+          new SquareCellPosition(posn.xGetter(), posn.yGetter()));
+      Assert.assertSame(cell, found);
+    }
+    Assert.assertNull(square.getCellOnPosition(new SquareCellPosition(6, 6)));
+    Assert.assertNull(square.getCellOnPosition(new CellPosition(0, 0, 0)));
+  }
+}
@@ -0,0 +1,78 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import ourreversi.cell.CellPosition;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.cell.SquareCellPosition;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Test the cells are looked up by position in constant time: every cell is found by an
+ * equal position, positions off the board or of the other board are not, and a big
+ * board sets up without scanning the cells for every neighbor.
+ */
+public class TestPositionLookup {
+
+  // A linear scan per neighbor took about a minute to set up this board.
+  private static final int BIG_SIZE = 150;
+  // Far more than the setup takes with the lookup, so a slow machine does not fail it.
+  private static final long BIG_SETUP_NANOS = 20_000_000_000L;
+
+  @Test
+  public void testFindEveryHexagonCell() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(30);
+    for (ICell cell : model.getAllCells()) {
+      ICellPosition posn = cell.getPosition();
+      Assert.assertSame(cell, model.getCellOnPosition(
+              new CellPosition(posn.xGetter(), posn.yGetter(), posn.zGetter())));
+    }
+  }
+
+  @Test
+  public void testFindEverySquareCell() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(30);
+    for (ICell cell : model.getAllCells()) {
+      ICellPosition posn = cell.getPosition();
+      Assert.assertSame(cell, model.getCellOnPosition(
+              new SquareCellPosition(posn.xGetter(), posn.yGetter())));
+    }
+  }
+
+  @Test
+  public void testNullOffTheHexagonBoard() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(3);
+    Assert.assertNull(model.getCellOnPosition(new CellPosition(4, -4, 0)));
+    Assert.assertNull(model.getCellOnPosition(new CellPosition(-4, 0, 4)));
+    Assert.assertNull(model.getCellOnPosition(new CellPosition(0, 4, -4)));
+    /* x + y + z is not 0, no cell has it even inside the bounds.*/
+    Assert.assertNull(model.getCellOnPosition(new CellPosition(1, 1, 1)));
+    Assert.assertNull(model.getCellOnPosition(new SquareCellPosition(0, 0)));
+  }
+
+  @Test
+  public void testNullOffTheSquareBoard() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(3);
+    Assert.assertNull(model.getCellOnPosition(new SquareCellPosition(-1, 0)));
+    Assert.assertNull(model.getCellOnPosition(new SquareCellPosition(0, 6)));
+    Assert.assertNull(model.getCellOnPosition(new SquareCellPosition(6, 6)));
+    Assert.assertNull(model.getCellOnPosition(new CellPosition(0, 0, 0)));
+  }
+
+  @Test
+  public void testBigBoardSetsUpFast() {
+    long start = System.nanoTime();
+    IReversi model = new BasicReversi();
+    model.initializeReversi(BIG_SIZE);
+    long elapsed = System.nanoTime() - start;
+    Assert.assertTrue("Set up in " + elapsed / 1_000_000 + " ms", elapsed < BIG_SETUP_NANOS);
+    Assert.assertNotNull(model.getCellOnPosition(new CellPosition(BIG_SIZE, -BIG_SIZE, 0)));
+    Assert.assertNull(model.getCellOnPosition(new CellPosition(BIG_SIZE + 1, -BIG_SIZE - 1, 0)));
+  }
+}
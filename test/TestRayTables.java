@@ -0,0 +1,144 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+
+/**
+ * Test the moves validated and flipped along the ray tables are the same as walking the
+ * surrounding cells one by one.
+ */
+public class TestRayTables {
+
+  @Test
+  public void testNumAbleToFlipSameAsWalk() {
+    IReversi[] models = {new BasicReversi(), new SquareReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(4);
+      Random random = new Random(11);
+      while (!model.isGameOver()) {
+        for (ICell c : model.getAllCells()) {
+          for (PlayerIdentity player : PlayerIdentity.values()) {
+            Assert.assertEquals(walkFlips(model, c, player, null),
+                    model.numAbleToFlip(c, player));
+          }
+        }
+        playRandomMove(model, random);
+      }
+    }
+  }
+
+  @Test
+  public void testMoveFlipsSameAsWalk() {
+    IReversi[] models = {new BasicReversi(), new SquareReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(4);
+      Random random = new Random(5);
+      while (!model.isGameOver()) {
+        List<ICell> canGo = model.getAllCellsCanGo();
+        if (canGo.isEmpty()) {
+          model.playerPass();
+          continue;
+        }
+        ICell chosen = canGo.get(random.nextInt(canGo.size()));
+        PlayerIdentity player = model.getCurrentPlayer();
+        List<ICell> flipped = new ArrayList<>();
+        walkFlips(model, chosen, player, flipped);
+        model.playerChooseCell(chosen.getPosition());
+        model.playerMove();
+        CellStatus color = player == PlayerIdentity.BLACKPLAYER
+                ? CellStatus.BLACK : CellStatus.WHITE;
+        Assert.assertEquals(color, cellAt(model, chosen).getCellStatus());
+        for (ICell c : flipped) {
+          Assert.assertEquals(color, cellAt(model, c).getCellStatus());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testGamesCreatedTogetherPlayTheSame() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<List<CellStatus>>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        IReversi model = i % 2 == 0 ? new BasicReversi() : new SquareReversi();
+        results.add(pool.submit(() -> playToEnd(model, 6)));
+      }
+      List<CellStatus> basic = playToEnd(new BasicReversi(), 6);
+      List<CellStatus> square = playToEnd(new SquareReversi(), 6);
+      for (int i = 0; i < results.size(); i++) {
+        Assert.assertEquals(i % 2 == 0 ? basic : square, results.get(i).get());
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  // Count the flips of the player on c by walking the surrounding cells, collecting the
+  // flipped cells into flipped if not null.
+  private int walkFlips(IReversi model, ICell c, PlayerIdentity player, List<ICell> flipped) {
+    CellStatus own = player == PlayerIdentity.BLACKPLAYER ? CellStatus.BLACK : CellStatus.WHITE;
+    List<ICell> around = model.getSurroundingCells(c);
+    int count = 0;
+    for (int d = 0; d < around.size(); d++) {
+      List<ICell> row = new ArrayList<>();
+      ICell next = around.get(d);
+      while (next != null && next.getCellStatus() != CellStatus.EMPTY
+              && next.getCellStatus() != own) {
+        row.add(next);
+        next = model.getSurroundingCells(next).get(d);
+      }
+      if (next != null && next.getCellStatus() == own) {
+        count += row.size();
+        if (flipped != null) {
+          flipped.addAll(row);
+        }
+      }
+    }
+    return count;
+  }
+
+  private ICell cellAt(IReversi model, ICell c) {
+    for (ICell cell : model.getAllCells()) {
+      if (cell.getPosition().equals(c.getPosition())) {
+        return cell;
+      }
+    }
+    throw new IllegalStateException("No such cell.");
+  }
+
+  private void playRandomMove(IReversi model, Random random) {
+    List<ICell> canGo = model.getAllCellsCanGo();
+    if (canGo.isEmpty()) {
+      model.playerPass();
+    } else {
+      model.playerChooseCell(canGo.get(random.nextInt(canGo.size())).getPosition());
+      model.playerMove();
+    }
+  }
+
+  private List<CellStatus> playToEnd(IReversi model, int size) {
+    model.initializeReversi(size);
+    Random random = new Random(17);
+    while (!model.isGameOver()) {
+      playRandomMove(model, random);
+    }
+    List<CellStatus> statuses = new ArrayList<>();
+    for (ICell c : model.getAllCells()) {
+      statuses.add(c.getCellStatus());
+    }
+    return statuses;
+  }
+}
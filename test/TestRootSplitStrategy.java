@@ -0,0 +1,94 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PackedHexReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+import ourreversi.strategy.MoveScorer;
+import ourreversi.strategy.RootSplitStrategy;
+
+/**
+ * Test the greedy strategy scoring moves one after another and at the same time.
+ */
+public class TestRootSplitStrategy {
+
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  // Both ways choose the same move in every position of many random games.
+  @Test
+  public void testParallelSameAsSequential() {
+    MoveScorer[] scorers = {MoveScorer.flipMost(), MoveScorer.minimizeNextPlayerChoice(),
+        (game, index, player) -> 0};
+    for (MoveScorer scorer : scorers) {
+      RootSplitStrategy sequential = new RootSplitStrategy(scorer);
+      RootSplitStrategy parallel = new RootSplitStrategy(scorer, pool);
+      IReversi[] models = {new BasicReversi(), new SquareReversi(), new BitboardReversi(),
+          new PackedHexReversi()};
+      for (IReversi model : models) {
+        model.initializeReversi(4);
+        Random random = new Random(11);
+        while (!model.isGameOver()) {
+          PlayerIdentity player = model.getCurrentPlayer();
+          ICellPosition expected = sequential.chooseCell(model, player);
+          ICellPosition actual = parallel.chooseCell(model, player);
+          Assert.assertEquals(toString(expected), toString(actual));
+          List<ICell> canGo = model.getAllCellsCanGo();
+          if (canGo.isEmpty()) {
+            Assert.assertNull(expected);
+            model.playerPass();
+          } else {
+            model.playerChooseCell(canGo.get(random.nextInt(canGo.size())).getPosition());
+            model.playerMove();
+          }
+        }
+      }
+    }
+  }
+
+  // Ties are broken by the upmost leftmost cell.
+  @Test
+  public void testTieChoosesFirstCell() {
+    IReversi model = new SquareReversi();
+    model.initializeReversi(4);
+    ICellPosition first = model.getAllCellsCanGo().get(0).getPosition();
+    ICellPosition chosen = new RootSplitStrategy((game, index, player) -> 0, pool)
+            .chooseCell(model, PlayerIdentity.BLACKPLAYER);
+    Assert.assertEquals(toString(first), toString(chosen));
+  }
+
+  @Test
+  public void testFlipMostAndModelUnchanged() {
+    IReversi model = new BasicReversi();
+    model.initializeReversi(3);
+    Random random = new Random(5);
+    for (int i = 0; i < 4; i++) {
+      List<ICell> canGo = model.getAllCellsCanGo();
+      model.playerChooseCell(canGo.get(random.nextInt(canGo.size())).getPosition());
+      model.playerMove();
+    }
+    List<String> board = GameHelper.statusesOf(model);
+    PlayerIdentity player = model.getCurrentPlayer();
+    ICellPosition chosen = new RootSplitStrategy(MoveScorer.flipMost(), pool)
+            .chooseCell(model, player);
+    int most = 0;
+    for (ICell c : model.getAllCellsCanGo()) {
+      most = Math.max(most, model.numAbleToFlip(c, player));
+    }
+    Assert.assertEquals(most, model.numAbleToFlip(model.getCellOnPosition(chosen), player));
+    Assert.assertEquals(board, GameHelper.statusesOf(model));
+    Assert.assertEquals(player, model.getCurrentPlayer());
+  }
+
+  private String toString(ICellPosition position) {
+    return position == null ? "pass" : position.xGetter() + " " + position.yGetter();
+  }
+}
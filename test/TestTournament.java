@@ -0,0 +1,134 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ourreversi.ReversiCreator;
+import ourreversi.simulation.BoardVariant;
+import ourreversi.simulation.Tournament;
+import ourreversi.simulation.TournamentResult;
+
+/**
+ * Test the round-robin tournament and its ratings.
+ */
+public class TestTournament {
+
+  private static final List<ReversiCreator.GameType> ROSTER = Arrays.asList(
+          ReversiCreator.GameType.EASY, ReversiCreator.GameType.HARD,
+          ReversiCreator.GameType.OTHERMAX);
+  private static final List<BoardVariant> VARIANTS = Arrays.asList(
+          BoardVariant.basic(3), BoardVariant.square(4));
+
+  // 2 boards, 3 pairs, 4 games each: every pair plays each color twice on every board.
+  @Test
+  public void testEveryPairingWithColorsSwapped() throws IOException {
+    Path output = Files.createTempFile("tournament", ".csv");
+    try {
+      TournamentResult result = new Tournament(ROSTER, VARIANTS, 4, 2, 7)
+              .run(2, output, Tournament.Format.CSV);
+      Assert.assertEquals(24, result.getGames());
+      List<String> lines = Files.readAllLines(output);
+      Assert.assertEquals("variant,black,white,black_chess,white_chess,winner", lines.get(0));
+      Assert.assertEquals(25, lines.size());
+      Map<String, Integer> count = new HashMap<>();
+      double points = 0;
+      for (String line : lines.subList(1, lines.size())) {
+        String[] fields = line.split(",");
+        count.merge(fields[0] + " " + fields[1] + " " + fields[2], 1, Integer::sum);
+        int black = Integer.parseInt(fields[3]);
+        int white = Integer.parseInt(fields[4]);
+        Assert.assertEquals(black > white ? "black" : black < white ? "white" : "draw",
+                fields[5]);
+      }
+      Assert.assertEquals(12, count.size());
+      for (int games : count.values()) {
+        Assert.assertEquals(2, games);
+      }
+      for (ReversiCreator.GameType player : ROSTER) {
+        points += result.getPoints(player);
+      }
+      Assert.assertEquals(24, points, 1e-9);
+    } finally {
+      Files.delete(output);
+    }
+  }
+
+  @Test
+  public void testJsonOutput() throws IOException {
+    Path output = Files.createTempFile("tournament", ".json");
+    try {
+      new Tournament(ROSTER, VARIANTS, 2, 2, 7).run(1, output, Tournament.Format.JSON);
+      String json = new String(Files.readAllBytes(output)).trim();
+      Assert.assertTrue(json.startsWith("["));
+      Assert.assertTrue(json.endsWith("]"));
+      Assert.assertEquals(12, json.split("\"variant\"").length - 1);
+      Assert.assertFalse(json.contains(",\n]"));
+    } finally {
+      Files.delete(output);
+    }
+  }
+
+  // The same games and ratings whatever the number of threads.
+  @Test
+  public void testRatingsDeterministic() throws IOException {
+    Path output = Files.createTempFile("tournament", ".csv");
+    try {
+      TournamentResult one = new Tournament(ROSTER, VARIANTS, 4, 2, 3)
+              .run(1, output, Tournament.Format.CSV);
+      TournamentResult three = new Tournament(ROSTER, VARIANTS, 4, 2, 3)
+              .run(3, output, Tournament.Format.CSV);
+      double mean = 0;
+      for (ReversiCreator.GameType player : ROSTER) {
+        Assert.assertEquals(one.getRating(player), three.getRating(player), 1e-6);
+        Assert.assertEquals(one.getPoints(player), three.getPoints(player), 1e-9);
+        mean += one.getRating(player) / ROSTER.size();
+      }
+      Assert.assertEquals(1500, mean, 1e-6);
+    } finally {
+      Files.delete(output);
+    }
+  }
+
+  // More points than another player is a higher rating.
+  @Test
+  public void testRatingsFollowPoints() throws IOException {
+    Path output = Files.createTempFile("tournament", ".csv");
+    try {
+      TournamentResult result = new Tournament(ROSTER, VARIANTS, 6, 2, 5)
+              .run(2, output, Tournament.Format.CSV);
+      for (ReversiCreator.GameType a : ROSTER) {
+        for (ReversiCreator.GameType b : ROSTER) {
+          if (result.getPoints(a) > result.getPoints(b) + 1e-9) {
+            Assert.assertTrue(result.getRating(a) > result.getRating(b));
+          }
+        }
+      }
+    } finally {
+      Files.delete(output);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHumanRejected() {
+    new Tournament(Arrays.asList(ReversiCreator.GameType.EASY, ReversiCreator.GameType.HUMAN),
+            VARIANTS, 2, 0, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDuplicateRejected() {
+    new Tournament(Arrays.asList(ReversiCreator.GameType.EASY, ReversiCreator.GameType.EASY),
+            VARIANTS, 2, 0, 0);
+  }
+
+  @Test
+  public void testParseVariant() {
+    Assert.assertEquals("basic 5", BoardVariant.parse("basic:5").getName());
+    Assert.assertEquals("square 8", BoardVariant.parse("Square:8").getName());
+  }
+}
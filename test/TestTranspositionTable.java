@@ -0,0 +1,116 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.strategy.AlphaBetaStrategy;
+import ourreversi.strategy.TranspositionTable;
+
+/**
+ * Test the lock-free transposition table.
+ */
+public class TestTranspositionTable {
+
+  @Test
+  public void testStoreAndProbe() {
+    TranspositionTable table = new TranspositionTable(1);
+    Assert.assertEquals(65536, table.capacity());
+    Assert.assertEquals(0, table.probe(42L));
+
+    table.store(42L, 7, TranspositionTable.LOWER_BOUND, -1234, 17);
+    long entry = table.probe(42L);
+    Assert.assertEquals(-1234, TranspositionTable.scoreOf(entry));
+    Assert.assertEquals(7, TranspositionTable.depthOf(entry));
+    Assert.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.boundOf(entry));
+    Assert.assertEquals(17, TranspositionTable.moveOf(entry));
+
+    /* same slot, different key.*/
+    Assert.assertEquals(0, table.probe(42L + table.capacity()));
+    table.clear();
+    Assert.assertEquals(0, table.probe(42L));
+  }
+
+  @Test
+  public void testDepthPreferredReplacement() {
+    TranspositionTable table = new TranspositionTable(1);
+    long other = 42L + table.capacity();
+    table.store(42L, 6, TranspositionTable.EXACT, 5, 1);
+    table.store(other, 3, TranspositionTable.EXACT, 9, 2);
+    Assert.assertNotEquals(0, table.probe(42L));
+    Assert.assertEquals(0, table.probe(other));
+
+    table.store(other, 6, TranspositionTable.EXACT, 9, 2);
+    Assert.assertEquals(0, table.probe(42L));
+    Assert.assertEquals(9, TranspositionTable.scoreOf(table.probe(other)));
+
+    /* entries of an older search are replaced by any depth.*/
+    table.newSearch();
+    table.store(42L, 1, TranspositionTable.UPPER_BOUND, 3, -1);
+    Assert.assertEquals(3, TranspositionTable.scoreOf(table.probe(42L)));
+    Assert.assertEquals(-1, TranspositionTable.moveOf(table.probe(42L)));
+  }
+
+  @Test
+  public void testMoveOutOfTheTableThrows() {
+    TranspositionTable table = new TranspositionTable(1);
+    int last = TranspositionTable.MAX_CELLS - 1;
+    table.store(42L, 3, TranspositionTable.EXACT, 3, last);
+    Assert.assertEquals(last, TranspositionTable.moveOf(table.probe(42L)));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            table.store(42L, 3, TranspositionTable.EXACT, 3, TranspositionTable.MAX_CELLS));
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            table.store(42L, 3, TranspositionTable.EXACT, 3, -2));
+    Assert.assertEquals(last, TranspositionTable.moveOf(table.probe(42L)));
+  }
+
+  // A board too big for the table is refused before the search touches it.
+  @Test
+  public void testSearchRefusesBoardTooBigForTheTable() {
+    IReversi model = new BitboardReversi();
+    model.initializeReversi(128);
+    Assert.assertTrue(model.getAllCells().size() > TranspositionTable.MAX_CELLS);
+    long key = model.getZobristKey();
+    Assert.assertThrows(IllegalArgumentException.class, () ->
+            new AlphaBetaStrategy(100, 2, new TranspositionTable(1))
+                    .search(model, PlayerIdentity.WHITEPLAYER));
+    Assert.assertEquals(key, model.getZobristKey());
+    Assert.assertEquals(PlayerIdentity.BLACKPLAYER, model.getCurrentPlayer());
+  }
+
+  // Entries written by many threads at once are either whole or missing.
+  @Test
+  public void testConcurrentEntriesAreNeverTorn() throws InterruptedException {
+    TranspositionTable table = new TranspositionTable(1);
+    List<Thread> threads = new ArrayList<>();
+    List<Throwable> failures = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      SplittableRandom random = new SplittableRandom(t);
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 200000; i++) {
+          /* only 64 slots, so threads keep writing over each other.*/
+          long key = random.nextLong() & ~((long) table.capacity() - 64);
+          int score = (int) (key >>> 40);
+          table.store(key, random.nextInt(20), TranspositionTable.EXACT, score, 5);
+          long entry = table.probe(key);
+          if (entry != 0 && TranspositionTable.scoreOf(entry) != score) {
+            synchronized (failures) {
+              failures.add(new AssertionError("torn entry"));
+            }
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    Assert.assertEquals(new ArrayList<>(), failures);
+  }
+}
@@ -0,0 +1,307 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.awt.EventQueue;
+import java.awt.event.KeyEvent;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.swing.JPanel;
+
+import ourreversi.ReversiCreator;
+import ourreversi.cell.ICell;
+import ourreversi.cell.ICellPosition;
+import ourreversi.controller.Controller;
+import ourreversi.controller.IActionListener;
+import ourreversi.controller.TurnScheduler;
+import ourreversi.model.IPlayer;
+import ourreversi.model.IReadOnlyModel;
+import ourreversi.model.IReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+import ourreversi.view.IReversiView;
+
+/**
+ * Test the computer turns played by the turn scheduler.
+ */
+public class TestTurnScheduler {
+
+  // An AI versus AI game is played to the end without the call chain growing every ply.
+  @Test
+  public void testComputerGameDoesNotRecurse() throws InterruptedException {
+    SquareReversi model = new SquareReversi();
+    model.initializeReversi(8);
+    List<Integer> depths = Collections.synchronizedList(new ArrayList<>());
+    try (TurnScheduler scheduler = new TurnScheduler()) {
+      new Controller(model, ReversiCreator.createPlayer(ReversiCreator.GameType.EASY,
+              PlayerIdentity.BLACKPLAYER), new NoView(), scheduler);
+      new Controller(model, ReversiCreator.createPlayer(ReversiCreator.GameType.HARD,
+              PlayerIdentity.WHITEPLAYER), new NoView(), scheduler);
+      model.addController(new Probe(depths));
+      model.startGame();
+      Assert.assertTrue(scheduler.awaitIdle(60000));
+    }
+    Assert.assertTrue(model.isGameOver());
+    Assert.assertTrue(depths.size() > 20);
+    int min = Collections.min(depths);
+    int max = Collections.max(depths);
+    Assert.assertTrue("stack grew from " + min + " to " + max, max - min < 10);
+  }
+
+  // Turns run in order on the thread of the scheduler, awaitIdle waits for turns
+  // scheduled by turns.
+  @Test
+  public void testTurnsInOrder() throws InterruptedException {
+    List<Integer> played = Collections.synchronizedList(new ArrayList<>());
+    try (TurnScheduler scheduler = new TurnScheduler()) {
+      /* queue the five turns from a turn, so none runs before all are queued.*/
+      scheduler.schedule(() -> {
+        for (int i = 0; i < 5; i++) {
+          int turn = i;
+          scheduler.schedule(() -> {
+            played.add(turn);
+            scheduler.schedule(() -> played.add(turn + 10));
+          });
+        }
+      });
+      Assert.assertTrue(scheduler.awaitIdle(5000));
+    }
+    Assert.assertEquals(List.of(0, 1, 2, 3, 4, 10, 11, 12, 13, 14), played);
+  }
+
+  // A human plays a computer through the event thread, as the view would; the model is
+  // only touched on the event thread, the computer only searches copies.
+  @Test
+  public void testHumanVersusComputerOnEventThread() throws Exception {
+    EventThreadReversi model = new EventThreadReversi();
+    JPanel source = new JPanel();
+    KeyEvent enter = new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_ENTER, '\n');
+    KeyEvent pass = new KeyEvent(source, KeyEvent.KEY_PRESSED, 0, 0, KeyEvent.VK_P, 'p');
+    try (TurnScheduler scheduler = new TurnScheduler()) {
+      Controller[] human = new Controller[1];
+      onEventThread(() -> {
+        model.initializeReversi(3);
+        human[0] = new Controller(model, ReversiCreator.createPlayer(
+                ReversiCreator.GameType.HUMAN, PlayerIdentity.BLACKPLAYER), new NoView(), scheduler);
+        new Controller(model, ReversiCreator.createPlayer(ReversiCreator.GameType.MEDIUM,
+                PlayerIdentity.WHITEPLAYER), new NoView(), scheduler);
+        model.startGame();
+      });
+      boolean[] over = new boolean[1];
+      for (int ply = 0; ply < 200 && !over[0]; ply++) {
+        Assert.assertTrue(scheduler.awaitIdle(10000));
+        onEventThread(() -> {
+          if (model.isGameOver()) {
+            over[0] = true;
+          } else if (model.getCurrentPlayer() == PlayerIdentity.BLACKPLAYER) {
+            List<ICell> canGo = model.getAllCellsCanGo();
+            if (canGo.isEmpty()) {
+              human[0].handleKeyPressed(pass);
+            } else {
+              human[0].handleMousePressed(canGo.get(0).getPosition());
+              human[0].handleKeyPressed(enter);
+            }
+          }
+        });
+      }
+      Assert.assertTrue(over[0]);
+    }
+    Assert.assertEquals(List.of(), model.offEventThread);
+    Assert.assertTrue(model.whiteMoves > 0);
+  }
+
+  // A computer player failing to move is logged and shown, not lost on the scheduler.
+  @Test
+  public void testComputerErrorIsReported() throws Exception {
+    SquareReversi model = new SquareReversi() {
+      @Override
+      public IReversi copyGame() {
+        throw new IllegalStateException("no copy");
+      }
+    };
+    NoView view = new NoView();
+    try (TurnScheduler scheduler = new TurnScheduler()) {
+      onEventThread(() -> {
+        model.initializeReversi(2);
+        new Controller(model, ReversiCreator.createPlayer(ReversiCreator.GameType.EASY,
+                PlayerIdentity.BLACKPLAYER), view, scheduler);
+        model.startGame();
+      });
+      Assert.assertTrue(scheduler.awaitIdle(5000));
+    }
+    Assert.assertEquals(1, view.errors.size());
+    Assert.assertTrue(view.errors.get(0).contains("no copy"));
+    Assert.assertFalse(model.isGameOver());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testClosed() {
+    TurnScheduler scheduler = new TurnScheduler();
+    scheduler.close();
+    scheduler.schedule(() -> { });
+  }
+
+  /**
+   * Represent a listener recording the depth of the call chain at every turn played by
+   * the scheduler.
+   */
+  private static final class Probe implements IActionListener {
+    private final List<Integer> depths;
+
+    private Probe(List<Integer> depths) {
+      this.depths = depths;
+    }
+
+    @Override
+    public void runIfComputer() {
+      if (EventQueue.isDispatchThread()) {
+        depths.add(Thread.currentThread().getStackTrace().length);
+      }
+    }
+
+    @Override
+    public void handleKeyPressed(KeyEvent e) {
+      // Not a view.
+    }
+
+    @Override
+    public void handleMousePressed(ICellPosition cell) {
+      // Not a view.
+    }
+
+    @Override
+    public void updateView() {
+      // Not a view.
+    }
+
+    @Override
+    public void letPanelShowGameOver() {
+      // Not a view.
+    }
+  }
+
+  private static void onEventThread(Runnable task)
+          throws InterruptedException, InvocationTargetException {
+    EventQueue.invokeAndWait(task);
+  }
+
+  /**
+   * Represent a square game recording every read or change made off the event thread
+   * once it is started, and the moves of the white player.
+   */
+  private static final class EventThreadReversi extends SquareReversi {
+    private final List<String> offEventThread = Collections.synchronizedList(new ArrayList<>());
+    private int whiteMoves;
+
+    private void check(String method) {
+      if (!EventQueue.isDispatchThread()) {
+        offEventThread.add(method + " on " + Thread.currentThread().getName());
+      }
+    }
+
+    @Override
+    public boolean isGameOver() {
+      check("isGameOver");
+      return super.isGameOver();
+    }
+
+    @Override
+    public PlayerIdentity getCurrentPlayer() {
+      check("getCurrentPlayer");
+      return super.getCurrentPlayer();
+    }
+
+    @Override
+    public List<ICell> getAllCellsCanGo() {
+      check("getAllCellsCanGo");
+      return super.getAllCellsCanGo();
+    }
+
+    @Override
+    public IReversi copyGame() {
+      check("copyGame");
+      return super.copyGame();
+    }
+
+    @Override
+    public void playerChooseCell(ICellPosition cellPosition) {
+      check("playerChooseCell");
+      super.playerChooseCell(cellPosition);
+    }
+
+    @Override
+    public void playerMove() {
+      check("playerMove");
+      if (super.getCurrentPlayer() == PlayerIdentity.WHITEPLAYER) {
+        whiteMoves++;
+      }
+      super.playerMove();
+    }
+
+    @Override
+    public void playerPass() {
+      check("playerPass");
+      super.playerPass();
+    }
+  }
+
+  /**
+   * Represent a view showing nothing, for games without a screen.
+   * Records the computer errors it is asked to show.
+   */
+  private static final class NoView implements IReversiView {
+    private final List<String> errors = Collections.synchronizedList(new ArrayList<>());
+
+    @Override
+    public void setVisible(boolean visible) {
+      // Nothing to show.
+    }
+
+    @Override
+    public void setKeyPressHandler(IActionListener controller) {
+      // Nothing to show.
+    }
+
+    @Override
+    public void setMousePressHandler(IActionListener controller) {
+      // Nothing to show.
+    }
+
+    @Override
+    public void update() {
+      // Nothing to show.
+    }
+
+    @Override
+    public void setTitle(IPlayer player, IReadOnlyModel model) {
+      // Nothing to show.
+    }
+
+    @Override
+    public void showUnableTOMove() {
+      // Nothing to show.
+    }
+
+    @Override
+    public void showGameOver(IPlayer player) {
+      // Nothing to show.
+    }
+
+    @Override
+    public void showCellError() {
+      // Nothing to show.
+    }
+
+    @Override
+    public void showComputerError(String message) {
+      errors.add(message);
+    }
+
+    @Override
+    public void setPlayer(PlayerIdentity identity) {
+      // Nothing to show.
+    }
+  }
+}
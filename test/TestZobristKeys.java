@@ -0,0 +1,91 @@
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import ourreversi.cell.CellStatus;
+import ourreversi.cell.ICell;
+import ourreversi.model.BasicReversi;
+import ourreversi.model.BitboardReversi;
+import ourreversi.model.IReversi;
+import ourreversi.model.PackedHexReversi;
+import ourreversi.model.PlayerIdentity;
+import ourreversi.model.SquareReversi;
+import ourreversi.model.UndoRecord;
+
+/**
+ * Test the Zobrist keys kept up to date by the models.
+ */
+public class TestZobristKeys {
+
+  // Models of the same board give the same key to the same position.
+  @Test
+  public void testSameKeyForSameBoard() {
+    playSideBySide(new BasicReversi(), new PackedHexReversi(), 4);
+    playSideBySide(new SquareReversi(), new BitboardReversi(), 3);
+  }
+
+  @Test
+  public void testKeyFollowsEveryChange() {
+    IReversi[] models = {new BasicReversi(), new PackedHexReversi(),
+        new SquareReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(3);
+      long start = model.getZobristKey();
+      ICell c = model.getAllCells().get(0);
+      c.changeStatus(CellStatus.BLACK);
+      Assert.assertNotEquals(start, model.getZobristKey());
+      c.changeStatus(CellStatus.EMPTY);
+      Assert.assertEquals(start, model.getZobristKey());
+
+      model.setCurrentPlayerIdentity(PlayerIdentity.WHITEPLAYER);
+      Assert.assertNotEquals(start, model.getZobristKey());
+      model.setCurrentPlayerIdentity(PlayerIdentity.BLACKPLAYER);
+      Assert.assertEquals(start, model.getZobristKey());
+    }
+  }
+
+  @Test
+  public void testUnmakeRestoresKey() {
+    IReversi[] models = {new BasicReversi(), new PackedHexReversi(),
+        new SquareReversi(), new BitboardReversi()};
+    for (IReversi model : models) {
+      model.initializeReversi(4);
+      Set<Long> keys = new HashSet<>();
+      int[] moves = new int[model.getAllCells().size()];
+      long start = model.getZobristKey();
+      int count = model.generateMoves(moves);
+      UndoRecord undo = new UndoRecord();
+      for (int i = 0; i < count; i++) {
+        model.makeMove(moves[i], undo);
+        keys.add(model.getZobristKey());
+        model.unmakeMove(undo);
+        Assert.assertEquals(start, model.getZobristKey());
+      }
+      Assert.assertEquals(count, keys.size());
+    }
+  }
+
+  private void playSideBySide(IReversi model, IReversi other, int size) {
+    model.initializeReversi(size);
+    other.initializeReversi(size);
+    Random random = new Random(5);
+    while (!model.isGameOver()) {
+      Assert.assertEquals(model.getZobristKey(), other.getZobristKey());
+      List<ICell> canGo = model.getAllCellsCanGo();
+      if (canGo.isEmpty()) {
+        model.playerPass();
+        other.playerPass();
+      } else {
+        ICell move = canGo.get(random.nextInt(canGo.size()));
+        model.playerChooseCell(move.getPosition());
+        model.playerMove();
+        other.playerChooseCell(move.getPosition());
+        other.playerMove();
+      }
+    }
+  }
+}
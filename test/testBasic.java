@@ -6,6 +6,7 @@ import java.util.List;
 import ourreversi.cell.ICell;
 import ourreversi.controller.Controller;
 import ourreversi.controller.IActionListener;
+import ourreversi.controller.TurnScheduler;
 import ourreversi.model.BasicReversi;
 import ourreversi.model.IPlayer;
 import ourreversi.model.Player;
@@ -1332,13 +1333,14 @@ public class TestBasic {
     IReversi model = new BasicReversi();
     model.initializeReversi(2);
 
+    TurnScheduler scheduler = new TurnScheduler();
     IActionListener controller1 = new Controller(model,
             new Player(PlayerIdentity.BLACKPLAYER),
-            new SimpleReversiView(model));
+            new SimpleReversiView(model), scheduler);
 
     IActionListener controller2 = new Controller(model,
             new Player(PlayerIdentity.WHITEPLAYER),
-            new SimpleReversiView(model));
+            new SimpleReversiView(model), scheduler);
 
     Assert.assertNull(model.getWinner());
   }
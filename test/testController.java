@@ -6,6 +6,7 @@ import java.awt.Button;
 import java.awt.event.KeyEvent;
 
 import ourreversi.controller.Controller;
+import ourreversi.controller.TurnScheduler;
 
 import ourreversi.model.AIPlayer;
 import ourreversi.model.BasicReversi;
@@ -32,8 +33,9 @@ public class TestController {
     IReversiView viewPlayer2 = new SimpleReversiView(model);
     IPlayer player1 = new Player(PlayerIdentity.BLACKPLAYER);
     IPlayer player2 = new Player(PlayerIdentity.WHITEPLAYER);
-    Controller controller1 = new Controller(model, player1, viewPlayer1);
-    Controller controller2 = new Controller(model, player2, viewPlayer2);
+    TurnScheduler scheduler = new TurnScheduler();
+    Controller controller1 = new Controller(model, player1, viewPlayer1, scheduler);
+    Controller controller2 = new Controller(model, player2, viewPlayer2, scheduler);
     CellPosition chosenCellPosition_1 = new CellPosition(0, 0, 0);
     CellPosition chosenCellPosition_2 = new CellPosition(-1, -1, 2);
 
@@ -65,8 +67,9 @@ public class TestController {
     IReversiView viewPlayer2 = new SimpleReversiView(model);
     IPlayer player1 = new Player(PlayerIdentity.BLACKPLAYER);
     IPlayer player2 = new Player(PlayerIdentity.WHITEPLAYER);
-    Controller controller1 = new Controller(model, player1, viewPlayer1);
-    Controller controller2 = new Controller(model, player2, viewPlayer2);
+    TurnScheduler scheduler = new TurnScheduler();
+    Controller controller1 = new Controller(model, player1, viewPlayer1, scheduler);
+    Controller controller2 = new Controller(model, player2, viewPlayer2, scheduler);
     // Simulate key press event for 'P' key.
     Button button = new Button("Click");
 
@@ -84,21 +87,24 @@ public class TestController {
 
   // AI play the game. Check AI work correctly.
   @Test
-  public void testHandleKeyPress_AI() {
+  public void testHandleKeyPress_AI() throws InterruptedException {
     BasicReversi model = new BasicReversi();
     model.initializeReversi(2);
     IReversiView viewPlayer1 = new SimpleReversiView(model);
     IReversiView viewPlayer2 = new SimpleReversiView(model);
     IPlayer player1 = new Player(PlayerIdentity.BLACKPLAYER);
     IPlayer player2 = new AIPlayer(PlayerIdentity.WHITEPLAYER, Easy);
-    Controller controller1 = new Controller(model, player1, viewPlayer1);
-    Controller controller2 = new Controller(model, player2, viewPlayer2);
+    TurnScheduler scheduler = new TurnScheduler();
+    Controller controller1 = new Controller(model, player1, viewPlayer1, scheduler);
+    Controller controller2 = new Controller(model, player2, viewPlayer2, scheduler);
     // Simulate key press event for 'P' key.
     Button button = new Button("Click");
 
     // Check if the model has been updated correctly
     Assert.assertEquals(model.getCurrentPlayer(), PlayerIdentity.BLACKPLAYER);
     controller1.handleKeyPressed(new KeyEvent(button, 1, 20, 0, 80, 'p'));
+    // The AI moves on the scheduler, wait for it.
+    Assert.assertTrue(scheduler.awaitIdle(5000));
     // Check if the model has been updated correctly
     Assert.assertEquals(model.getCurrentPlayer(), PlayerIdentity.BLACKPLAYER);
   }